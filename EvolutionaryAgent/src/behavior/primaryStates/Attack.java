@@ -17,6 +17,7 @@ package behavior.primaryStates;
 import enumTypes.rayCardinals;
 import knowledge.EnemyInfo;
 import evolutionaryComputation.Individual;
+import utilities.RandomService;
 
 import cz.cuni.amis.pogamut.base.agent.navigation.IPathPlanner;
 import cz.cuni.amis.pogamut.base.communication.command.IAct;
@@ -36,8 +37,6 @@ import cz.cuni.amis.pogamut.ut2004.communication.messages.gbcommands.SetCrouch;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.AutoTraceRay;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Player;
 
-import java.util.Random;
-
 
 /**
  * This state is useful when we want to shoot the enemy. If the enemy is on sight,
@@ -123,8 +122,7 @@ public class Attack extends PrimaryState {
             double eastDistance = info.getDistance(cardinalRayArray [rayCardinals.EAST.ordinal ()].getHitLocation());
             double westDistance = info.getDistance(cardinalRayArray [rayCardinals.WEST.ordinal ()].getHitLocation());
 
-            Random rand = new Random();
-            int chance = rand.nextInt(100);
+            int chance = RandomService.current ().nextInt (100);
             if (chance < 30) {
                 if (westDistance > 200) {
                     move.strafeLeft(200, focus);
@@ -17,6 +17,7 @@ package behavior.primaryStates;
 import bot.T800;
 import knowledge.EnemyInfo;
 import utilities.Arithmetic;
+import utilities.RandomService;
 import evolutionaryComputation.Individual;
 
 import cz.cuni.amis.pogamut.base.agent.navigation.IPathFuture;
@@ -38,8 +39,6 @@ import cz.cuni.amis.pogamut.ut2004.communication.messages.gbcommands.SetCrouch;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.AutoTraceRay;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Player;
 
-import java.util.Random;
-
 
 /**
  * This state is used to hunt the enemy. If the enemy is not on sight and this state
@@ -145,13 +144,12 @@ public class Hunt extends PrimaryState {
         // If we have reached a destination and we don't know where to go, go to
         // a random area
         if (!pathExecutor.isExecuting()) {
-            Random rand = new Random();
             Location newDestination = null;
             int pos = 0;
 
             boolean success = false;
             while (!success) {
-                pos = rand.nextInt(T800.areas.length);
+                pos = RandomService.current ().nextInt (T800.areas.length);
                 if (!visitedSpots.contains (T800.areas [pos].getLocation ())) {
                     success = true;
                     newDestination = T800.areas [pos].getLocation ();
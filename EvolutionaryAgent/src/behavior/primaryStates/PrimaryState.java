@@ -411,6 +411,35 @@ public abstract class PrimaryState {
 
     //__________________________________________________________________________
 
+    /**
+     * Selects the weapon with the biggest advantage among those that have ammo,
+     * following the same criteria as switchToBestWeapon. It doesn't depend on the
+     * Pogamut modules, so it can be used outside of a match (i.e. by a simulator).
+     * @param ammo Ammo of each weapon (indexed by the constants in EnemyInfo).
+     * @param testIndividual Individual whose genes dictate the weapon choice.
+     * @return Position of the selected weapon in the arsenal vector or -1 if no
+     * weapon is worth switching to.
+     */
+    public static int selectBestWeapon (final int ammo [], final Individual testIndividual) {
+        int distanceAdvantage = 0, maximum = 0;
+        int selectedWeapon = -1;
+
+        for (int weapon = 0; weapon < ammo.length; ++weapon) {
+            if (ammo [weapon] > 0) {
+                distanceAdvantage = estimateWeaponAdvantage (EnemyInfo.ARSENAL_TYPES [weapon], testIndividual);
+
+                if (distanceAdvantage > maximum) {
+                    maximum = distanceAdvantage;
+                    selectedWeapon = weapon;
+                }
+            }
+        }
+
+        return selectedWeapon;
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Shoots an enemy if he is on sight or a target if we specify it.
      * @param enemy Enemy.
@@ -700,7 +729,20 @@ public abstract class PrimaryState {
      * @return How good this weapon is from 0 to 100.
      */
     protected int estimateWeaponAdvantage (final Weapon weapon, final Player enemy, final EnemyInfo enemyInfo) {
-        ItemType type = weapon.getType();
+        return estimateWeaponAdvantage (weapon.getType (), testIndividual);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Given a type of weapon, it estimates how profitable it is from 0 to 100 for
+     * a given individual. It doesn't depend on the Pogamut modules, so it can be
+     * used outside of a match (i.e. by a simulator).
+     * @param type Type of the weapon we want estimate how good it is.
+     * @param testIndividual Individual whose genes dictate the weapon choice.
+     * @return How good this weapon is from 0 to 100.
+     */
+    public static int estimateWeaponAdvantage (final ItemType type, final Individual testIndividual) {
         int profit = 0;
 
         // SHIELD GUN
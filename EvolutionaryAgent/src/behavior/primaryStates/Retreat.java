@@ -17,6 +17,7 @@ package behavior.primaryStates;
 import bot.T800;
 import knowledge.EnemyInfo;
 import utilities.Arithmetic;
+import utilities.RandomService;
 import evolutionaryComputation.Individual;
 
 import cz.cuni.amis.pogamut.base.agent.navigation.IPathFuture;
@@ -39,8 +40,6 @@ import cz.cuni.amis.pogamut.ut2004.communication.messages.gbcommands.SetCrouch;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.AutoTraceRay;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Player;
 
-import java.util.Random;
-
 
 /**
  * This state is used to run from the enemy. Its useful to get to a safe spot when
@@ -145,13 +144,12 @@ public class Retreat extends PrimaryState {
 
         if (!pathExecutor.isExecuting()) {
             // Move to a random area
-            Random rand = new Random();
             Location newDestination = null;
             int pos = 0;
 
             boolean success = false;
             while (!success) {
-                pos = rand.nextInt(T800.areas.length);
+                pos = RandomService.current ().nextInt (T800.areas.length);
                 if (!visitedSpots.contains (T800.areas [pos].getLocation ())) {
                     success = true;
                     newDestination = T800.areas [pos].getLocation ();
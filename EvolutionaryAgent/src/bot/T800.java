@@ -72,6 +72,9 @@ import cz.cuni.amis.pogamut.ut2004.utils.UnrealUtils;
 import cz.cuni.amis.utils.exception.PogamutException;
 import cz.cuni.amis.utils.flag.FlagListener;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import javax.vecmath.Vector3d;
 
@@ -97,6 +100,8 @@ public class T800 extends UT2004BotModuleController {
     public static NavPoint pathNodes [];
     /** Array containing all the important areas of the current map */
     public static NavPoint areas [];
+    /** File containing the parameters of the genetic algorithm */
+    public static final String GENETIC_CONFIG = "Genetic.properties";
 
 
     // *************************************************************************
@@ -118,6 +123,8 @@ public class T800 extends UT2004BotModuleController {
     private EnemyInfo enemyInfo;
     /** Module that controls the access to the data base */
     private Memoria memory;
+    /** Writes to the data base in the background, so the events aren't delayed */
+    private PersistenceWriter writer;
     /** It is the brains of the bot, it decides when to switch from one state to another */
     private Skynet skynet;
     /** Genetic algorithm being used */
@@ -165,11 +172,30 @@ public class T800 extends UT2004BotModuleController {
 
         // Initialize the Data Base controller
         memory = new Memoria (false, false, 26, false);
+        writer = new PersistenceWriter ("T800-persistence", 8);
         memory.storeBestIndividuo(IndividualV1.class.getSimpleName(), null, true);
         memory.debug (true);
 
-        // Load the genetic algorithm
-        geneticAlg = new DeterministicGenetic (50, 30, new UniformCrossover(), memory);
+        // Load the genetic algorithm. Its parameters can be changed through the
+        // configuration file, otherwise the default ones are used
+        GeneticConfig config = new GeneticConfig ();
+        File configFile = new File (GENETIC_CONFIG);
+        if (configFile.exists ()) {
+            try {
+                config.load (configFile);
+            }
+            catch (IOException e) {
+                log.log (Level.WARNING, "Couldn't read " + GENETIC_CONFIG + ", using the default configuration", e);
+                config = new GeneticConfig ();
+            }
+            catch (IllegalArgumentException e) {
+                log.log (Level.WARNING, "Invalid value in " + GENETIC_CONFIG + ", using the default configuration", e);
+                config = new GeneticConfig ();
+            }
+        }
+        geneticAlg = new DeterministicGenetic (config, memory);
+        // The individuals whose results are cached don't play again
+        geneticAlg.skipCached (1, memory);
         // Get a reference to the individual that is goint to play the current match
         testIndividual = geneticAlg.testIndividual ();
 
@@ -420,7 +446,7 @@ public class T800 extends UT2004BotModuleController {
         // If we have killed him, let's say a charming comment :P
         UnrealId killerId = event.getKiller ();
         if (killerId != null && info.getId ().equals (killerId)) {
-            if (Math.random () < 0.5) {
+            if (RandomService.current ().nextBoolean ()) {
                 int randomQuote = Arithmetic.doRandomNumber (0, memorableQuotes.length - 1);
                 body.getCommunication ().sendGlobalTextMessage (memorableQuotes [randomQuote]);
             }
@@ -460,16 +486,29 @@ public class T800 extends UT2004BotModuleController {
     //__________________________________________________________________________
 
     /**
-     * When the match ends it gets triggered.
+     * When the match ends it gets triggered. The information is written in the
+     * background (the items and the genetic algorithm are copied first, they keep
+     * being updated).
      * @param event MapFinished event.
      */
     @EventListener (eventClass = MapFinished.class)
     protected void mapFinished (MapFinished event) {
         body.getCommunication ().sendGlobalTextMessage ("Storing ...");
         // The match has ended, store level information
-        memory.store (game.getMapName ());
+        final List <String []> items = Memoria.objetos (game.getMapName ());
+        writer.submit ("items", new Runnable () {
+            public void run () {
+                memory.store (items);
+            }
+        });
         // Store genetic algorithm information
-        geneticAlg.store (memory);
+        geneticAlg.matchFinished ();
+        final GeneticAlg snapshot = geneticAlg.snapshot ();
+        writer.submit ("genetic", new Runnable () {
+            public void run () {
+                snapshot.store (memory);
+            }
+        });
     }
 
     //__________________________________________________________________________
@@ -514,6 +553,24 @@ public class T800 extends UT2004BotModuleController {
         testIndividual.incrementDeaths ();
     }
 
+    //__________________________________________________________________________
+
+    /**
+     * When the bot is shut down it gets triggered. The pending writes are
+     * completed and the connection to the data base, which is kept open during
+     * the whole execution, is closed.
+     */
+    @Override
+    public void botShutdown () {
+        super.botShutdown ();
+        if (writer != null) {
+            writer.close ();
+        }
+        if (memory != null) {
+            memory.close ();
+        }
+    }
+
 
     // *************************************************************************
     //                             OTHER METHODS
@@ -48,6 +48,19 @@ import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Player;
 
 public class Skynet {
 
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Position of the lightning gun in the vectors of our own arsenal (@see
+     loadedArsenal). The rest of the weapons use the constants in EnemyInfo, where
+     the lightning gun shares its position with the sniper rifle */
+    public static final int OWN_LIGHTNING_GUN = 9;
+    /** Size of the vectors of our own arsenal */
+    public static final int OWN_ARSENAL_SIZE = 10;
+
+
     // *************************************************************************
     //                             INSTANCE FIELDS
     // *************************************************************************
@@ -100,8 +113,23 @@ public class Skynet {
      * @return The priority of the given item.
      */
     protected int estimateItemPriority (final Item item, final Weaponry weaponry) {
+        return estimateItemPriority (item.getType (), ownedArsenal (weaponry), loadedArsenal (weaponry));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It estimates how bad we need an item based on the items that we already have.
+     * This version doesn't depend on the Pogamut modules, so it can be used
+     * outside of a match (i.e. by a simulator).
+     * @param type Type of the item that we are evaluating.
+     * @param ownArsenal Weapons that we are carrying (@see ownedArsenal).
+     * @param loadedArsenal Weapons that we are carrying and have ammo (@see
+     * loadedArsenal).
+     * @return The priority of the given item.
+     */
+    public int estimateItemPriority (final ItemType type, final boolean ownArsenal [], final boolean loadedArsenal []) {
         int priority = -1;
-        ItemType type = item.getType ();
 
         if (type.equals (ItemType.SUPER_SHIELD_PACK)) {
             priority = testIndividual.getGene (20);
@@ -110,22 +138,24 @@ public class Skynet {
             priority = testIndividual.getGene (21);
         }
         else if (type.equals (ItemType.SNIPER_RIFLE) || type.equals (ItemType.LIGHTNING_GUN)) {
-            if (!weaponry.hasLoadedWeapon (type)) {
+            int position = type.equals (ItemType.LIGHTNING_GUN) ? OWN_LIGHTNING_GUN : EnemyInfo.SNIPER_RIFLE;
+
+            if (!loadedArsenal [position]) {
                 priority = testIndividual.getGene (22);
             }
         }
         else if (type.equals (ItemType.SHOCK_RIFLE)) {
-            if (!weaponry.hasLoadedWeapon (type)) {
+            if (!loadedArsenal [EnemyInfo.SHOCK_RIFLE]) {
                 priority = testIndividual.getGene (23);
             }
         }
         else if (type.equals (ItemType.FLAK_CANNON) || type.equals (ItemType.ROCKET_LAUNCHER)) {
-            if (!weaponry.hasWeapon(ItemType.FLAK_CANNON) && !weaponry.hasWeapon(ItemType.ROCKET_LAUNCHER)) {
+            if (!ownArsenal [EnemyInfo.FLAK_CANNON] && !ownArsenal [EnemyInfo.ROCKET_LAUNCHER]) {
                 priority = testIndividual.getGene (24);
             }
         }
         else if (type.equals (ItemType.MINIGUN)) {
-            if (!weaponry.hasWeapon (type)) {
+            if (!ownArsenal [EnemyInfo.MINIGUN]) {
                 priority = testIndividual.getGene (25);
             }
         }
@@ -229,11 +259,28 @@ public class Skynet {
      * the same, 4 our arsenal is better, 5 our arsenal is far better.
      */
     public int [] compareArsenals (final Weaponry weaponry, final boolean enemyArsenal []) {
+        return compareArsenals (loadedArsenal (weaponry), enemyArsenal);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimate how good our arsenal is when compared to the enemy's.
+     * @param ownArsenal Weapons that we are carrying and have ammo (@see
+     * loadedArsenal).
+     * @param enemyArsenal List of weapons we suppose the enemy has.
+     * @return A vector divided in 3 slots. Each one indicates close, average and
+     * far distance (in that order). Each slot has a value that varies from 1 to 5, meaning:
+     * 1 our arsenal is far worst, 2 our arsenal is worst, 3 our arsenals are more or less
+     * the same, 4 our arsenal is better, 5 our arsenal is far better.
+     */
+    public int [] compareArsenals (final boolean ownArsenal [], final boolean enemyArsenal []) {
         int arsenalProfit [] = new int [3];
         int enemyTotalProfit [] = new int [3];
         int ownTotalProfit [] = new int [3];
         int ownProfit = 0;
         int enemyProfit = 0;
+        boolean ownSniper = ownArsenal [EnemyInfo.SNIPER_RIFLE] || ownArsenal [OWN_LIGHTNING_GUN];
 
         // *********************************************************************
         //                       PROFIT FROM A FAR DISTANCE
@@ -243,16 +290,16 @@ public class Skynet {
         // CHECK OUR ARSENAL
 
 
-        if ((weaponry.hasLoadedWeapon(ItemType.LIGHTNING_GUN) || weaponry.hasLoadedWeapon(ItemType.SNIPER_RIFLE)) && weaponry.hasLoadedWeapon(ItemType.SHOCK_RIFLE)) {
+        if (ownSniper && ownArsenal [EnemyInfo.SHOCK_RIFLE]) {
             ownProfit = 100;
         }
-        else if (weaponry.hasLoadedWeapon(ItemType.LIGHTNING_GUN) || weaponry.hasLoadedWeapon(ItemType.SNIPER_RIFLE)) {
+        else if (ownSniper) {
             ownProfit = 90;
         }
-        else if (weaponry.hasLoadedWeapon(ItemType.SHOCK_RIFLE)) {
+        else if (ownArsenal [EnemyInfo.SHOCK_RIFLE]) {
             ownProfit = 80;
         }
-        else if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+        else if (ownArsenal [EnemyInfo.MINIGUN]) {
             ownProfit = 40;
         }
 
@@ -269,7 +316,7 @@ public class Skynet {
         else if (enemyArsenal [EnemyInfo.SHOCK_RIFLE]) {
             enemyProfit = 80;
         }
-        else if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+        else if (ownArsenal [EnemyInfo.MINIGUN]) {
             enemyProfit = 40;
         }
 
@@ -291,17 +338,17 @@ public class Skynet {
         // CHECK OUR ARSENAL
 
 
-        if ((weaponry.hasLoadedWeapon(ItemType.FLAK_CANNON) || weaponry.hasLoadedWeapon(ItemType.ROCKET_LAUNCHER))) {
-            if (weaponry.hasLoadedWeapon(ItemType.SHOCK_RIFLE) && weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+        if ((ownArsenal [EnemyInfo.FLAK_CANNON] || ownArsenal [EnemyInfo.ROCKET_LAUNCHER])) {
+            if (ownArsenal [EnemyInfo.SHOCK_RIFLE] && ownArsenal [EnemyInfo.MINIGUN]) {
                 ownProfit = 100;
             }
-            else if (weaponry.hasLoadedWeapon(ItemType.SHOCK_RIFLE)) {
+            else if (ownArsenal [EnemyInfo.SHOCK_RIFLE]) {
                 ownProfit = 95;
             }
-            else if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+            else if (ownArsenal [EnemyInfo.MINIGUN]) {
                 ownProfit = 90;
             }
-            else if (weaponry.hasLoadedWeapon(ItemType.SNIPER_RIFLE) || weaponry.hasLoadedWeapon(ItemType.LIGHTNING_GUN)) {
+            else if (ownSniper) {
                 ownProfit = 85;
             }
             else {
@@ -309,31 +356,31 @@ public class Skynet {
             }
         }
         else {
-            if (weaponry.hasLoadedWeapon(ItemType.SHOCK_RIFLE) && (weaponry.hasLoadedWeapon(ItemType.SNIPER_RIFLE) || weaponry.hasLoadedWeapon(ItemType.LIGHTNING_GUN))) {
-                if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+            if (ownArsenal [EnemyInfo.SHOCK_RIFLE] && ownSniper) {
+                if (ownArsenal [EnemyInfo.MINIGUN]) {
                     ownProfit = 80;
                 }
                 else {
                     ownProfit = 75;
                 }
             }
-            else if (weaponry.hasLoadedWeapon (ItemType.SHOCK_RIFLE)) {
-                if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+            else if (ownArsenal [EnemyInfo.SHOCK_RIFLE]) {
+                if (ownArsenal [EnemyInfo.MINIGUN]) {
                     ownProfit = 60;
                 }
                 else {
                     ownProfit = 50;
                 }
             }
-            else if (weaponry.hasLoadedWeapon(ItemType.SNIPER_RIFLE) || weaponry.hasLoadedWeapon(ItemType.LIGHTNING_GUN)) {
-                if (weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+            else if (ownSniper) {
+                if (ownArsenal [EnemyInfo.MINIGUN]) {
                     ownProfit = 40; // Lower than if he is holding shock and mini
                 }
                 else {
                     ownProfit = 10;
                 }
             }
-            else if (weaponry.hasLoadedWeapon (ItemType.MINIGUN)) {
+            else if (ownArsenal [EnemyInfo.MINIGUN]) {
                 ownProfit = 30; // Lower than if he is holding shock/sniper and mini
             }
         }
@@ -407,15 +454,15 @@ public class Skynet {
         // CHECK OUR ARSENAL
 
 
-        if (weaponry.hasLoadedWeapon(ItemType.FLAK_CANNON) || weaponry.hasLoadedWeapon(ItemType.ROCKET_LAUNCHER)) {
-            if (weaponry.hasLoadedWeapon(ItemType.LINK_GUN) || weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+        if (ownArsenal [EnemyInfo.FLAK_CANNON] || ownArsenal [EnemyInfo.ROCKET_LAUNCHER]) {
+            if (ownArsenal [EnemyInfo.LINK_GUN] || ownArsenal [EnemyInfo.MINIGUN]) {
                ownProfit = 100;
             }
             else {
                 ownProfit = 90;
             }
         }
-        else if (weaponry.hasLoadedWeapon(ItemType.LINK_GUN) || weaponry.hasLoadedWeapon(ItemType.MINIGUN)) {
+        else if (ownArsenal [EnemyInfo.LINK_GUN] || ownArsenal [EnemyInfo.MINIGUN]) {
             ownProfit = 50;
         }
 
@@ -496,26 +543,28 @@ public class Skynet {
     public int estimateProfile (double enemyDistance, int maximumProfit, int risk, int sweetSpot) {
         // If our arsenal is more or less the same or better than the enemy's
         if (maximumProfit >= risk) {
-            // Check which is the best range
+            // Check which is the best range. The ranges are read from the individual
+            // (genes 0, 1 and 2 are the ones PrimaryState uses), so different Skynets
+            // can deliberate at the same time (i.e. inside a simulator)
 
             // SHORT DISTANCE
             if (sweetSpot == 0) {
-               if (enemyDistance > PrimaryState.getShortRange () / 2) {
+               if (enemyDistance > testIndividual.getGene (0) / 2) {
                    return SecondaryState.States.OFENSIVE_PROFILE.ordinal ();
                }
             }
             // AVERAGE DISTANCE
             else if (sweetSpot == 1) {
-                if (enemyDistance > PrimaryState.getFarRange ()) {
+                if (enemyDistance > testIndividual.getGene (2)) {
                    return SecondaryState.States.OFENSIVE_PROFILE.ordinal ();
                 }
-                else if (enemyDistance < PrimaryState.getMediumRange () / 3) {
+                else if (enemyDistance < testIndividual.getGene (1) / 3) {
                     return SecondaryState.States.DEFENSIVE_PROFILE.ordinal ();
                 }
             }
             // FAR DISTANCE
             else if (sweetSpot == 2) {
-                if (enemyDistance < PrimaryState.getFarRange () / 2) {
+                if (enemyDistance < testIndividual.getGene (2) / 2) {
                    return SecondaryState.States.DEFENSIVE_PROFILE.ordinal ();
                 }
             }
@@ -540,9 +589,37 @@ public class Skynet {
      * in T800 (@see T800.class).
      */
     public int [] behave (final AgentInfo info, final Weaponry weaponry, final Player enemy, final EnemyInfo enemyInfo, final Game game) {
-        int maximumProfit, bestDefensiveRange, bestOfensiveRange;
         int arsenalStatus [] = compareArsenals (weaponry, enemyInfo.getArsenal ());
 
+        double enemyDistance = 0;
+        if (enemy != null) {
+            enemyDistance = info.getDistance (enemy.getLocation ());
+        }
+
+        return behave (arsenalStatus, info.getHealth (), info.getArmor (), enemy != null, enemyDistance, enemyInfo, game.getTime ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It sets the behavior of the bot. Based on his status and the enemy status,
+     * it decide which is the best primary state and which is the best secondary state
+     * (if any). This version doesn't depend on the Pogamut modules, so it can be used
+     * outside of a match (i.e. by a simulator).
+     * @param arsenalStatus Result of comparing our arsenal to the enemy's (@see compareArsenals).
+     * @param health Our health.
+     * @param armor Our armor.
+     * @param enemyOnSight True if we are seeing the enemy.
+     * @param enemyDistance Distance to the enemy (only meaningful if we are seeing him).
+     * @param enemyInfo Information about the enemy.
+     * @param clockTime Current game time.
+     * @return A vector containing 2 integers. The first one indicates the primary state
+     * and the second one the secondary state. Numbers correspond to the constants defined
+     * in T800 (@see T800.class).
+     */
+    public int [] behave (final int arsenalStatus [], final int health, final int armor, final boolean enemyOnSight, final double enemyDistance, final EnemyInfo enemyInfo, final double clockTime) {
+        int maximumProfit, bestDefensiveRange, bestOfensiveRange;
+
         // ESTIMATE HOW GOOD OUR ARSENAL IS WHEN COMPARED TO THE ENEMY'S
 
         // maximumProfit is going to hold the best score our arsenal gets in any range
@@ -569,25 +646,18 @@ public class Skynet {
         int nextPrimaryState = PrimaryState.States.HUNT.ordinal ();
         int nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
 
-        int health = info.getHealth ();
-        int armor = info.getArmor ();
         int total = health + armor;
         int enemyHealth = enemyInfo.getHealth ();
         int enemyTotal = enemyInfo.getHealthArmor ();
 
-        double enemyDistance = 0;
-        if (enemy != null) {
-            enemyDistance = info.getDistance (enemy.getLocation ());
-        }
-
-        double elapsedTime = Math.abs (enemyInfo.getLastTimeMet () - game.getTime ());
+        double elapsedTime = Math.abs (enemyInfo.getLastTimeMet () - clockTime);
 
         if (health < testIndividual.getGene (12)) {
             if (enemyHealth < health + testIndividual.getGene (14)) {
                 // If our arsenals are more or less the same
                 if (maximumProfit == 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestDefensiveRange);
                     }
@@ -606,7 +676,7 @@ public class Skynet {
                 // If my arsenal is better
                 else if (maximumProfit > 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestOfensiveRange);
                     }
@@ -625,7 +695,7 @@ public class Skynet {
                 // If my arsenal is worst
                 else {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                         nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                     }
@@ -644,7 +714,7 @@ public class Skynet {
             }
             else {
                 // If we are seeing the enemy
-                if (enemy != null) {
+                if (enemyOnSight) {
                     nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                     nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                 }
@@ -667,7 +737,7 @@ public class Skynet {
                 // If our arsenals are more or less the same or my arsenal is better
                 if (maximumProfit >= 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestOfensiveRange);
                     }
@@ -686,7 +756,7 @@ public class Skynet {
                 // If my arsenal is a bit worst, we risk it a bit
                 else if (maximumProfit == 2) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 2, bestOfensiveRange);
                     }
@@ -705,7 +775,7 @@ public class Skynet {
                 // If our arsenal is far worst
                 else {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                         nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                     }
@@ -728,7 +798,7 @@ public class Skynet {
                 // If our arsenals are more or less the same or my arsenal is better
                 if (maximumProfit >= 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestDefensiveRange);
                     }
@@ -747,7 +817,7 @@ public class Skynet {
                 // If my arsenal is a bit worst, we risk it a bit
                 else if (maximumProfit == 2) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 2, bestOfensiveRange);
                     }
@@ -766,7 +836,7 @@ public class Skynet {
                 // If my arsenal is far worst, retreat!!
                 else {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                         nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                     }
@@ -786,7 +856,7 @@ public class Skynet {
 
             // If our status is worst
             else {
-                if (enemy != null) {
+                if (enemyOnSight) {
                     nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                     nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                 }
@@ -809,7 +879,7 @@ public class Skynet {
                 // If our arsenal is not much worst than the enemy's
                 if (maximumProfit >= 2) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 2, bestOfensiveRange);
                     }
@@ -822,7 +892,7 @@ public class Skynet {
                 // If our arsenal is far worst
                 else {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                         nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                     }
@@ -845,7 +915,7 @@ public class Skynet {
                 // If our arsenal is more or less the same or my arsenal is better
                 if (maximumProfit >= 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestDefensiveRange);
                     }
@@ -858,7 +928,7 @@ public class Skynet {
                 // If my arseanl is a bit worst, we risk it a bit
                 else if (maximumProfit == 2) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 2, bestDefensiveRange);
                     }
@@ -876,7 +946,7 @@ public class Skynet {
                 }
                 else {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.RETREAT.ordinal ();
                         nextSecondaryState = SecondaryState.States.DISABLED.ordinal ();
                     }
@@ -899,7 +969,7 @@ public class Skynet {
                 // If my arsenal is at least better
                 if (maximumProfit >= 4) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 4, bestDefensiveRange);
                     }
@@ -918,7 +988,7 @@ public class Skynet {
                 // If my arsenal is more or less like the enemy's
                 else if (maximumProfit == 3) {
                     // If we are seeing the enemy
-                    if (enemy != null) {
+                    if (enemyOnSight) {
                         nextPrimaryState = PrimaryState.States.ATTACK.ordinal ();
                         nextSecondaryState = estimateProfile (enemyDistance, maximumProfit, 3, bestDefensiveRange);
                     }
@@ -947,6 +1017,58 @@ public class Skynet {
 
     //__________________________________________________________________________
 
+    /**
+     * It builds a vector with the weapons that we are carrying and have ammo. Each
+     * slot corresponds to the constants defined in EnemyInfo, so it can be compared
+     * to the enemy's arsenal, but the lightning gun has its own slot (OWN_LIGHTNING_GUN).
+     * @param weaponry Weaponry that we are carrying.
+     * @return Vector containing true in the slot of each loaded weapon.
+     */
+    public static boolean [] loadedArsenal (final Weaponry weaponry) {
+        boolean arsenal [] = new boolean [OWN_ARSENAL_SIZE];
+
+        arsenal [EnemyInfo.SHIELD_GUN] = weaponry.hasLoadedWeapon (ItemType.SHIELD_GUN);
+        arsenal [EnemyInfo.ASSAULT_RIFLE] = weaponry.hasLoadedWeapon (ItemType.ASSAULT_RIFLE);
+        arsenal [EnemyInfo.BIO_RIFLE] = weaponry.hasLoadedWeapon (ItemType.BIO_RIFLE);
+        arsenal [EnemyInfo.LINK_GUN] = weaponry.hasLoadedWeapon (ItemType.LINK_GUN);
+        arsenal [EnemyInfo.MINIGUN] = weaponry.hasLoadedWeapon (ItemType.MINIGUN);
+        arsenal [EnemyInfo.FLAK_CANNON] = weaponry.hasLoadedWeapon (ItemType.FLAK_CANNON);
+        arsenal [EnemyInfo.ROCKET_LAUNCHER] = weaponry.hasLoadedWeapon (ItemType.ROCKET_LAUNCHER);
+        arsenal [EnemyInfo.SHOCK_RIFLE] = weaponry.hasLoadedWeapon (ItemType.SHOCK_RIFLE);
+        arsenal [EnemyInfo.SNIPER_RIFLE] = weaponry.hasLoadedWeapon (ItemType.SNIPER_RIFLE);
+        arsenal [OWN_LIGHTNING_GUN] = weaponry.hasLoadedWeapon (ItemType.LIGHTNING_GUN);
+
+        return arsenal;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It builds a vector with the weapons that we are carrying (with or without
+     * ammo). Each slot corresponds to the constants defined in EnemyInfo, but the
+     * lightning gun has its own slot (OWN_LIGHTNING_GUN).
+     * @param weaponry Weaponry that we are carrying.
+     * @return Vector containing true in the slot of each weapon we carry.
+     */
+    public static boolean [] ownedArsenal (final Weaponry weaponry) {
+        boolean arsenal [] = new boolean [OWN_ARSENAL_SIZE];
+
+        arsenal [EnemyInfo.SHIELD_GUN] = weaponry.hasWeapon (ItemType.SHIELD_GUN);
+        arsenal [EnemyInfo.ASSAULT_RIFLE] = weaponry.hasWeapon (ItemType.ASSAULT_RIFLE);
+        arsenal [EnemyInfo.BIO_RIFLE] = weaponry.hasWeapon (ItemType.BIO_RIFLE);
+        arsenal [EnemyInfo.LINK_GUN] = weaponry.hasWeapon (ItemType.LINK_GUN);
+        arsenal [EnemyInfo.MINIGUN] = weaponry.hasWeapon (ItemType.MINIGUN);
+        arsenal [EnemyInfo.FLAK_CANNON] = weaponry.hasWeapon (ItemType.FLAK_CANNON);
+        arsenal [EnemyInfo.ROCKET_LAUNCHER] = weaponry.hasWeapon (ItemType.ROCKET_LAUNCHER);
+        arsenal [EnemyInfo.SHOCK_RIFLE] = weaponry.hasWeapon (ItemType.SHOCK_RIFLE);
+        arsenal [EnemyInfo.SNIPER_RIFLE] = weaponry.hasWeapon (ItemType.SNIPER_RIFLE);
+        arsenal [OWN_LIGHTNING_GUN] = weaponry.hasWeapon (ItemType.LIGHTNING_GUN);
+
+        return arsenal;
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Depending on if there is a feasible spam or combo, it returns a target. If
      * there's not a feasible combo or spam it returns null.
@@ -0,0 +1,30 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package enumTypes;
+
+
+/**
+ * Kinds of genes described by a gene schema. They decide how a gene mutates.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public enum GeneType {
+    /** Ordered integer value (distances, health...), it mutates to nearby values */
+    INTEGER,
+    /** Unordered value (a choice among options), it mutates to any valid value */
+    CATEGORICAL
+}
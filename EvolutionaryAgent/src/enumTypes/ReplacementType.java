@@ -0,0 +1,31 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package enumTypes;
+
+
+/**
+ * Policies used by the steady-state genetic algorithm to decide which individual
+ * of the population is replaced by a new offspring.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public enum ReplacementType {
+    /** The worst individual is replaced, only if the offspring is at least as good */
+    WORST,
+    /** The loser of a random tournament is always replaced */
+    TOURNAMENT
+}
@@ -0,0 +1,97 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements a blend crossover (BLX-alpha): each gene of the offspring
+ * is drawn uniformly from the interval between the genes of the parents, extended
+ * by alpha times its length on both sides. With alpha = 0 it is an arithmetic
+ * crossover, and with alpha = 0.5 the offspring are as spread as the parents. The
+ * result is rounded and kept within the bounds of each gene. The sibling is
+ * drawn independently from the same interval.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class BlendCrossover extends CrossoverType {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Extension of the interval between the parents */
+    private final double alpha;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /** Default constructor (alpha = 0.5) */
+    public BlendCrossover () {
+        this (0.5);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param alpha Extension of the interval between the parents (0 or more).
+     */
+    public BlendCrossover (double alpha) {
+        if (alpha < 0) {
+            throw new IllegalArgumentException ("Alpha can't be negative");
+        }
+
+        this.alpha = alpha;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Crossover phase. Mate two different Individuals.
+     * @param male One individual.
+     * @param female Another individual.
+     * @param offspring Resulting individual. IT CAN'T BE a null pointer, it must
+     * be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
+     */
+    public void crossover (Individual male, Individual female, Individual offspring, Individual sibling) {
+        RandomStream random = RandomService.current ();
+
+        for (int locus = 0; locus < offspring.chromosomeSize (); ++locus) {
+            double lower = Math.min (gene (male, female, locus), gene (female, male, locus));
+            double upper = Math.max (gene (male, female, locus), gene (female, male, locus));
+            double extension = alpha * (upper - lower);
+
+            lower = lower - extension;
+            upper = upper + extension;
+
+            offspring.setGene (locus, bound (offspring, locus, lower + random.nextDouble () * (upper - lower)));
+            if (sibling != null) {
+                sibling.setGene (locus, bound (sibling, locus, lower + random.nextDouble () * (upper - lower)));
+            }
+        }
+
+        finish (offspring, sibling);
+    }
+}
@@ -0,0 +1,816 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.RestartType;
+import knowledge.Memoria;
+import utilities.RandomService;
+import utilities.RandomStream;
+
+import java.util.Arrays;
+
+
+/**
+ * This class implements CMA-ES (covariance matrix adaptation evolution strategy,
+ * Hansen 2016). Instead of mating individuals, each generation is sampled from a
+ * multivariate normal distribution whose mean, step size and covariance matrix
+ * are adapted using the best half of the previous generation. The distribution
+ * learns which genes (and combinations of genes) matter, so it usually needs far
+ * fewer evaluations than a genetic algorithm for bounded numeric chromosomes like
+ * IndividualV1.
+ *
+ * The search takes place in [0, 1] for every gene, which is then mapped to the
+ * bounds of the gene (@see Individual.minGeneValue) and rounded. Samples outside
+ * the box are moved to its border and the distribution is updated with the
+ * values that were actually evaluated. The standard deviation of each gene never
+ * goes below a fraction of one integer step, so rounding doesn't freeze the search.
+ *
+ * When the search converges (the fitness stops changing, every gene is down to
+ * its minimum deviation or the covariance matrix is ill-conditioned) it is
+ * restarted from a random mean, either doubling the population (IPOP) or
+ * alternating with small populations (BIPOP). The best individual ever found is
+ * kept across restarts. The whole state is stored in the data base, so runs can
+ * be resumed.
+ *
+ * The population size of the configuration is the initial number of samples per
+ * generation. Elitism, immigrants, crossover and mutation don't apply.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class CMAESGenetic extends GeneticAlg {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Minimum standard deviation of a gene, as a fraction of one integer step */
+    public static final double MIN_STEPS = 0.3;
+    /** Maximum condition number of the covariance matrix before restarting */
+    public static final double MAX_CONDITION = 1e14;
+    /** Name of the state in the data base */
+    private static final String STATE = "CMAES";
+    /** Number of scalar values of the stored state */
+    private static final int SCALARS = 9;
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Restart policy */
+    private final RestartType restartType;
+    /** Initial step size */
+    private final double initialStepSize;
+    /** Initial number of samples per generation */
+    private final int defaultLambda;
+    /** Lowest value of each gene */
+    private final double lower [];
+    /** Range of values of each gene */
+    private final double range [];
+    /** Minimum standard deviation of each gene (in [0, 1]) */
+    private final double minStd [];
+    /** Standard normal values used to sample each individual */
+    private final double z [];
+    /** Ranking of the current population */
+    private final FitnessRanking ranking = new FitnessRanking ();
+
+    // Strategy parameters (they depend on the number of samples)
+
+    /** Number of samples per generation */
+    private int lambda;
+    /** Number of samples used to update the distribution */
+    private int mu;
+    /** Weights of the best samples */
+    private double weights [];
+    /** Variance effective selection mass */
+    private double mueff;
+    /** Learning rate of the step size path */
+    private double cs;
+    /** Damping of the step size */
+    private double damps;
+    /** Learning rate of the covariance path */
+    private double cc;
+    /** Learning rate of the rank one update */
+    private double c1;
+    /** Learning rate of the rank mu update */
+    private double cmu;
+    /** Expected length of a normally distributed vector */
+    private double chiN;
+
+    // State of the distribution
+
+    /** Mean of the distribution */
+    private double mean [];
+    /** Step size */
+    private double sigma;
+    /** Evolution path of the covariance matrix */
+    private double pc [];
+    /** Evolution path of the step size */
+    private double ps [];
+    /** Covariance matrix */
+    private double C [][];
+    /** Eigenvectors of the covariance matrix (columns) */
+    private double B [][];
+    /** Square root of the eigenvalues of the covariance matrix */
+    private double D [];
+    /** Generation (since the last restart) when the eigenvectors were updated */
+    private int eigenGeneration;
+    /** Generations since the last restart */
+    private int runGeneration;
+    /** Best fitness of the latest generations (circular buffer) */
+    private double history [];
+
+    // Restarts
+
+    /** Number of restarts */
+    private int restarts;
+    /** Population size of the last large restart (BIPOP) */
+    private int largeLambda;
+    /** Evaluations spent on large populations (BIPOP) */
+    private double largeBudget;
+    /** Evaluations spent on small populations (BIPOP) */
+    private double smallBudget;
+    /** True if the current run uses a small population (BIPOP) */
+    private boolean smallRegime;
+    /** Best individual ever found */
+    private Individual bestEver;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * It initializes the strategy using the information stored in the data base.
+     * If there isn't any information available, it starts from a random mean.
+     * @param config Parameters of the algorithm.
+     * @param memory Data Base controller.
+     * @throws IllegalArgumentException If the genes of the individuals aren't bounded.
+     */
+    public CMAESGenetic (GeneticConfig config, Memoria memory) {
+        super (config, new NonLinearFitness ());
+
+        restartType = config.getRestarts ();
+        initialStepSize = config.getStepSize ();
+        defaultLambda = population.length;
+
+        lower = new double [chromosomeSize];
+        range = new double [chromosomeSize];
+        minStd = new double [chromosomeSize];
+        z = new double [chromosomeSize];
+
+        Individual prototype = population [0];
+        for (int i = 0; i < chromosomeSize; ++i) {
+            int min = prototype.minGeneValue (i);
+            int max = prototype.maxGeneValue (i);
+
+            if (min == Integer.MIN_VALUE || max == Integer.MAX_VALUE || max < min) {
+                throw new IllegalArgumentException ("CMA-ES needs bounded genes (gene " + i + ")");
+            }
+
+            lower [i] = min;
+            range [i] = max - min;
+            minStd [i] = (max > min) ? MIN_STEPS / range [i] : 0;
+        }
+
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        initialize (memory);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Updates the distribution with the population that has just been evaluated
+     * and samples the next one. If the search has converged, it is restarted.
+     */
+    public void selection () {
+        if (smallRegime) {
+            smallBudget = smallBudget + population.length * matches;
+        }
+        else {
+            largeBudget = largeBudget + population.length * matches;
+        }
+
+        ranking.rank (population);
+
+        Individual best = population [ranking.best (0)];
+        if (bestEver == null || best.fitness () >= bestEver.fitness ()) {
+            bestEver = best.copy ();
+        }
+
+        update ();
+
+        if (restartType != RestartType.NONE && hasConverged ()) {
+            restartStrategy ();
+        }
+
+        sample ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the best individual ever found (across restarts), or the best
+     * one of the current population if it is better.
+     * @return Best individual.
+     */
+    public Individual bestIndividual () {
+        Individual best = super.bestIndividual ();
+
+        if (bestEver != null && bestEver.fitness () > best.fitness ()) {
+            return bestEver;
+        }
+
+        return best;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the number of restarts since the beginning of the execution.
+     * @return Number of restarts.
+     */
+    public int restarts () {
+        return restarts;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the current step size.
+     * @return Step size (relative to the range of each gene).
+     */
+    public double stepSize () {
+        return sigma;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Restarts the execution of the algorithm from scratch (a random mean, the
+     * initial population size and step size).
+     */
+    protected void restart () {
+        currentGeneration = 0;
+        currentIndividual = 0;
+        currentMatch = 0;
+
+        restarts = 0;
+        largeLambda = defaultLambda;
+        largeBudget = smallBudget = 0;
+        smallRegime = false;
+        bestEver = null;
+
+        start (defaultLambda, initialStepSize);
+        sample ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Load all the information stored in the data base, including the state of
+     * the distribution. If the state isn't stored (or it isn't valid), nothing is
+     * loaded, so the search starts from scratch.
+     * @param memory Data Base controller.
+     */
+    public boolean load (Memoria memory) {
+        int n = chromosomeSize;
+
+        double scalars [] = memory.loadState (STATE + ".scalars");
+        double storedMean [] = memory.loadState (STATE + ".mean");
+        double storedPc [] = memory.loadState (STATE + ".pc");
+        double storedPs [] = memory.loadState (STATE + ".ps");
+        double storedHistory [] = memory.loadState (STATE + ".history");
+        double covariance [] = memory.loadState (STATE + ".covariance");
+
+        if (scalars == null || scalars.length != SCALARS || (int) scalars [0] != n
+                || (int) scalars [1] < 2 || !(scalars [2] > 0)
+                || storedMean == null || storedMean.length != n
+                || storedPc == null || storedPc.length != n
+                || storedPs == null || storedPs.length != n
+                || storedHistory == null || storedHistory.length == 0
+                || covariance == null || covariance.length != n * n) {
+            return false;
+        }
+
+        setParameters ((int) scalars [1]);
+        sigma = scalars [2];
+        runGeneration = (int) scalars [3];
+        restarts = (int) scalars [4];
+        largeLambda = (int) scalars [5];
+        largeBudget = scalars [6];
+        smallBudget = scalars [7];
+        smallRegime = scalars [8] != 0;
+
+        mean = storedMean;
+        pc = storedPc;
+        ps = storedPs;
+        history = storedHistory;
+
+        C = new double [chromosomeSize][chromosomeSize];
+        for (int i = 0; i < chromosomeSize; ++i) {
+            System.arraycopy (covariance, i * chromosomeSize, C [i], 0, chromosomeSize);
+        }
+        updateEigen ();
+
+        double best [] = memory.loadState (STATE + ".best");
+        bestEver = null;
+        if (best != null && best.length == chromosomeSize + 4) {
+            bestEver = factory.create (false);
+            bestEver.setKills ((int) best [0]);
+            bestEver.setDeaths ((int) best [1]);
+            bestEver.setTotalDamageGiven ((int) best [2]);
+            bestEver.setTotalDamageTaken ((int) best [3]);
+            for (int i = 0; i < chromosomeSize; ++i) {
+                bestEver.setGene (i, (int) best [4 + i]);
+            }
+        }
+
+        // The population can have a different size after a restart
+        population = new Individual [lambda];
+        for (int i = 0; i < lambda; ++i) {
+            population [i] = factory.create (false);
+        }
+
+        boolean success = memory.loadPoblacion (population, chromosomeSize);
+
+        currentGeneration = memory.loadGeneration ();
+        currentIndividual = memory.loadCurrent ();
+        currentMatch = memory.loadIteration ();
+
+        return success;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Store all the information in the data base, including the state of the
+     * distribution. Everything is written in a single transaction, so the stored
+     * population always matches the stored distribution.
+     * @param memory Data Base controller.
+     */
+    public void store (final Memoria memory) {
+        memory.transaccion (new Runnable () {
+            public void run () {
+                storeAll (memory);
+            }
+        });
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a copy of the algorithm that can be stored in another thread,
+     * including a copy of the state of the distribution.
+     * @return Copy of the algorithm, only meant to be stored.
+     */
+    public GeneticAlg snapshot () {
+        CMAESGenetic copy = (CMAESGenetic) super.snapshot ();
+
+        copy.mean = mean.clone ();
+        copy.pc = pc.clone ();
+        copy.ps = ps.clone ();
+        copy.history = history.clone ();
+        copy.C = new double [chromosomeSize][];
+        for (int i = 0; i < chromosomeSize; ++i) {
+            copy.C [i] = C [i].clone ();
+        }
+        copy.bestEver = (bestEver != null) ? bestEver.copy () : null;
+
+        return copy;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Writes the population, the state of the distribution and the cache.
+     * @param memory Data Base controller.
+     */
+    private void storeAll (Memoria memory) {
+        memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+
+        memory.storeState (STATE + ".scalars", new double [] {
+            chromosomeSize, lambda, sigma, runGeneration, restarts, largeLambda,
+            largeBudget, smallBudget, smallRegime ? 1 : 0
+        });
+        memory.storeState (STATE + ".mean", mean);
+        memory.storeState (STATE + ".pc", pc);
+        memory.storeState (STATE + ".ps", ps);
+        memory.storeState (STATE + ".history", history);
+
+        double covariance [] = new double [chromosomeSize * chromosomeSize];
+        for (int i = 0; i < chromosomeSize; ++i) {
+            System.arraycopy (C [i], 0, covariance, i * chromosomeSize, chromosomeSize);
+        }
+        memory.storeState (STATE + ".covariance", covariance);
+
+        if (bestEver != null) {
+            double best [] = new double [chromosomeSize + 4];
+            best [0] = bestEver.getKills ();
+            best [1] = bestEver.getDeaths ();
+            best [2] = bestEver.getTotalDamageGiven ();
+            best [3] = bestEver.getTotalDamageTaken ();
+            for (int i = 0; i < chromosomeSize; ++i) {
+                best [4 + i] = bestEver.getGene (i);
+            }
+            memory.storeState (STATE + ".best", best);
+        }
+
+        if (cache != null) {
+            memory.storeFitnessCache (cache);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Starts a new search from a random mean.
+     * @param samples Number of samples per generation.
+     * @param stepSize Initial step size.
+     */
+    private void start (int samples, double stepSize) {
+        setParameters (samples);
+
+        RandomStream random = RandomService.current ();
+
+        mean = new double [chromosomeSize];
+        pc = new double [chromosomeSize];
+        ps = new double [chromosomeSize];
+        C = new double [chromosomeSize][chromosomeSize];
+        for (int i = 0; i < chromosomeSize; ++i) {
+            mean [i] = random.nextDouble ();
+            C [i][i] = 1;
+        }
+
+        sigma = stepSize;
+        runGeneration = 0;
+        updateEigen ();
+
+        history = new double [10 + (int) Math.ceil (30.0 * chromosomeSize / lambda)];
+        Arrays.fill (history, Double.NaN);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sets the strategy parameters for a given number of samples (default values
+     * of Hansen's tutorial).
+     * @param samples Number of samples per generation.
+     */
+    private void setParameters (int samples) {
+        int n = chromosomeSize;
+
+        lambda = Math.max (2, samples);
+        mu = lambda / 2;
+
+        weights = new double [mu];
+        double sum = 0;
+        for (int i = 0; i < mu; ++i) {
+            weights [i] = Math.log (mu + 0.5) - Math.log (i + 1);
+            sum = sum + weights [i];
+        }
+
+        double squares = 0;
+        for (int i = 0; i < mu; ++i) {
+            weights [i] = weights [i] / sum;
+            squares = squares + weights [i] * weights [i];
+        }
+        mueff = 1 / squares;
+
+        cs = (mueff + 2) / (n + mueff + 5);
+        damps = 1 + 2 * Math.max (0, Math.sqrt ((mueff - 1) / (n + 1)) - 1) + cs;
+        cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+        c1 = 2 / ((n + 1.3) * (n + 1.3) + mueff);
+        cmu = Math.min (1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((n + 2) * (n + 2) + mueff));
+        chiN = Math.sqrt (n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Samples a new population from the distribution. The samples are written
+     * into the spare population, so individuals are only created when the number
+     * of samples changes (after a restart).
+     */
+    private void sample () {
+        RandomStream random = RandomService.current ();
+
+        if (population.length != lambda) {
+            population = new Individual [lambda];
+            for (int k = 0; k < lambda; ++k) {
+                population [k] = factory.create (false);
+            }
+        }
+
+        Individual next [] = sparePopulation ();
+        for (int k = 0; k < lambda; ++k) {
+            Individual individual = next [k];
+            individual.resetStats ();
+
+            for (int i = 0; i < chromosomeSize; ++i) {
+                z [i] = D [i] * random.nextGaussian ();
+            }
+
+            for (int i = 0; i < chromosomeSize; ++i) {
+                double y = 0;
+                for (int j = 0; j < chromosomeSize; ++j) {
+                    y = y + B [i][j] * z [j];
+                }
+
+                double x = Math.max (0, Math.min (1, mean [i] + sigma * y));
+                individual.setGene (i, (int) Math.round (lower [i] + x * range [i]));
+            }
+
+            // Snap the genes to their steps and enforce the constraints between them
+            individual.repair ();
+        }
+
+        swapPopulations ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Updates the mean, the evolution paths, the covariance matrix and the step
+     * size using the best samples of the population (already ranked).
+     */
+    private void update () {
+        int n = chromosomeSize;
+
+        // Values (in [0, 1]) that were actually evaluated, from the best to the worst
+        double x [][] = new double [mu][n];
+        for (int k = 0; k < mu; ++k) {
+            Individual individual = population [ranking.best (k)];
+            for (int i = 0; i < n; ++i) {
+                x [k][i] = (range [i] > 0) ? (individual.getGene (i) - lower [i]) / range [i] : 0;
+            }
+        }
+
+        double oldMean [] = mean.clone ();
+        for (int i = 0; i < n; ++i) {
+            mean [i] = 0;
+            for (int k = 0; k < mu; ++k) {
+                mean [i] = mean [i] + weights [k] * x [k][i];
+            }
+        }
+
+        double step [] = new double [n];
+        for (int i = 0; i < n; ++i) {
+            step [i] = (mean [i] - oldMean [i]) / sigma;
+        }
+
+        // Step size path: C^(-1/2) * step = B * D^(-1) * B' * step
+        double rotated [] = new double [n];
+        for (int j = 0; j < n; ++j) {
+            double sum = 0;
+            for (int i = 0; i < n; ++i) {
+                sum = sum + B [i][j] * step [i];
+            }
+            rotated [j] = sum / D [j];
+        }
+
+        double psNorm = 0;
+        double factor = Math.sqrt (cs * (2 - cs) * mueff);
+        for (int i = 0; i < n; ++i) {
+            double sum = 0;
+            for (int j = 0; j < n; ++j) {
+                sum = sum + B [i][j] * rotated [j];
+            }
+            ps [i] = (1 - cs) * ps [i] + factor * sum;
+            psNorm = psNorm + ps [i] * ps [i];
+        }
+        psNorm = Math.sqrt (psNorm);
+
+        ++runGeneration;
+
+        boolean hsig = psNorm / Math.sqrt (1 - Math.pow (1 - cs, 2 * runGeneration)) / chiN < 1.4 + 2.0 / (n + 1);
+
+        // Covariance path
+        factor = hsig ? Math.sqrt (cc * (2 - cc) * mueff) : 0;
+        for (int i = 0; i < n; ++i) {
+            pc [i] = (1 - cc) * pc [i] + factor * step [i];
+        }
+
+        // Covariance matrix: rank one and rank mu updates
+        double correction = hsig ? 0 : c1 * cc * (2 - cc);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                double rankMu = 0;
+                for (int k = 0; k < mu; ++k) {
+                    rankMu = rankMu + weights [k] * (x [k][i] - oldMean [i]) * (x [k][j] - oldMean [j]);
+                }
+                rankMu = rankMu / (sigma * sigma);
+
+                C [i][j] = (1 - c1 - cmu) * C [i][j] + correction * C [i][j]
+                           + c1 * pc [i] * pc [j] + cmu * rankMu;
+                C [j][i] = C [i][j];
+            }
+        }
+
+        // Step size
+        sigma = sigma * Math.exp ((cs / damps) * (psNorm / chiN - 1));
+        sigma = Math.min (sigma, 1);
+
+        // Integer genes: keep a minimum deviation, so rounding doesn't freeze them
+        for (int i = 0; i < n; ++i) {
+            double variance = sigma * sigma * C [i][i];
+            if (variance < minStd [i] * minStd [i]) {
+                C [i][i] = minStd [i] * minStd [i] / (sigma * sigma);
+            }
+        }
+
+        // The eigen decomposition is expensive, it isn't updated every generation
+        if (runGeneration - eigenGeneration > lambda / ((c1 + cmu) * n * 10)) {
+            updateEigen ();
+        }
+
+        // Record the best fitness of the generation
+        history [runGeneration % history.length] = population [ranking.best (0)].fitness ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the search has converged: the best fitness hasn't changed in the
+     * latest generations, every gene is down to its minimum deviation or the
+     * covariance matrix is ill-conditioned.
+     * @return True if the search should be restarted.
+     */
+    private boolean hasConverged () {
+        // Flat fitness
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        boolean full = true;
+        for (int i = 0; i < history.length; ++i) {
+            if (Double.isNaN (history [i])) {
+                full = false;
+            }
+            else {
+                min = Math.min (min, history [i]);
+                max = Math.max (max, history [i]);
+            }
+        }
+
+        double populationRange = ranking.fitness (ranking.best (0)) - ranking.fitness (ranking.worst (0));
+        if (full && max - min <= 1e-9 * (1 + Math.abs (max)) && populationRange <= 1e-9 * (1 + Math.abs (max))) {
+            return true;
+        }
+
+        // Every gene is down to its minimum deviation
+        boolean minimal = true;
+        for (int i = 0; i < chromosomeSize && minimal; ++i) {
+            minimal = sigma * Math.sqrt (C [i][i]) <= minStd [i] * 1.0001;
+        }
+        if (minimal) {
+            return true;
+        }
+
+        // Ill-conditioned covariance matrix
+        double maxD = D [0];
+        double minD = D [0];
+        for (int i = 1; i < chromosomeSize; ++i) {
+            maxD = Math.max (maxD, D [i]);
+            minD = Math.min (minD, D [i]);
+        }
+
+        return maxD * maxD > MAX_CONDITION * minD * minD;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Restarts the search following the restart policy.
+     */
+    private void restartStrategy () {
+        ++restarts;
+
+        if (restartType == RestartType.BIPOP && largeBudget > smallBudget) {
+            // Small population and step size, the budget of both regimes is balanced
+            RandomStream random = RandomService.current ();
+            double u1 = random.nextDouble ();
+            double u2 = random.nextDouble ();
+
+            int samples = (int) Math.floor (defaultLambda * Math.pow (0.5 * largeLambda / defaultLambda, u1 * u1));
+
+            smallRegime = true;
+            start (samples, initialStepSize * Math.pow (10, -2 * u2));
+        }
+        else {
+            // Double the population
+            largeLambda = largeLambda * 2;
+
+            smallRegime = false;
+            start (largeLambda, initialStepSize);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Updates the eigenvectors and eigenvalues of the covariance matrix.
+     */
+    private void updateEigen () {
+        int n = chromosomeSize;
+
+        B = new double [n][n];
+        D = new double [n];
+        jacobi (C, B, D);
+
+        for (int i = 0; i < n; ++i) {
+            D [i] = Math.sqrt (Math.max (D [i], 1e-20));
+        }
+
+        eigenGeneration = runGeneration;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Eigen decomposition of a symmetric matrix (cyclic Jacobi method).
+     * @param matrix Symmetric matrix (it isn't modified).
+     * @param vectors Matrix where the eigenvectors are written (as columns).
+     * @param values Array where the eigenvalues are written.
+     */
+    private static void jacobi (double matrix [][], double vectors [][], double values []) {
+        int n = matrix.length;
+
+        double a [][] = new double [n][];
+        for (int i = 0; i < n; ++i) {
+            a [i] = matrix [i].clone ();
+            Arrays.fill (vectors [i], 0);
+            vectors [i][i] = 1;
+        }
+
+        for (int sweep = 0; sweep < 100; ++sweep) {
+            double off = 0;
+            double diagonal = 0;
+            for (int p = 0; p < n; ++p) {
+                diagonal = diagonal + a [p][p] * a [p][p];
+                for (int q = p + 1; q < n; ++q) {
+                    off = off + a [p][q] * a [p][q];
+                }
+            }
+
+            if (off <= 1e-30 * diagonal) {
+                break;
+            }
+
+            for (int p = 0; p < n; ++p) {
+                for (int q = p + 1; q < n; ++q) {
+                    if (a [p][q] == 0) {
+                        continue;
+                    }
+
+                    double theta = (a [q][q] - a [p][p]) / (2 * a [p][q]);
+                    double t = Math.signum (theta) / (Math.abs (theta) + Math.sqrt (theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double c = 1 / Math.sqrt (t * t + 1);
+                    double s = t * c;
+
+                    for (int k = 0; k < n; ++k) {
+                        double akp = a [k][p];
+                        double akq = a [k][q];
+                        a [k][p] = c * akp - s * akq;
+                        a [k][q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < n; ++k) {
+                        double apk = a [p][k];
+                        double aqk = a [q][k];
+                        a [p][k] = c * apk - s * aqk;
+                        a [q][k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < n; ++k) {
+                        double vkp = vectors [k][p];
+                        double vkq = vectors [k][q];
+                        vectors [k][p] = c * vkp - s * vkq;
+                        vectors [k][q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < n; ++i) {
+            values [i] = a [i][i];
+        }
+    }
+}
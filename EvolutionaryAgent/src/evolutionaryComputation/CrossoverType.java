@@ -17,6 +17,10 @@ package evolutionaryComputation;
 
 /**
  * This class is meant to facilitate trials with different crossover techniques.
+ * The techniques write the genes straight into the offspring they are given, so
+ * they don't create any object. They can also produce a second child (the
+ * sibling) from the same pair of parents, which gets the genes the first child
+ * didn't get (or the other result of the recombination).
  *
  * @author Francisco Aisa Garcia
  */
@@ -25,12 +29,71 @@ package evolutionaryComputation;
 public abstract class CrossoverType {
 
     /**
-     * Given two individuals, this function produces a new offspring. The derived
-     * classes are responsible for the behavior of this method.
+     * Given two individuals, this function produces a new offspring.
      * @param male One individual to be mixed.
      * @param female Other individual to be mixed.
      * @param offspring Resulting individual. IT CAN'T BE a null pointer. "offspring"
      * must be a valid object.
      */
-    public abstract void crossover (Individual male, Individual female, Individual offspring);
+    public void crossover (Individual male, Individual female, Individual offspring) {
+        crossover (male, female, offspring, null);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Given two individuals, this function produces one or two new offsprings. The
+     * derived classes are responsible for the behavior of this method. Every gene
+     * of the offsprings must be written, and the offsprings must be repaired
+     * afterwards (@see finish).
+     * @param male One individual to be mixed.
+     * @param female Other individual to be mixed.
+     * @param offspring Resulting individual. IT CAN'T BE a null pointer. "offspring"
+     * must be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
+     */
+    public abstract void crossover (Individual male, Individual female, Individual offspring, Individual sibling);
+
+    //__________________________________________________________________________
+
+    /**
+     * Get a gene of a parent. If its chromosome is shorter than the offspring's,
+     * the gene of the other parent is used.
+     * @param parent Parent whose gene is wanted.
+     * @param other The other parent.
+     * @param locus Position of the gene.
+     * @return Value of the gene.
+     */
+    protected static int gene (Individual parent, Individual other, int locus) {
+        return (locus < parent.chromosomeSize ()) ? parent.getGene (locus) : other.getGene (locus);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Rounds a value and moves it within the bounds of a gene.
+     * @param offspring Individual that receives the gene.
+     * @param locus Position of the gene.
+     * @param value Value of the gene.
+     * @return Valid value of the gene.
+     */
+    protected static int bound (Individual offspring, int locus, double value) {
+        double rounded = Math.rint (value);
+        return (int) Math.max (offspring.minGeneValue (locus), Math.min (offspring.maxGeneValue (locus), rounded));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Repairs the offsprings once every gene has been written (@see GeneSchema).
+     * @param offspring Resulting individual.
+     * @param sibling Second resulting individual (it can be null).
+     */
+    protected static void finish (Individual offspring, Individual sibling) {
+        offspring.repair ();
+
+        if (sibling != null) {
+            sibling.repair ();
+        }
+    }
 }
@@ -15,9 +15,6 @@
 package evolutionaryComputation;
 
 import knowledge.Memoria;
-import utilities.Arithmetic;
-import utilities.Copycat;
-import utilities.Quicksort;
 
 
 /**
@@ -29,6 +26,14 @@ import utilities.Quicksort;
 
 public class DeterministicGenetic extends GeneticAlg {
 
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Ranking of the current population, used for elitism */
+    private final FitnessRanking ranking = new FitnessRanking ();
+
 
     // *************************************************************************
     //                                METHODS
@@ -38,7 +43,8 @@ public class DeterministicGenetic extends GeneticAlg {
     /**
      * It initializes the deterministic genetic algorithm using the information stored in
      * the data base. If there isn't any information available, it generates the first
-     * generation.
+     * generation. It keeps the best four individuals and adds four random ones to
+     * each generation.
      * @param GENERATIONS Number of generations to be executed.
      * @param populationSize Size of the population for each generation.
      * @param crossoverType Kind of crossover to be applied.
@@ -46,160 +52,71 @@ public class DeterministicGenetic extends GeneticAlg {
      */
     @Deprecated
     public DeterministicGenetic (int GENERATIONS, int populationSize, CrossoverType crossoverType, Memoria memory) {
-        super (GENERATIONS, populationSize, crossoverType);
+        this (new GeneticConfig ().setGenerations (GENERATIONS).setPopulationSize (populationSize).setCrossover (crossoverType), memory);
+    }
 
-        // Initialize each individual
-        for (int i = 0; i < population.length; ++i) {
-            // To try different chromosomes change the individual being initialized
-            // To try different fitness techniques, change the IndividualStats object passed
-            population [i] = new IndividualV1 (true, new NonLinearFitness ());
-        }
+    //__________________________________________________________________________
 
-        this.chromosomeSize = population [0].chromosomeSize ();
+    /**
+     * It initializes the deterministic genetic algorithm using the information stored in
+     * the data base. If there isn't any information available, it generates the first
+     * generation. Unless the configuration says otherwise, the individuals use a
+     * non linear fitness and the partners are chosen randomly.
+     * @param config Parameters of the algorithm.
+     * @param memory Data Base controller.
+     */
+    public DeterministicGenetic (GeneticConfig config, Memoria memory) {
+        super (config, new NonLinearFitness ());
+
+        if (selectionOperator == null) {
+            // A tournament of one individual is a uniform random choice
+            selectionOperator = new TournamentSelection (1);
+        }
 
         // Load stored information in the data base. If no information is available
         // then initialize everything randomly
-        boolean success = load (memory);
-
-        if (success) {
-            // If the next individual to evaluate is the first one of the next population
-            // check out if the next generation is the last one.
-            // If it is the last one, store the best individual, otherwise, create
-            // the next generation based on selection, crossover and mutation
-
-            if (currentIndividual >= population.length) {
-                // Write down the results
-                Copycat.copyPopulation (currentGeneration, population);
-
-                currentGeneration = currentGeneration + 1;
-
-                if (currentGeneration == GENERATIONS) {
-                    // The execution has ended, select the best individual (the one
-                    // with the biggest fitness) and store it as a result in the
-                    // data base
-
-                    // Look for the best inidividual
-                    double max = population [0].fitness ();
-                    int pos = 0;
-                    for (int i = 1; i < population.length; ++i) {
-                        if (population [i].fitness () >= max){
-                            max = population [i].fitness ();
-                            pos = i;
-                        }
-                    }
-
-                    // Store the best individual
-                    String tableName = population [pos].getClass ().getName ();
-                    tableName = tableName.replace("evolutionaryComputation.", "");
-                    memory.storeBestIndividuo (tableName, population [pos], false);
-
-                    // Restart execution
-                    currentGeneration = 0;
-                    currentIndividual = 0;
-                    currentMatch = 0;
-
-                    for (int i = 0; i < population.length; ++i) {
-                        population [i].createRandomIndividual ();
-                    }
-                }
-                else {
-                    // Reset the next individual to be evaluated
-                    currentIndividual = 0;
-                    currentMatch = 0;
-
-                    // Selection, Crossover and Mutation
-                    selection ();
-                }
-            }
-        }
-        else {
-            currentGeneration = 0;
-            currentIndividual = 0;
-            currentMatch = 0;
-
-            for (int i = 0; i < population.length; ++i) {
-                population [i].createRandomIndividual ();
-            }
-        }
+        initialize (memory);
     }
 
     //__________________________________________________________________________
 
-    /** Select the best Individuals for the next population, mate them and mutate them */
-    @Deprecated
+    /**
+     * Select the best Individuals for the next population, mate them and mutate them.
+     * The elite survives, then the best individuals (in order) mate with partners
+     * chosen by the selection operator and, finally, random immigrants fill the
+     * rest of the population.
+     */
     public void selection () {
-        // Sort the individuals based on their fitness
-        Quicksort.sort (population);
-
-        // Create the new population
-        Individual [] newPopulation = new Individual [population.length];
-
-        // Since we are using Elitism, we will keep the best four individuals (the
-        // last four in the population array)
-
-        newPopulation [0] = population [population.length - 1];
-        newPopulation [0].resetStats ();
-        newPopulation [1] = population [population.length - 2];
-        newPopulation [1].resetStats ();
-        newPopulation [2] = population [population.length - 3];
-        newPopulation [2].resetStats ();
-        newPopulation [3] = population [population.length - 4];
-        newPopulation [3].resetStats ();
-
-        // Mate the best candidates
-
-        double chanceOfMutation = 1/chromosomeSize;
-
-        // First children
-        int randomIndividual = 0;
-        randomIndividual = Arithmetic.doRandomNumber (1, 3);
-
-        // Crossover between the best individual and one of the other three best individuals
-        newPopulation [4] = new IndividualV1 (false, new NonLinearFitness ());
-        crossoverType.crossover (newPopulation [0], newPopulation [randomIndividual], newPopulation [4]);
-        // Mutate the offspring
-        mutation (newPopulation [4], chanceOfMutation, 0.1);
-
-        // Second children
-        double probability = Math.random ();
-        if (probability < 0.33) {
-            randomIndividual = 0;
-        }
-        else {
-            randomIndividual = Arithmetic.doRandomNumber (2, 3);
-        }
+        // Rank the individuals based on their fitness (from the worst to the best)
+        ranking.rank (population);
+        selectionOperator.prepare (ranking.fitness ());
 
-        // Crossover between the second best individual and one of the other three best individuals
-        newPopulation [5] = new IndividualV1 (false, new NonLinearFitness ());
-        crossoverType.crossover (newPopulation [1], newPopulation [randomIndividual], newPopulation [5]);
-        // Mutate the offspring
-        mutation (newPopulation [5], chanceOfMutation, 0.1);
+        // The new population is written over the individuals of the spare one
+        Individual [] newPopulation = sparePopulation ();
 
-        // Mate randomly the following 25 best individuals
+        // Since we are using Elitism, we will keep the best individuals
+        for (int i = 0; i < elitism; ++i) {
+            copyGenes (population [ranking.best (i)], newPopulation [i]);
+            newPopulation [i].resetStats ();
+        }
 
-        for (int individual = population.length - 7, nextOffspring = 6; individual > 3; --individual, ++nextOffspring) {
-            do {
-                randomIndividual = Arithmetic.doRandomNumber (0, 29);
-            } while (randomIndividual != individual);
+        // Mate the best candidates, each one of them with a partner
+        int firstImmigrant = population.length - immigrants;
 
-            newPopulation [nextOffspring] = new IndividualV1 (false, new NonLinearFitness ());
-            crossoverType.crossover (population [individual], population [randomIndividual], newPopulation [nextOffspring]);
-            mutation (newPopulation [nextOffspring], chanceOfMutation, 0.1);
+        for (int i = elitism, candidate = 0; i < firstImmigrant; ++i, ++candidate) {
+            breed (ranking.best (candidate % population.length), newPopulation [i]);
         }
 
-        // We will forget about the worst four individuals, creating four new
-        // random individuals in their place
-
-        newPopulation [newPopulation.length - 1] = new IndividualV1 (true, new NonLinearFitness ());
-        newPopulation [newPopulation.length - 2] = new IndividualV1 (true, new NonLinearFitness ());
-        newPopulation [newPopulation.length - 3] = new IndividualV1 (true, new NonLinearFitness ());
-        newPopulation [newPopulation.length - 4] = new IndividualV1 (true, new NonLinearFitness ());
+        // We will forget about the worst individuals, creating new random
+        // individuals in their place
+        for (int i = firstImmigrant; i < newPopulation.length; ++i) {
+            newPopulation [i].createRandomIndividual ();
+            newPopulation [i].resetStats ();
+        }
 
-        population = newPopulation;
+        swapPopulations ();
     }
 
-
-
     //__________________________________________________________________________
 
     /**
@@ -224,5 +141,9 @@ public class DeterministicGenetic extends GeneticAlg {
      */
     public void store (Memoria memory) {
         memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+
+        if (cache != null) {
+            memory.storeFitnessCache (cache);
+        }
     }
 }
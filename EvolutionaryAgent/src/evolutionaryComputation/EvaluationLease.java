@@ -0,0 +1,100 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * A lease grants an evaluator the right to play one match with one individual
+ * of the current generation. The evaluator works with a private copy of the
+ * individual, so several matches of the same individual can be played at the
+ * same time. If the lease expires before the results are handed back, the match
+ * is leased again to another evaluator (@see EvaluationScheduler).
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class EvaluationLease {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Position of the individual in the population */
+    private final int position;
+    /** Generation (as counted by the scheduler) the individual belongs to */
+    private final int round;
+    /** Private copy of the individual, its stats start at 0 */
+    private final Individual individual;
+    /** Time (in milliseconds) when the lease expires */
+    private final long deadline;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param position Position of the individual in the population.
+     * @param round Generation (as counted by the scheduler) the individual belongs to.
+     * @param individual Private copy of the individual.
+     * @param deadline Time (in milliseconds) when the lease expires.
+     */
+    EvaluationLease (int position, int round, Individual individual, long deadline) {
+        this.position = position;
+        this.round = round;
+        this.individual = individual;
+        this.deadline = deadline;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the position of the individual in the population */
+    public int getPosition () {
+        return position;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the generation (as counted by the scheduler) the lease belongs to */
+    int getRound () {
+        return round;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the individual that has to be put to the test. The results of the match
+     * must be added to its stats.
+     * @return Private copy of the individual.
+     */
+    public Individual getIndividual () {
+        return individual;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the lease has expired.
+     * @param now Current time in milliseconds.
+     * @return True if the lease has expired.
+     */
+    public boolean hasExpired (long now) {
+        return now >= deadline;
+    }
+}
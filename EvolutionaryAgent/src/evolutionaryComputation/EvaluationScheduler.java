@@ -0,0 +1,327 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import knowledge.Memoria;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * This class replaces the single currentIndividual cursor of a genetic algorithm
+ * by a work queue. Every match of every individual of the current generation is
+ * leased to whichever evaluator asks for work, so several evaluators (threads
+ * running a simulator, hosts running matches...) can put the population to the
+ * test at the same time. The results of each match are added to the individual
+ * atomically and, once every match has been completed, the next generation is
+ * created.
+ *
+ * If an evaluator doesn't hand back its results before the lease expires, the
+ * match is leased again to another evaluator and the late results are discarded.
+ * If the genetic algorithm has a cache, the individuals whose chromosome has
+ * already played enough matches take the cached results and aren't leased.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class EvaluationScheduler {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Genetic algorithm whose population is being evaluated */
+    private final GeneticAlg geneticAlg;
+    /** Data Base controller used when a generation ends (it can be null) */
+    private final Memoria memory;
+    /** Number of matches each individual has to play */
+    private final int matches;
+    /** Time (in milliseconds) an evaluator has to hand back the results of a match */
+    private final long leaseTime;
+    /** Number of generations completed since the scheduler was created */
+    private int round;
+    /** Number of matches of each individual that are currently leased */
+    private int leasedMatches [];
+    /** Number of matches of each individual that have been completed */
+    private int completedMatches [];
+    /** Number of matches of the current generation that haven't been completed */
+    private int remainingMatches;
+    /** Position of the next individual to be leased */
+    private int cursor;
+    /** Leases that haven't been completed nor expired */
+    private final List <EvaluationLease> leases;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. The individuals that the genetic algorithm has
+     * already evaluated (those before its current individual) are not leased again,
+     * and its current individual only plays the matches it has left.
+     * @param geneticAlg Genetic algorithm whose population is going to be evaluated.
+     * @param matches Number of matches each individual has to play.
+     * @param leaseTime Time (in milliseconds) an evaluator has to hand back the
+     * results of a match.
+     * @param memory Data Base controller used when a generation ends. It can be null.
+     */
+    public EvaluationScheduler (final GeneticAlg geneticAlg, int matches, long leaseTime, final Memoria memory) {
+        this.geneticAlg = geneticAlg;
+        this.matches = matches;
+        this.leaseTime = leaseTime;
+        this.memory = memory;
+
+        leases = new ArrayList <EvaluationLease> ();
+        round = 0;
+
+        resetGeneration (geneticAlg.currentIndividual, geneticAlg.currentMatch);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Leases the next match that has to be played, if any.
+     * @return A lease or null if every match of the current generation has
+     * already been leased.
+     */
+    public synchronized EvaluationLease lease () {
+        if (remainingMatches == 0) {
+            // Every individual of the generation took its results from the cache
+            finishGeneration ();
+            return null;
+        }
+
+        long now = System.currentTimeMillis ();
+        expireLeases (now);
+
+        Individual population [] = geneticAlg.population;
+
+        for (int k = 0; k < population.length; ++k) {
+            int position = (cursor + k) % population.length;
+
+            if (leasedMatches [position] + completedMatches [position] < matches) {
+                leasedMatches [position] = leasedMatches [position] + 1;
+                cursor = (position + 1) % population.length;
+
+                Individual copy = population [position].copy ();
+                copy.resetStats ();
+
+                EvaluationLease lease = new EvaluationLease (position, round, copy, now + leaseTime);
+                leases.add (lease);
+
+                return lease;
+            }
+        }
+
+        return null;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Waits until there is a match to be played.
+     * @param lastRound The method gives up once this number of generations has
+     * been completed.
+     * @return A lease or null if the given number of generations has been completed.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized EvaluationLease waitForLease (int lastRound) throws InterruptedException {
+        while (round < lastRound) {
+            EvaluationLease lease = lease ();
+
+            if (lease != null) {
+                return lease;
+            }
+
+            // Every match is being played, wait until one of them is completed
+            // or (at most) until a lease can expire
+            if (remainingMatches > 0) {
+                wait (leaseTime);
+            }
+        }
+
+        return null;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Hands back the results of a match. The stats of the leased copy are added
+     * to the individual of the population. If it was the last match of the
+     * generation, the next generation is created.
+     * @param lease Lease whose match has been played.
+     * @return True if the results have been accepted, false if the lease had
+     * expired (or belonged to a previous generation) and the results were discarded.
+     */
+    public synchronized boolean complete (final EvaluationLease lease) {
+        if (lease.getRound () != round || !leases.remove (lease)) {
+            return false;
+        }
+
+        int position = lease.getPosition ();
+        geneticAlg.population [position].addStats (lease.getIndividual ());
+
+        leasedMatches [position] = leasedMatches [position] - 1;
+        completedMatches [position] = completedMatches [position] + 1;
+        remainingMatches = remainingMatches - 1;
+
+        if (completedMatches [position] == matches) {
+            geneticAlg.record (geneticAlg.population [position], matches);
+        }
+
+        if (remainingMatches == 0) {
+            finishGeneration ();
+        }
+
+        notifyAll ();
+
+        return true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Evaluates the given number of generations using several evaluators at the
+     * same time (one thread per evaluator). It returns once every generation has
+     * been completed.
+     * Note that each evaluator is used by one thread only, so evaluators that are
+     * not thread safe (like the simulator) can be used, as long as they are
+     * different objects.
+     * @param evaluators Evaluators to be used.
+     * @param generations Number of generations to be evaluated.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public void run (final FitnessEvaluator evaluators [], int generations) throws InterruptedException {
+        final int lastRound;
+        synchronized (this) {
+            lastRound = round + generations;
+        }
+
+        Thread workers [] = new Thread [evaluators.length];
+
+        for (int i = 0; i < evaluators.length; ++i) {
+            final FitnessEvaluator evaluator = evaluators [i];
+
+            workers [i] = new Thread ("Evaluator-" + i) {
+                public void run () {
+                    try {
+                        EvaluationLease lease = waitForLease (lastRound);
+
+                        while (lease != null) {
+                            evaluator.evaluate (lease.getIndividual ());
+                            complete (lease);
+
+                            lease = waitForLease (lastRound);
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        // Stop evaluating, pending leases will expire
+                    }
+                }
+            };
+
+            workers [i].start ();
+        }
+
+        for (int i = 0; i < workers.length; ++i) {
+            workers [i].join ();
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of generations completed since the scheduler was created.
+     * @return Number of generations completed.
+     */
+    public synchronized int round () {
+        return round;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Removes the expired leases, so their matches can be leased again.
+     * @param now Current time in milliseconds.
+     */
+    private void expireLeases (long now) {
+        Iterator <EvaluationLease> it = leases.iterator ();
+
+        while (it.hasNext ()) {
+            EvaluationLease lease = it.next ();
+
+            if (lease.hasExpired (now)) {
+                leasedMatches [lease.getPosition ()] = leasedMatches [lease.getPosition ()] - 1;
+                it.remove ();
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Every individual has been evaluated, create the next generation.
+     */
+    private void finishGeneration () {
+        geneticAlg.currentIndividual = geneticAlg.population.length;
+        geneticAlg.currentMatch = 0;
+        geneticAlg.nextGeneration (memory);
+
+        round = round + 1;
+        resetGeneration (0, 0);
+
+        notifyAll ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Prepares the bookkeeping for a new generation.
+     * @param evaluated Number of individuals (from the beginning of the population)
+     * that have already been evaluated.
+     * @param played Number of matches the next individual (the one at position
+     * evaluated) has already played. Its stats already include them.
+     */
+    private void resetGeneration (int evaluated, int played) {
+        int size = geneticAlg.population.length;
+
+        leasedMatches = new int [size];
+        completedMatches = new int [size];
+        remainingMatches = 0;
+        cursor = 0;
+        leases.clear ();
+
+        FitnessCache cache = geneticAlg.cache;
+
+        for (int i = 0; i < size; ++i) {
+            if (i < evaluated || (cache != null && cache.restore (geneticAlg.population [i], matches))) {
+                completedMatches [i] = matches;
+            }
+            else if (i == evaluated && played > 0) {
+                completedMatches [i] = Math.min (played, matches);
+                remainingMatches = remainingMatches + matches - completedMatches [i];
+            }
+            else {
+                remainingMatches = remainingMatches + matches;
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import java.util.Arrays;
+
+
+/**
+ * This class evaluates a population using a race (F-race), so individuals that
+ * are clearly worse than the elite don't waste time playing every match. Instead
+ * of playing all the matches of an individual in a row, the individuals play in
+ * rounds (one match each per round). After each round, the candidates that are
+ * still racing are ranked in every round played so far and a Friedman test checks
+ * if there are differences among them. If there are, a candidate is dropped when
+ * its ranking is significantly worse than the ranking of as many candidates as
+ * survivors. The candidates that aren't dropped play every match.
+ *
+ * Ranks are used instead of the fitness itself, so the test doesn't depend on
+ * the scale of the fitness function. The dropped individuals keep the stats of
+ * the matches they played.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class FRace {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Function used to estimate the fitness of each match */
+    private final FitnessFunction function;
+    /** Significance level of the tests */
+    private final double significance;
+    /** Number of matches each candidate plays before it can be dropped */
+    private final int minMatches;
+    /** Number of candidates that can't be dropped (the elite) */
+    private final int survivors;
+    /** True if the candidate is still racing */
+    private boolean alive [] = new boolean [0];
+    /** Number of matches played by each candidate */
+    private int played [] = new int [0];
+    /** Fitness of each match (round) played by each candidate */
+    private double samples [][] = new double [0][0];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param function Function used to estimate the fitness of each match.
+     * @param significance Significance level of the tests (between 0 and 1). The
+     * lower, the more matches are played.
+     * @param minMatches Number of matches each candidate plays before it can be
+     * dropped (2 at least).
+     * @param survivors Number of candidates that can't be dropped.
+     */
+    public FRace (FitnessFunction function, double significance, int minMatches, int survivors) {
+        if (significance <= 0 || significance >= 1) {
+            throw new IllegalArgumentException ("The significance must be between 0 and 1");
+        }
+
+        this.function = function;
+        this.significance = significance;
+        this.minMatches = Math.max (2, minMatches);
+        this.survivors = Math.max (1, survivors);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Evaluates the individuals of a population from a given position onwards.
+     * @param evaluator Technique used to put the individuals to the test.
+     * @param population Population to be evaluated.
+     * @param first Position of the first individual to be evaluated.
+     * @param matches Maximum number of matches per individual.
+     * @return Number of matches played.
+     */
+    public int run (FitnessEvaluator evaluator, Individual population [], int first, int matches) {
+        return run (evaluator, population, first, matches, null);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Evaluates the individuals of a population from a given position onwards,
+     * except the given ones.
+     * @param evaluator Technique used to put the individuals to the test.
+     * @param population Population to be evaluated.
+     * @param first Position of the first individual to be evaluated.
+     * @param matches Maximum number of matches per individual.
+     * @param excluded True for the individuals that don't take part in the race
+     * (it can be null).
+     * @return Number of matches played.
+     */
+    public int run (FitnessEvaluator evaluator, Individual population [], int first, int matches, boolean excluded []) {
+        if (alive.length != population.length || samples [0].length < matches) {
+            alive = new boolean [population.length];
+            played = new int [population.length];
+            samples = new double [population.length][matches];
+        }
+
+        for (int i = 0; i < population.length; ++i) {
+            alive [i] = i >= first && (excluded == null || !excluded [i]);
+            played [i] = 0;
+        }
+
+        int total = 0;
+        for (int round = 0; round < matches; ++round) {
+            for (int i = first; i < population.length; ++i) {
+                if (alive [i]) {
+                    samples [i][round] = play (evaluator, population [i]);
+                    played [i] = played [i] + 1;
+                    ++total;
+                }
+            }
+
+            if (round + 1 >= minMatches && round + 1 < matches) {
+                drop (round + 1);
+            }
+        }
+
+        return total;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if an individual played every match of the last race.
+     * @param individual Position of the individual.
+     * @return True if it wasn't dropped.
+     */
+    public boolean isAlive (int individual) {
+        return alive [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of matches an individual played in the last race.
+     * @param individual Position of the individual.
+     * @return Number of matches played.
+     */
+    public int played (int individual) {
+        return played [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Puts an individual to the test once.
+     * @param evaluator Technique used to put the individual to the test.
+     * @param individual Individual to be evaluated.
+     * @return Fitness of the match (only the stats of this match are considered).
+     */
+    private double play (FitnessEvaluator evaluator, Individual individual) {
+        int kills = individual.getKills ();
+        int deaths = individual.getDeaths ();
+        int damageGiven = individual.getTotalDamageGiven ();
+        int damageTaken = individual.getTotalDamageTaken ();
+
+        evaluator.evaluate (individual);
+
+        return function.fitness (individual.getKills () - kills, individual.getDeaths () - deaths,
+                                 individual.getTotalDamageGiven () - damageGiven,
+                                 individual.getTotalDamageTaken () - damageTaken);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Drops the candidates whose ranking is significantly worse than the ranking
+     * of as many candidates as survivors (Friedman test followed by the pairwise
+     * comparisons of Conover).
+     * @param rounds Number of rounds played.
+     */
+    private void drop (int rounds) {
+        int racing [] = new int [alive.length];
+        int k = 0;
+        for (int i = 0; i < alive.length; ++i) {
+            if (alive [i]) {
+                racing [k++] = i;
+            }
+        }
+
+        if (k <= survivors) {
+            return;
+        }
+
+        // Rank the candidates in each round (1 is the best, ties share the
+        // average rank) and add up the ranks of each candidate
+        double rankSum [] = new double [k];
+        double squares = 0;
+        for (int round = 0; round < rounds; ++round) {
+            for (int a = 0; a < k; ++a) {
+                double value = samples [racing [a]][round];
+                int better = 0;
+                int equal = 0;
+                for (int b = 0; b < k; ++b) {
+                    double other = samples [racing [b]][round];
+                    if (other > value) {
+                        ++better;
+                    }
+                    else if (other == value) {
+                        ++equal;
+                    }
+                }
+
+                double rank = better + (equal + 1) / 2.0;
+                rankSum [a] = rankSum [a] + rank;
+                squares = squares + rank * rank;
+            }
+        }
+
+        // Friedman statistic
+        double correction = rounds * k * (k + 1) * (k + 1) / 4.0;
+        double spread = squares - correction;
+        if (spread <= 0) {
+            return; // Every candidate has the same rank in every round
+        }
+
+        double expected = rounds * (k + 1) / 2.0;
+        double statistic = 0;
+        for (int a = 0; a < k; ++a) {
+            statistic = statistic + (rankSum [a] - expected) * (rankSum [a] - expected);
+        }
+        statistic = (k - 1) * statistic / spread;
+
+        if (statistic <= chiSquareQuantile (1 - significance, k - 1)) {
+            return; // There is no evidence of differences among the candidates
+        }
+
+        // The reference is the worst rank sum among the survivors
+        double sorted [] = rankSum.clone ();
+        Arrays.sort (sorted);
+        double reference = sorted [survivors - 1];
+
+        double variance = 2.0 * rounds * (1 - statistic / (rounds * (k - 1))) * spread / ((rounds - 1) * (k - 1));
+        double threshold = tQuantile (1 - significance / 2, (rounds - 1) * (k - 1)) * Math.sqrt (Math.max (0, variance));
+
+        for (int a = 0; a < k; ++a) {
+            if (rankSum [a] - reference > threshold) {
+                alive [racing [a]] = false;
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates a quantile of the standard normal distribution (Abramowitz and
+     * Stegun 26.2.23, the error is lower than 4.5e-4).
+     * @param p Probability (between 0 and 1).
+     * @return Quantile.
+     */
+    private static double normalQuantile (double p) {
+        double q = (p < 0.5) ? p : 1 - p;
+        double t = Math.sqrt (-2 * Math.log (q));
+        double z = t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+                       / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+
+        return (p < 0.5) ? -z : z;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates a quantile of the chi-square distribution (Wilson and Hilferty).
+     * @param p Probability (between 0 and 1).
+     * @param degrees Degrees of freedom.
+     * @return Quantile.
+     */
+    private static double chiSquareQuantile (double p, int degrees) {
+        double h = 2.0 / (9.0 * degrees);
+        double cube = 1 - h + normalQuantile (p) * Math.sqrt (h);
+
+        return degrees * cube * cube * cube;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates a quantile of the Student's t distribution (Cornish-Fisher
+     * expansion, Abramowitz and Stegun 26.7.5).
+     * @param p Probability (between 0 and 1).
+     * @param degrees Degrees of freedom.
+     * @return Quantile.
+     */
+    private static double tQuantile (double p, int degrees) {
+        double z = normalQuantile (p);
+        double z2 = z * z;
+        double n = degrees;
+
+        return z + z * (z2 + 1) / (4 * n)
+                 + z * ((5 * z2 + 16) * z2 + 3) / (96 * n * n)
+                 + z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384 * n * n * n);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.TopologyType;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * This class exchanges migrants through files dropped in a shared directory.
+ * Each shipment is written to a temporary file that is renamed once it is
+ * complete, so an island never reads half a shipment. Each line of the file
+ * holds the genes of one chromosome.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class FileMigration extends MigrationChannel {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Directory where the shipments are dropped */
+    private final File directory;
+    /** Number of shipments sent by this island */
+    private int shipments;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param island Number of the island that owns this channel (from 0 to islands - 1).
+     * @param islands Total number of islands.
+     * @param topology Topology used to choose the destination of the migrants.
+     * @param directory Directory where the shipments are dropped. It is created
+     * if it doesn't exist.
+     */
+    public FileMigration (int island, int islands, TopologyType topology, File directory) {
+        super (island, islands, topology);
+
+        this.directory = directory;
+        directory.mkdirs ();
+        shipments = 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Writes a shipment for each neighbour of this island.
+     * @param chromosomes Chromosomes of the migrants.
+     */
+    public void send (int chromosomes [][]) {
+        int neighbours [] = neighbours ();
+
+        for (int i = 0; i < neighbours.length; ++i) {
+            String name = "Island" + neighbours [i] + "_From" + island + "_" + shipments;
+            File tmp = new File (directory, name + ".tmp");
+
+            // The shipment is only published (renamed) once it has been completely written
+            boolean written = false;
+            PrintWriter pw = null;
+            try {
+                pw = new PrintWriter (new FileWriter (tmp));
+
+                for (int k = 0; k < chromosomes.length; ++k) {
+                    for (int locus = 0; locus < chromosomes [k].length; ++locus) {
+                        pw.print (chromosomes [k][locus] + " ");
+                    }
+                    pw.println ();
+                }
+
+                pw.close ();
+                written = !pw.checkError ();
+            }
+            catch (IOException e) {
+                Logger.getLogger (FileMigration.class.getName ()).log (Level.WARNING, null, e);
+            }
+            finally {
+                if (pw != null) {
+                    pw.close ();
+                }
+            }
+
+            if (!written) {
+                Logger.getLogger (FileMigration.class.getName ()).log (Level.WARNING, "Couldn't write " + tmp + ", the shipment is lost");
+                tmp.delete ();
+            }
+            else if (!tmp.renameTo (new File (directory, name + ".mig"))) {
+                tmp.delete ();
+            }
+        }
+
+        shipments = shipments + 1;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Reads (and deletes) every shipment addressed to this island.
+     * @return Chromosomes received (it can be empty).
+     */
+    public int [][] receive () {
+        List <int []> chromosomes = new ArrayList <int []> ();
+
+        final String prefix = "Island" + island + "_From";
+        File files [] = directory.listFiles (new FilenameFilter () {
+            public boolean accept (File dir, String name) {
+                return name.startsWith (prefix) && name.endsWith (".mig");
+            }
+        });
+
+        if (files != null) {
+            for (int i = 0; i < files.length; ++i) {
+                BufferedReader reader = null;
+                try {
+                    reader = new BufferedReader (new FileReader (files [i]));
+
+                    String line = reader.readLine ();
+                    while (line != null) {
+                        StringTokenizer tokenizer = new StringTokenizer (line);
+                        int genes [] = new int [tokenizer.countTokens ()];
+
+                        for (int locus = 0; locus < genes.length; ++locus) {
+                            genes [locus] = Integer.parseInt (tokenizer.nextToken ());
+                        }
+
+                        if (genes.length > 0) {
+                            chromosomes.add (genes);
+                        }
+
+                        line = reader.readLine ();
+                    }
+                }
+                catch (Exception e) {
+                    Logger.getLogger (FileMigration.class.getName ()).log (Level.WARNING, null, e);
+                }
+                finally {
+                    try {
+                        if (reader != null) {
+                            reader.close ();
+                        }
+                    }
+                    catch (IOException ex) {
+                        Logger.getLogger (FileMigration.class.getName ()).log (Level.SEVERE, null, ex);
+                    }
+                }
+
+                files [i].delete ();
+            }
+        }
+
+        return chromosomes.toArray (new int [chromosomes.size ()][]);
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * This class remembers the results of the chromosomes that have already been put
+ * to the test. Elites and survivors that are copied into the next generation
+ * have the same chromosome as an individual that has already played, so instead
+ * of playing their matches again, the cached results can be reused.
+ *
+ * The stats (kills, deaths, damage given and damage taken) of every match of a
+ * chromosome are added up, so the cache keeps their mean per match, whatever the
+ * fitness function is. Once a chromosome has played enough matches, the cache is
+ * "settled" for it and its mean is reused instead of playing again. When the
+ * cache is full, the chromosome that has been used least recently is forgotten.
+ *
+ * The cache is thread safe, so it can be shared by several evaluators.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class FitnessCache {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Maximum number of chromosomes remembered */
+    private final int capacity;
+    /** Number of matches a chromosome has to play before its results are reused */
+    private final int reuseAfter;
+    /** Results of each chromosome, from the least to the most recently used */
+    private final Map <Genotype, Entry> entries;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param capacity Maximum number of chromosomes remembered.
+     * @param reuseAfter Number of matches a chromosome has to play before its
+     * results are reused.
+     */
+    public FitnessCache (final int capacity, int reuseAfter) {
+        if (capacity < 1 || reuseAfter < 1) {
+            throw new IllegalArgumentException ("The capacity and the number of matches must be positive");
+        }
+
+        this.capacity = capacity;
+        this.reuseAfter = reuseAfter;
+
+        // Access ordered, so the eldest entry is the least recently used one
+        entries = new LinkedHashMap <Genotype, Entry> (16, 0.75f, true) {
+            protected boolean removeEldestEntry (Map.Entry <Genotype, FitnessCache.Entry> eldest) {
+                return size () > capacity;
+            }
+        };
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds the stats of an individual to the results of its chromosome.
+     * @param individual Individual that has been evaluated.
+     * @param matches Number of matches the stats of the individual come from.
+     */
+    public synchronized void record (Individual individual, int matches) {
+        if (matches <= 0) {
+            return;
+        }
+
+        Genotype key = new Genotype (individual);
+        Entry entry = entries.get (key);
+
+        if (entry == null) {
+            entry = new Entry (key.genes);
+            entries.put (key, entry);
+        }
+
+        entry.kills = entry.kills + individual.getKills ();
+        entry.deaths = entry.deaths + individual.getDeaths ();
+        entry.totalDamageGiven = entry.totalDamageGiven + individual.getTotalDamageGiven ();
+        entry.totalDamageTaken = entry.totalDamageTaken + individual.getTotalDamageTaken ();
+        entry.samples = entry.samples + matches;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of matches the chromosome of an individual has played.
+     * @param individual Individual whose chromosome is looked for.
+     * @return Number of matches (0 if the chromosome isn't cached).
+     */
+    public synchronized int samples (Individual individual) {
+        Entry entry = entries.get (new Genotype (individual));
+        return (entry != null) ? entry.samples : 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the chromosome of an individual has played enough matches to
+     * reuse its results instead of playing again.
+     * @param individual Individual whose chromosome is looked for.
+     * @return True if its results can be reused.
+     */
+    public boolean isSettled (Individual individual) {
+        return samples (individual) >= reuseAfter;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sets the stats of an individual to the mean results of its chromosome,
+     * scaled to the given number of matches, if the chromosome is settled.
+     * @param individual Individual whose stats are set.
+     * @param matches Number of matches the individual should have played.
+     * @return True if the stats were set, false if the individual has to play.
+     */
+    public synchronized boolean restore (Individual individual, int matches) {
+        Entry entry = entries.get (new Genotype (individual));
+
+        if (entry == null || entry.samples < reuseAfter) {
+            return false;
+        }
+
+        double scale = matches / (double) entry.samples;
+        individual.setKills ((int) Math.round (entry.kills * scale));
+        individual.setDeaths ((int) Math.round (entry.deaths * scale));
+        individual.setTotalDamageGiven ((int) Math.round (entry.totalDamageGiven * scale));
+        individual.setTotalDamageTaken ((int) Math.round (entry.totalDamageTaken * scale));
+
+        return true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds the results of a chromosome (read from the data base, for example).
+     * If the cache is full, the least recently used chromosome is forgotten.
+     * @param entry Results of a chromosome.
+     */
+    public synchronized void put (Entry entry) {
+        entries.put (new Genotype (entry.genes), entry);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the results of every chromosome, from the least to the most
+     * recently used (so putting them back in order keeps the same order).
+     * @return Copy of the results.
+     */
+    public synchronized List <Entry> entries () {
+        List <Entry> copy = new ArrayList <Entry> (entries.size ());
+
+        for (Entry entry : entries.values ()) {
+            copy.add (entry.copy ());
+        }
+
+        return copy;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of chromosomes remembered.
+     * @return Number of chromosomes.
+     */
+    public synchronized int size () {
+        return entries.size ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the maximum number of chromosomes remembered */
+    public int getCapacity () {
+        return capacity;
+    }
+
+
+    // *************************************************************************
+    //                              NESTED CLASSES
+    // *************************************************************************
+
+
+    /**
+     * Results of a chromosome: the stats of every match it has played added up.
+     */
+    public static class Entry {
+
+        /** Values of the genes */
+        private final int genes [];
+        /** Number of matches played */
+        private int samples;
+        /** Number of times the individual has killed */
+        private int kills;
+        /** Number of times the individual has died */
+        private int deaths;
+        /** Total amount of damage given */
+        private int totalDamageGiven;
+        /** Total amount of damage taken */
+        private int totalDamageTaken;
+
+        //______________________________________________________________________
+
+        /**
+         * Creates the results of a chromosome that hasn't played yet.
+         * @param genes Values of the genes (they are copied).
+         */
+        public Entry (int genes []) {
+            this.genes = genes.clone ();
+        }
+
+        //______________________________________________________________________
+
+        /**
+         * Creates the results of a chromosome.
+         * @param genes Values of the genes (they are copied).
+         * @param samples Number of matches played.
+         * @param kills Number of times the individual has killed.
+         * @param deaths Number of times the individual has died.
+         * @param totalDamageGiven Total amount of damage given.
+         * @param totalDamageTaken Total amount of damage taken.
+         */
+        public Entry (int genes [], int samples, int kills, int deaths, int totalDamageGiven, int totalDamageTaken) {
+            this (genes);
+            this.samples = samples;
+            this.kills = kills;
+            this.deaths = deaths;
+            this.totalDamageGiven = totalDamageGiven;
+            this.totalDamageTaken = totalDamageTaken;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the value of a gene */
+        public int getGene (int locus) {
+            return genes [locus];
+        }
+
+        //______________________________________________________________________
+
+        /** Get the size of the chromosome */
+        public int chromosomeSize () {
+            return genes.length;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the number of matches played */
+        public int getSamples () {
+            return samples;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the number of times the individual has killed */
+        public int getKills () {
+            return kills;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the number of times the individual has died */
+        public int getDeaths () {
+            return deaths;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the total amount of damage given */
+        public int getTotalDamageGiven () {
+            return totalDamageGiven;
+        }
+
+        //______________________________________________________________________
+
+        /** Get the total amount of damage taken */
+        public int getTotalDamageTaken () {
+            return totalDamageTaken;
+        }
+
+        //______________________________________________________________________
+
+        /** Creates a copy of the results */
+        private Entry copy () {
+            return new Entry (genes, samples, kills, deaths, totalDamageGiven, totalDamageTaken);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Key of the cache: the values of the genes of a chromosome.
+     */
+    private static class Genotype {
+
+        /** Values of the genes */
+        private final int genes [];
+        /** Hash of the genes */
+        private final int hash;
+
+        //______________________________________________________________________
+
+        /** Creates the key of the chromosome of an individual */
+        Genotype (Individual individual) {
+            genes = new int [individual.chromosomeSize ()];
+            for (int i = 0; i < genes.length; ++i) {
+                genes [i] = individual.getGene (i);
+            }
+
+            hash = Arrays.hashCode (genes);
+        }
+
+        //______________________________________________________________________
+
+        /** Creates the key of the given genes (they must not be modified) */
+        Genotype (int genes []) {
+            this.genes = genes;
+            hash = Arrays.hashCode (genes);
+        }
+
+        //______________________________________________________________________
+
+        public int hashCode () {
+            return hash;
+        }
+
+        //______________________________________________________________________
+
+        public boolean equals (Object other) {
+            return other instanceof Genotype && Arrays.equals (genes, ((Genotype) other).genes);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class is meant to decouple the genetic algorithm from the way individuals
+ * are put to the test. A real match in Unreal Tournament 2004 (driven by T800) is
+ * one way of doing it, but any derived class (for example a simulator) can be used
+ * to fill the stats of an individual.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public abstract class FitnessEvaluator {
+
+    /**
+     * Puts an individual to the test. The results (kills, deaths, damage given and
+     * damage taken) MUST BE added to the individual's stats, so several evaluations
+     * of the same individual accumulate. The derived classes are responsible for
+     * the behavior of this method.
+     * @param individual Individual to be evaluated. IT CAN'T BE a null pointer.
+     */
+    public abstract void evaluate (Individual individual);
+}
@@ -0,0 +1,38 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class is meant to facilitate trials with different fitness functions.
+ * A fitness function only depends on the stats of an individual, so the same
+ * object can be shared by any number of individuals (@see IndividualStats).
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public abstract class FitnessFunction {
+
+    /**
+     * Estimate fitness.
+     * @param kills Number of times the individual has killed.
+     * @param deaths Number of times the individual has died.
+     * @param totalDamageGiven Total amount of damage the individual has given to the enemy.
+     * @param totalDamageTaken Total amount of damage the individual has received from the enemy.
+     * @return Fitness of the individual.
+     */
+    public abstract double fitness (int kills, int deaths, int totalDamageGiven, int totalDamageTaken);
+}
@@ -0,0 +1,234 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class ranks a population by fitness. The fitness of each individual is
+ * estimated only once and the positions of the individuals are sorted (the
+ * individuals themselves aren't moved). Every genetic algorithm must use its
+ * own object, but different objects can be used at the same time by different
+ * threads.
+ *
+ * The positions are sorted from the worst individual to the best one. Individuals
+ * with the same fitness keep their relative order.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class FitnessRanking {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of individuals ranked */
+    private int size;
+    /** Fitness of each individual */
+    private double fitness [];
+    /** Positions of the individuals, from the worst to the best */
+    private int order [];
+    /** Rank of each individual (0 is the worst one) */
+    private int ranks [];
+    /** Auxiliary array used to sort */
+    private int buffer [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Ranks a population, estimating the fitness of each individual once.
+     * @param population Individuals to be ranked.
+     */
+    public void rank (final Individual population []) {
+        allocate (population.length);
+
+        for (int i = 0; i < size; ++i) {
+            fitness [i] = population [i].fitness ();
+        }
+
+        sort ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Ranks a population whose fitness has already been estimated.
+     * @param fitness Fitness of each individual. It is copied.
+     */
+    public void rank (final double fitness []) {
+        allocate (fitness.length);
+        System.arraycopy (fitness, 0, this.fitness, 0, size);
+
+        sort ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Number of individuals ranked */
+    public int size () {
+        return size;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the fitness of an individual, as it was estimated when it was ranked.
+     * @param individual Position of the individual in the population.
+     * @return Fitness of the individual.
+     */
+    public double fitness (int individual) {
+        return fitness [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the fitness of every individual. The array is shared, it MUST NOT be
+     * modified and only the first size () values are meaningful.
+     * @return Fitness of each individual.
+     */
+    public double [] fitness () {
+        return fitness;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the position of the k-th best individual.
+     * @param k 0 for the best individual, 1 for the second best one...
+     * @return Position of the individual in the population.
+     */
+    public int best (int k) {
+        return order [size - 1 - k];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the position of the k-th worst individual.
+     * @param k 0 for the worst individual, 1 for the second worst one...
+     * @return Position of the individual in the population.
+     */
+    public int worst (int k) {
+        return order [k];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the rank of an individual.
+     * @param individual Position of the individual in the population.
+     * @return Rank of the individual, 0 for the worst one and size () - 1 for
+     * the best one.
+     */
+    public int rankOf (int individual) {
+        return ranks [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the positions of the individuals, from the worst to the best. The array
+     * is shared, it MUST NOT be modified.
+     * @return Positions sorted by fitness.
+     */
+    public int [] order () {
+        return order;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the rank of each individual (0 is the worst one). The array is shared,
+     * it MUST NOT be modified.
+     * @return Rank of each individual.
+     */
+    public int [] ranks () {
+        return ranks;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Makes sure the arrays can hold the given number of individuals. They are
+     * only reallocated when the size of the population changes.
+     * @param size Number of individuals.
+     */
+    private void allocate (int size) {
+        this.size = size;
+
+        if (order == null || order.length != size) {
+            fitness = new double [size];
+            order = new int [size];
+            ranks = new int [size];
+            buffer = new int [size];
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sorts the positions of the individuals (bottom-up merge sort, which is
+     * stable) and estimates the rank of each one.
+     */
+    private void sort () {
+        for (int i = 0; i < size; ++i) {
+            order [i] = i;
+        }
+
+        for (int width = 1; width < size; width = width * 2) {
+            for (int low = 0; low < size - width; low = low + 2 * width) {
+                int middle = low + width;
+                int high = Math.min (low + 2 * width, size);
+
+                int i = low, k = middle, next = low;
+                while (i < middle && k < high) {
+                    if (fitness [order [k]] < fitness [order [i]]) {
+                        buffer [next] = order [k];
+                        k = k + 1;
+                    }
+                    else {
+                        buffer [next] = order [i];
+                        i = i + 1;
+                    }
+                    next = next + 1;
+                }
+
+                while (i < middle) {
+                    buffer [next] = order [i];
+                    i = i + 1;
+                    next = next + 1;
+                }
+                while (k < high) {
+                    buffer [next] = order [k];
+                    k = k + 1;
+                    next = next + 1;
+                }
+
+                System.arraycopy (buffer, low, order, low, high - low);
+            }
+        }
+
+        for (int rank = 0; rank < size; ++rank) {
+            ranks [order [rank]] = rank;
+        }
+    }
+}
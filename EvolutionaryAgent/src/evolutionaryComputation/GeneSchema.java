@@ -0,0 +1,313 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.GeneType;
+import utilities.RandomStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class describes the chromosome of a kind of individual: the type, bounds
+ * and step of each gene, plus the constraints between genes (a gene that can't be
+ * greater than another one, for example). The genetic operators use it to keep
+ * the chromosomes valid, so matches aren't wasted on individuals that make no
+ * sense or whose genes can't change any more. Each setter returns the schema
+ * itself so they can be chained:
+ *
+ *     new GeneSchema (3).setRange (0, 2, 0, 1000, 10).addOrder (0, 1).addOrder (1, 2);
+ *
+ * By default every gene is an integer between 0 and Integer.MAX_VALUE with a
+ * step of 1.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class GeneSchema {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Type of each gene */
+    private final GeneType types [];
+    /** Lowest value of each gene */
+    private final int min [];
+    /** Highest value of each gene */
+    private final int max [];
+    /** Smallest change of each gene (its values are min, min + step...) */
+    private final int step [];
+    /** Ordering constraints: the first gene of each pair can't be greater than the second one */
+    private final List <int []> orders = new ArrayList <int []> ();
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param size Size of the chromosome.
+     */
+    public GeneSchema (int size) {
+        types = new GeneType [size];
+        min = new int [size];
+        max = new int [size];
+        step = new int [size];
+
+        for (int locus = 0; locus < size; ++locus) {
+            types [locus] = GeneType.INTEGER;
+            max [locus] = Integer.MAX_VALUE;
+            step [locus] = 1;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Describes a gene.
+     * @param locus Position of the gene.
+     * @param type Type of the gene.
+     * @param min Lowest value of the gene.
+     * @param max Highest value of the gene.
+     * @param step Smallest change of the gene.
+     * @return This schema.
+     */
+    public GeneSchema setGene (int locus, GeneType type, int min, int max, int step) {
+        if (max < min || step < 1) {
+            throw new IllegalArgumentException ("Invalid bounds or step for gene " + locus);
+        }
+
+        types [locus] = type;
+        this.min [locus] = min;
+        this.max [locus] = max;
+        this.step [locus] = step;
+
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Describes a range of integer genes that share the same bounds and step.
+     * @param first Position of the first gene.
+     * @param last Position of the last gene (inclusive).
+     * @param min Lowest value of the genes.
+     * @param max Highest value of the genes.
+     * @param step Smallest change of the genes.
+     * @return This schema.
+     */
+    public GeneSchema setRange (int first, int last, int min, int max, int step) {
+        for (int locus = first; locus <= last; ++locus) {
+            setGene (locus, GeneType.INTEGER, min, max, step);
+        }
+
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds an ordering constraint: a gene can't be greater than another one.
+     * Constraints are repaired in the order they were added, so chains must be
+     * added from the first gene to the last one (0 <= 1, then 1 <= 2).
+     * @param lower Position of the gene that can't be greater.
+     * @param upper Position of the gene that can't be lower.
+     * @return This schema.
+     */
+    public GeneSchema addOrder (int lower, int upper) {
+        orders.add (new int [] {lower, upper});
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Size of the chromosome */
+    public int size () {
+        return types.length;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the type of a gene */
+    public GeneType getType (int locus) {
+        return types [locus];
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the lowest value of a gene */
+    public int getMin (int locus) {
+        return min [locus];
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the highest value of a gene */
+    public int getMax (int locus) {
+        return max [locus];
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the smallest change of a gene */
+    public int getStep (int locus) {
+        return step [locus];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Mutates a gene. Integer genes move up or down by (at least) one step and
+     * (at most) the given rate of their range. Categorical genes take any other
+     * valid value. The result is always within the bounds of the gene, so a gene
+     * never gets stuck (even at 0).
+     * @param locus Position of the gene.
+     * @param value Current value of the gene.
+     * @param rate Rate of mutation (between 0 and 1).
+     * @param random Random number generator.
+     * @return Mutated value.
+     */
+    public int mutate (int locus, int value, double rate, RandomStream random) {
+        long steps = ((long) max [locus] - min [locus]) / step [locus];
+        if (steps == 0) {
+            return min [locus];
+        }
+
+        if (types [locus] == GeneType.CATEGORICAL) {
+            long other = (long) (random.nextDouble () * steps);
+            long current = ((long) value - min [locus]) / step [locus];
+            if (other >= current) {
+                ++other;
+            }
+
+            return (int) (min [locus] + other * step [locus]);
+        }
+
+        long maxSteps = Math.max (1, Math.round (rate * steps));
+        long delta = 1 + (long) (random.nextDouble () * maxSteps);
+
+        long mutated = (long) value + (random.nextBoolean () ? delta : -delta) * step [locus];
+
+        // Bounce off the bounds instead of sticking to them
+        if (mutated > max [locus]) {
+            mutated = (long) value - delta * step [locus];
+        }
+        else if (mutated < min [locus]) {
+            mutated = (long) value + delta * step [locus];
+        }
+
+        return clamp (locus, mutated);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Fixes the chromosome of an individual: every gene is moved within its bounds
+     * (and onto its steps) and then the ordering constraints are enforced, raising
+     * the greater gene if possible and lowering the lesser gene otherwise.
+     * @param individual Individual to be repaired.
+     * @return True if any gene had to be changed.
+     */
+    public boolean repair (Individual individual) {
+        boolean changed = false;
+        int size = Math.min (types.length, individual.chromosomeSize ());
+
+        for (int locus = 0; locus < size; ++locus) {
+            int value = individual.getGene (locus);
+            int fixed = clamp (locus, value);
+
+            if (fixed != value) {
+                individual.setGene (locus, fixed);
+                changed = true;
+            }
+        }
+
+        for (int [] order : orders) {
+            int lower = order [0];
+            int upper = order [1];
+            if (lower >= size || upper >= size) {
+                continue;
+            }
+
+            if (individual.getGene (lower) > individual.getGene (upper)) {
+                individual.setGene (upper, clamp (upper, individual.getGene (lower)));
+
+                if (individual.getGene (lower) > individual.getGene (upper)) {
+                    individual.setGene (lower, clamp (lower, individual.getGene (upper)));
+                }
+
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the chromosome of an individual is valid.
+     * @param individual Individual to be checked.
+     * @return True if every gene is within its bounds and every constraint holds.
+     */
+    public boolean isValid (Individual individual) {
+        int size = Math.min (types.length, individual.chromosomeSize ());
+
+        for (int locus = 0; locus < size; ++locus) {
+            int value = individual.getGene (locus);
+            if (value != clamp (locus, value)) {
+                return false;
+            }
+        }
+
+        for (int [] order : orders) {
+            if (order [0] < size && order [1] < size && individual.getGene (order [0]) > individual.getGene (order [1])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Moves a value within the bounds of a gene and onto its steps.
+     * @param locus Position of the gene.
+     * @param value Value to be fixed.
+     * @return Valid value of the gene.
+     */
+    private int clamp (int locus, long value) {
+        if (value <= min [locus]) {
+            return min [locus];
+        }
+        if (value >= max [locus]) {
+            return max [locus];
+        }
+
+        if (step [locus] > 1) {
+            long offset = Math.round ((value - min [locus]) / (double) step [locus]) * step [locus];
+            return (int) Math.min (max [locus], min [locus] + offset);
+        }
+
+        return (int) value;
+    }
+}
@@ -14,7 +14,9 @@
 
 package evolutionaryComputation;
 
+import enumTypes.MutationType;
 import knowledge.Memoria;
+import utilities.Copycat;
 
 
 /**
@@ -24,17 +26,24 @@ import knowledge.Memoria;
  * easily). There is a CrossoverType object contained within this class to make it
  * easy to use different crossover techniques through the use of polymorphism.
  *
- * Currently the derived classes are responsible for choosing the type of individual
- * that they are going to used, but this is going to be changed in future versions
- * (so we can create a genetic algorithm selecting size of population, generations,
- * number of matches per bot, crossover technique, individual/size of chromosome,
- * fitness technique) to be more flexible.
+ * The size of population, generations, number of matches per bot, elitism,
+ * immigrants, selection and crossover techniques, mutation, individual/size of
+ * chromosome and fitness technique are chosen through a GeneticConfig object.
  *
  * @author Francisco Aisa Garcia
  */
 
 
-public abstract class GeneticAlg {
+public abstract class GeneticAlg implements Cloneable {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Name of the state where the current execution (run) of the history is stored */
+    private static final String RUN_STATE = "GeneticAlg.run";
+
 
     // *************************************************************************
     //                             INSTANCE FIELDS
@@ -59,6 +68,54 @@ public abstract class GeneticAlg {
      any individual, hence, using polymorphism we can try different crossover techniques
      without changing our original algorithm */
     protected CrossoverType crossoverType;
+    /** It references a SelectionOperator object, used to choose the parents. The
+     derived classes that use it must initialize it with a default technique */
+    protected SelectionOperator selectionOperator;
+    /** It creates the individuals of the population */
+    protected IndividualFactory factory;
+    /** Number of best individuals that survive to the next generation */
+    protected int elitism;
+    /** Number of random individuals added to each generation */
+    protected int immigrants;
+    /** Number of matches each individual has to play */
+    protected int matches;
+    /** Race used to drop the worst individuals before they play every match (null if disabled) */
+    protected FRace race;
+    /** Results of the chromosomes that have already been evaluated (null if disabled) */
+    protected FitnessCache cache;
+    /** Model used to predict the fitness of the offspring (null if there isn't any) */
+    protected SurrogateModel surrogate;
+    /** Number of candidates generated per offspring when there is a surrogate model */
+    protected int screening = 1;
+    /** True if the surrogate model already knows the current generation */
+    private boolean learned = false;
+    /** Probability of mutation of each gene */
+    protected double mutationChance;
+    /** Rate of mutation (@see mutation) */
+    protected double mutationRate;
+    /** How the genes change when they mutate */
+    protected MutationType mutationType = MutationType.PROPORTIONAL;
+    /** True if each crossover produces two children (@see breed) */
+    protected boolean twoChildren = false;
+    /** True if the second child of the last crossover hasn't been used yet (@see breed) */
+    private boolean pendingSibling = false;
+    /** Individuals where the candidates of breed are created (the first one keeps
+     the second child of the last crossover). They are reused every time */
+    private Individual offspringPool [] = null;
+    /** Execution of the algorithm whose generations are being stored in the history
+     (negative if it isn't known yet) */
+    private int run = -1;
+    /** Second population: the next generation is written into it and then both
+     populations swap roles, so no individual is created between generations */
+    private Individual spare [] = null;
+    /** Mutation engine used with the last probability and rate of mutation */
+    private MutationKernel mutationKernel = null;
+    /** Channel used to exchange migrants with other islands (null if there isn't migration) */
+    private MigrationChannel migrationChannel = null;
+    /** Number of generations between migrations (0 or less if there aren't migrations) */
+    private int migrationInterval = 0;
+    /** Number of chromosomes sent to each neighbour on each migration */
+    private int migrants = 0;
 
 
     // *************************************************************************
@@ -78,6 +135,45 @@ public abstract class GeneticAlg {
         currentGeneration = currentIndividual = 0;
         population = new Individual [populationSize];
         this.crossoverType = crossoverType;
+        matches = 1;
+        mutationRate = 0.1;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Initializes the algorithm with the given configuration and creates the
+     * population (with random genes). The derived classes must set a default
+     * selection operator if the configuration doesn't have one.
+     * @param config Parameters of the algorithm.
+     * @param defaultFitness Fitness function used if the configuration doesn't
+     * have one.
+     */
+    protected GeneticAlg (GeneticConfig config, FitnessFunction defaultFitness) {
+        GENERATIONS = config.getGenerations ();
+        currentGeneration = currentIndividual = currentMatch = 0;
+        crossoverType = config.getCrossover ();
+        selectionOperator = config.getSelection ();
+        factory = config.factory (defaultFitness);
+        elitism = config.getElitism ();
+        immigrants = config.getImmigrants ();
+        matches = config.getMatches ();
+        race = config.race (factory.getFitnessFunction ());
+        cache = config.cache ();
+        surrogate = config.getSurrogate ();
+        screening = config.getScreening ();
+        mutationRate = config.getMutationRate ();
+        mutationType = config.getMutationType ();
+        twoChildren = config.getTwoChildren ();
+        setMigration (config.getMigrationChannel (), config.getMigrationInterval (), config.getMigrants ());
+
+        population = new Individual [config.getPopulationSize ()];
+        for (int i = 0; i < population.length; ++i) {
+            population [i] = factory.create (true);
+        }
+
+        chromosomeSize = population [0].chromosomeSize ();
+        mutationChance = config.getMutationChance (chromosomeSize);
     }
 
     //__________________________________________________________________________
@@ -113,6 +209,596 @@ public abstract class GeneticAlg {
 
     //__________________________________________________________________________
 
+    /**
+     * Retrieves the number of matches each individual has to play.
+     * @return Number of matches per individual.
+     */
+    public int matches () {
+        return matches;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the selection technique used to choose the parents.
+     * @param selectionOperator Selection technique to be applied.
+     */
+    public void setSelectionOperator (SelectionOperator selectionOperator) {
+        this.selectionOperator = selectionOperator;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the race used to evaluate the individuals (@see evaluate).
+     * @param race Race, or null to make every individual play every match.
+     */
+    public void setRace (FRace race) {
+        this.race = race;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the cache of the results of each chromosome (@see evaluate).
+     * @param cache Cache, or null to evaluate every individual.
+     */
+    public void setCache (FitnessCache cache) {
+        this.cache = cache;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the cache of the results of each chromosome.
+     * @return The cache, or null if there isn't any.
+     */
+    public FitnessCache getCache () {
+        return cache;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the model used to predict the fitness of the offspring (@see breed).
+     * @param surrogate Surrogate model, or null to evaluate every offspring.
+     * @param screening Number of candidates generated per offspring.
+     */
+    public void setSurrogate (SurrogateModel surrogate, int screening) {
+        this.surrogate = surrogate;
+        this.screening = Math.max (1, screening);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It initializes the population using the information stored in the data base.
+     * If the current generation has already been evaluated, the next one is created.
+     * If there isn't any information available, it generates the first generation.
+     * It MUST BE executed by the derived classes once the population has been
+     * allocated and chromosomeSize has been initialized.
+     * @param memory Data Base controller. If it is null, the first generation is
+     * generated randomly (useful when the individuals are evaluated offline).
+     */
+    protected void initialize (Memoria memory) {
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        boolean success = memory != null && load (memory);
+
+        if (memory != null && cache != null) {
+            memory.loadFitnessCache (cache, chromosomeSize);
+        }
+
+        if (success) {
+            // Train the surrogate model with the individuals that have already
+            // been evaluated
+            if (surrogate != null && factory != null) {
+                for (Individual evaluated : memory.loadEvaluations (factory, chromosomeSize)) {
+                    surrogate.learn (evaluated);
+                }
+
+                learned = true;
+            }
+
+            // If the next individual to evaluate is the first one of the next population
+            // create the next generation
+            if (currentIndividual >= population.length) {
+                nextGeneration (memory);
+            }
+        }
+        else {
+            restart ();
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the migration of the island model (@see GeneticConfig.setMigration).
+     * @param channel Channel used to exchange the migrants (null to disable migration).
+     * @param interval Number of generations between migrations.
+     * @param migrants Number of chromosomes sent to each neighbour on each migration.
+     */
+    void setMigration (MigrationChannel channel, int interval, int migrants) {
+        this.migrationChannel = channel;
+        this.migrationInterval = interval;
+        this.migrants = migrants;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It must be executed once every individual of the current generation has been
+     * evaluated. If the next generation is the last one, it stores the best individual,
+     * otherwise, it creates the next generation based on selection, crossover and
+     * mutation. If the algorithm is an island and it is time to migrate, the best
+     * chromosomes of the current generation are sent to the neighbours and the
+     * chromosomes received take the place of the last individuals of the new
+     * generation.
+     * @param memory Data Base controller. If it is null, the best individual isn't
+     * stored.
+     */
+    public void nextGeneration (Memoria memory) {
+        boolean migrate = migrationChannel != null && migrationInterval > 0
+                          && (currentGeneration + 1) % migrationInterval == 0;
+
+        // The surrogate model learns from the individuals that have been evaluated
+        if (surrogate != null && !learned) {
+            for (int i = 0; i < Math.min (currentIndividual, population.length); ++i) {
+                surrogate.learn (population [i]);
+            }
+        }
+        learned = false;
+
+        // Write down the results
+        Copycat.copyPopulation (currentGeneration, population);
+        if (memory != null) {
+            storeHistory (memory);
+        }
+
+        if (migrate) {
+            migrationChannel.send (emigrants ());
+        }
+
+        currentGeneration = currentGeneration + 1;
+
+        if (currentGeneration == GENERATIONS) {
+            // The execution has ended, store the result in the data base
+            if (memory != null) {
+                storeResult (memory);
+            }
+
+            // Restart execution
+            restart ();
+        }
+        else {
+            // Reset the next individual to be evaluated
+            currentIndividual = 0;
+            currentMatch = 0;
+
+            // Selection, Crossover and Mutation
+            pendingSibling = false;
+            selection ();
+        }
+
+        if (migrate) {
+            immigrate (migrationChannel.receive ());
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Copies the chromosomes of the best individuals of the current generation.
+     * @return Chromosomes of the best individuals, the best one first.
+     */
+    private int [][] emigrants () {
+        int count = Math.min (migrants, population.length);
+
+        // Partial selection sort over the positions of the individuals
+        int positions [] = new int [population.length];
+        for (int i = 0; i < positions.length; ++i) {
+            positions [i] = i;
+        }
+
+        int chromosomes [][] = new int [Math.max (0, count)][];
+
+        for (int i = 0; i < count; ++i) {
+            int best = i;
+            for (int k = i + 1; k < positions.length; ++k) {
+                if (population [positions [k]].fitness () > population [positions [best]].fitness ()) {
+                    best = k;
+                }
+            }
+
+            int aux = positions [i];
+            positions [i] = positions [best];
+            positions [best] = aux;
+
+            Individual emigrant = population [positions [i]];
+            chromosomes [i] = new int [emigrant.chromosomeSize ()];
+            for (int locus = 0; locus < chromosomes [i].length; ++locus) {
+                chromosomes [i][locus] = emigrant.getGene (locus);
+            }
+        }
+
+        return chromosomes;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Places the chromosomes received in the new generation. They take the place
+     * of the last individuals (where the algorithms place their newcomers), leaving
+     * at least the first individual untouched. Chromosomes of a different size are
+     * ignored, and the others are repaired to fit the schema of the individuals
+     * of this algorithm (@see Individual.repair).
+     * @param chromosomes Chromosomes received from other islands.
+     */
+    private void immigrate (int chromosomes [][]) {
+        int slot = population.length - 1;
+        for (int i = 0; i < chromosomes.length && slot > 0; ++i) {
+            if (chromosomes [i].length == chromosomeSize) {
+                for (int locus = 0; locus < chromosomes [i].length; ++locus) {
+                    population [slot].setGene (locus, chromosomes [i][locus]);
+                }
+
+                population [slot].repair ();
+                population [slot].resetStats ();
+                slot = slot - 1;
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Appends the current generation (once it has been evaluated) to the history
+     * of the data base. Each execution of the algorithm (from the first generation
+     * to the last one) gets its own number, which is kept in the data base so
+     * the bot can be restarted in the middle of an execution.
+     * @param memory Data Base controller.
+     */
+    protected void storeHistory (Memoria memory) {
+        // The first generation always starts a new execution
+        if (run < 0 || currentGeneration == 0) {
+            double stored [] = memory.loadState (RUN_STATE);
+
+            if (currentGeneration > 0 && stored != null && stored.length == 1) {
+                run = (int) stored [0];
+            }
+            else {
+                run = memory.nextHistoryRun ();
+                memory.storeState (RUN_STATE, new double [] {run});
+            }
+        }
+
+        memory.storeHistory (run, currentGeneration, -1, population);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Stores the result of the execution in the data base once the last
+     * generation has been evaluated. By default, the best individual (the one
+     * with the biggest fitness) is stored.
+     * @param memory Data Base controller.
+     */
+    protected void storeResult (Memoria memory) {
+        Individual best = bestIndividual ();
+
+        String tableName = best.getClass ().getName ();
+        tableName = tableName.replace("evolutionaryComputation.", "");
+        memory.storeBestIndividuo (tableName, best, false);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Restarts the execution of the algorithm, generating a random population.
+     */
+    protected void restart () {
+        currentGeneration = 0;
+        currentIndividual = 0;
+        currentMatch = 0;
+
+        for (int i = 0; i < population.length; ++i) {
+            population [i].createRandomIndividual ();
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Look for the best individual (the one with the biggest fitness) of the
+     * current population.
+     * @return Best individual of the current population.
+     */
+    public Individual bestIndividual () {
+        double max = population [0].fitness ();
+        int pos = 0;
+        for (int i = 1; i < population.length; ++i) {
+            if (population [i].fitness () >= max){
+                max = population [i].fitness ();
+                pos = i;
+            }
+        }
+
+        return population [pos];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Evaluates the individuals of the current generation that haven't been
+     * tested yet using the given evaluator. Each individual plays the number of
+     * matches of the configuration.
+     * @param evaluator Technique used to put the individuals to the test.
+     */
+    public void evaluate (FitnessEvaluator evaluator) {
+        evaluate (evaluator, matches);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Evaluates the individuals of the current generation that haven't been
+     * tested yet using the given evaluator. It doesn't create the next generation
+     * (@see nextGeneration). If the algorithm has a race, the individuals that
+     * are clearly worse than the elite may play fewer matches. If it has a cache,
+     * the individuals whose chromosome has already played enough matches take
+     * the cached results instead of playing.
+     * @param evaluator Technique used to put the individuals to the test.
+     * @param matches Number of evaluations each individual has to go through.
+     */
+    public void evaluate (FitnessEvaluator evaluator, int matches) {
+        // The individual that was being evaluated finishes its matches. Its
+        // results are only recorded if it actually plays, otherwise they have
+        // already been recorded (or it hasn't got any)
+        if (currentMatch > 0 && currentIndividual < population.length) {
+            if (currentMatch < matches) {
+                for (; currentMatch < matches; ++currentMatch) {
+                    evaluator.evaluate (population [currentIndividual]);
+                }
+
+                record (population [currentIndividual], matches);
+            }
+
+            currentMatch = 0;
+            currentIndividual = currentIndividual + 1;
+        }
+
+        if (race != null && matches > 1) {
+            if (currentIndividual < population.length) {
+                // The individuals whose results are cached don't take part in the race
+                boolean cached [] = new boolean [population.length];
+                for (int i = currentIndividual; i < population.length; ++i) {
+                    cached [i] = cache != null && cache.restore (population [i], matches);
+                }
+
+                race.run (evaluator, population, currentIndividual, matches, cached);
+
+                for (int i = currentIndividual; i < population.length; ++i) {
+                    if (!cached [i]) {
+                        record (population [i], race.played (i));
+                    }
+                }
+
+                currentIndividual = population.length;
+            }
+
+            return;
+        }
+
+        while (currentIndividual < population.length) {
+            Individual individual = population [currentIndividual];
+
+            if (cache == null || !cache.restore (individual, matches)) {
+                for (; currentMatch < matches; ++currentMatch) {
+                    evaluator.evaluate (individual);
+                }
+
+                record (individual, matches);
+            }
+
+            currentMatch = 0;
+            currentIndividual = currentIndividual + 1;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds the results of an individual to the cache, if there is one.
+     * @param individual Individual that has been evaluated.
+     * @param matches Number of matches it has played.
+     */
+    protected void record (Individual individual, int matches) {
+        if (cache != null) {
+            cache.record (individual, matches);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It must be executed when the test individual (@see testIndividual) finishes
+     * a match in the game. Its results are added to the cache, if there is one.
+     */
+    public void matchFinished () {
+        if (currentIndividual < population.length) {
+            record (population [currentIndividual], 1);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Skips the individuals whose chromosome has already played enough matches
+     * in the game, so they take their cached results instead of playing again
+     * (@see FitnessCache). If the whole generation is skipped, the next one is
+     * created. It does nothing if there isn't a cache.
+     * @param matches Number of matches each individual plays in the game.
+     * @param memory Data Base controller.
+     */
+    public void skipCached (int matches, Memoria memory) {
+        if (cache == null) {
+            return;
+        }
+
+        while (currentIndividual < population.length && cache.restore (population [currentIndividual], matches)) {
+            currentIndividual = currentIndividual + 1;
+
+            if (currentIndividual >= population.length) {
+                nextGeneration (memory);
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an offspring mating an individual with a partner chosen by the
+     * selection operator, followed by a mutation. If there is a surrogate model
+     * (and it is ready), several candidates are created (each one with a
+     * different partner) and only the one with the best predicted fitness is
+     * kept, so matches aren't wasted on offspring that are likely to be bad.
+     * If each crossover produces two children, the second one is used by the
+     * next call (without a surrogate model) or competes with the first one (with
+     * a surrogate model). No individual is created: the offspring is written into
+     * the given one and the candidates are kept in a pool.
+     * @param male Position of the individual to be mated.
+     * @param offspring Individual (of the spare population) where the offspring
+     * is written. Its stats are set to 0.
+     */
+    protected void breed (int male, Individual offspring) {
+        offspring.resetStats ();
+
+        if (pendingSibling) {
+            copyGenes (offspringPool [0], offspring);
+            pendingSibling = false;
+
+            return;
+        }
+
+        int candidates = (surrogate != null && surrogate.isReady ()) ? screening : 1;
+        Individual pool [] = offspringPool (2 * candidates);
+
+        if (candidates == 1) {
+            int female = selectionOperator.selectOther (male);
+            Individual second = twoChildren ? pool [0] : null;
+
+            crossoverType.crossover (population [male], population [female], offspring, second);
+            mutation (offspring, mutationChance, mutationRate);
+            if (second != null) {
+                mutation (second, mutationChance, mutationRate);
+                pendingSibling = true;
+            }
+
+            return;
+        }
+
+        Individual best = null;
+        double bestPrediction = Double.NEGATIVE_INFINITY;
+
+        for (int c = 0; c < candidates; ++c) {
+            int female = selectionOperator.selectOther (male);
+
+            Individual first = pool [2 * c];
+            Individual second = twoChildren ? pool [2 * c + 1] : null;
+
+            crossoverType.crossover (population [male], population [female], first, second);
+            mutation (first, mutationChance, mutationRate);
+
+            double prediction = surrogate.predict (first);
+            if (best == null || prediction > bestPrediction) {
+                best = first;
+                bestPrediction = prediction;
+            }
+
+            if (second != null) {
+                mutation (second, mutationChance, mutationRate);
+
+                if ((prediction = surrogate.predict (second)) > bestPrediction) {
+                    best = second;
+                    bestPrediction = prediction;
+                }
+            }
+        }
+
+        copyGenes (best, offspring);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the pool of individuals used by breed, making it bigger if needed.
+     * @param size Minimum number of individuals.
+     * @return Pool of individuals.
+     */
+    private Individual [] offspringPool (int size) {
+        if (offspringPool == null || offspringPool.length < size) {
+            Individual pool [] = new Individual [size];
+
+            int kept = (offspringPool == null) ? 0 : offspringPool.length;
+            for (int i = 0; i < size; ++i) {
+                pool [i] = (i < kept) ? offspringPool [i] : factory.create (false);
+            }
+
+            offspringPool = pool;
+        }
+
+        return offspringPool;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the spare population, where the next generation must be written before
+     * calling swapPopulations. Its individuals are recycled every generation
+     * (they are only created the first time, or if the size of the population
+     * changes), so they never belong to the current population.
+     * @return Spare population.
+     */
+    protected Individual [] sparePopulation () {
+        if (spare == null || spare.length != population.length) {
+            spare = new Individual [population.length];
+
+            for (int i = 0; i < spare.length; ++i) {
+                spare [i] = factory.create (false);
+            }
+        }
+
+        return spare;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The spare population (with the new generation) becomes the current one, and
+     * the current one becomes the spare population.
+     */
+    protected void swapPopulations () {
+        Individual aux [] = population;
+        population = spare;
+        spare = aux;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Copy the chromosome values of an individual into another one.
+     * @param source Individual to be copied.
+     * @param destination Individual whose genes are overwritten.
+     */
+    protected static void copyGenes (Individual source, Individual destination) {
+        for (int k = 0; k < source.chromosomeSize (); ++k) {
+            destination.setGene (k, source.getGene (k));
+        }
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Selection is meant to implement the selection phase of a given genetic algorithm.
      * NOTE that it has to contain the rest of the phases (crossover, mutation etc) because
@@ -126,33 +812,66 @@ public abstract class GeneticAlg {
     /**
      * Mutation phase.
      * Given a probability of mutation and the rate of mutation, this function
-     * mutates the chromosome of a given individual accordingly.
+     * mutates the chromosome of a given individual accordingly (@see MutationKernel).
      * @param offspring Individual that is going to suffer mutations.
      * @param chance Probability of mutation.
-     * @param rate Rate of mutation. The number MUST BE between 0 and 1. For example
-     * if "rate == 0.1", each gene that mutates, will mutate its value in + - 10%
-     * of its original value.
+     * @param rate Rate of mutation. The number MUST BE between 0 and 1. If the
+     * individual has a schema (@see GeneSchema), each gene that mutates moves up
+     * to "rate" of its range (at least one step) and the chromosome is repaired
+     * afterwards. Otherwise, if "rate == 0.1", each gene that mutates, will mutate
+     * its value in + - 10% of its original value (at least 1).
      */
     public void mutation (Individual offspring, double chance, double rate) {
-        for (int locus = 0; locus < chromosomeSize; ++locus) {
-            double probability = Math.random ();
+        mutationKernel (chance, rate).mutate (offspring);
+    }
 
-            if (probability < chance) {
-                if (Math.random () < 0.5) {
-                    offspring.setGene (locus, offspring.getGene (locus) + (int) (rate * offspring.getGene (locus)));
-                }
-                else {
-                    int res = offspring.getGene (locus) - (int) (rate * offspring.getGene (locus));
+    //__________________________________________________________________________
 
-                    // Avoid negative gene values
-                    if (res < 0) {
-                        offspring.setGene (locus, 0);
-                    }
-                    else {
-                        offspring.setGene (locus, res);
-                    }
-                }
+    /**
+     * Get the mutation engine for a probability and a rate of mutation. The engine
+     * is only created again when they change.
+     * @param chance Probability of mutation.
+     * @param rate Rate of mutation.
+     * @return Mutation engine.
+     */
+    protected MutationKernel mutationKernel (double chance, double rate) {
+        if (mutationKernel == null || mutationKernel.getChance () != chance
+            || mutationKernel.getRate () != rate || mutationKernel.getType () != mutationType) {
+            mutationKernel = new MutationKernel (mutationType, chance, rate);
+        }
+
+        return mutationKernel;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a copy of the algorithm that can be stored (@see store) in another
+     * thread while this one keeps running. The population (chromosomes and stats)
+     * and the position of the evaluation are copied. The derived classes that
+     * store anything else must override it to copy that information too.
+     * @return Copy of the algorithm, only meant to be stored.
+     */
+    public GeneticAlg snapshot () {
+        try {
+            GeneticAlg copy = (GeneticAlg) clone ();
+
+            copy.population = new Individual [population.length];
+            for (int i = 0; i < population.length; ++i) {
+                copy.population [i] = population [i].copy ();
             }
+
+            // The copy doesn't breed, it mustn't share the recycled individuals
+            copy.spare = null;
+            copy.offspringPool = null;
+            copy.pendingSibling = false;
+            copy.migrationChannel = null;
+
+            return copy;
+        }
+        catch (CloneNotSupportedException e) {
+            // It can't happen, GeneticAlg is Cloneable
+            throw new IllegalStateException (e);
         }
     }
 
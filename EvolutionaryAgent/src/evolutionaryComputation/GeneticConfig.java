@@ -0,0 +1,863 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.MutationType;
+import enumTypes.RestartType;
+import enumTypes.TopologyType;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+
+/**
+ * This class gathers every parameter of a genetic algorithm, so the algorithm
+ * can be scaled (population size, generations...) or changed (selection,
+ * crossover, fitness...) without editing the code. Each setter returns the
+ * configuration itself so they can be chained:
+ *
+ *     new DeterministicGenetic (new GeneticConfig ().setPopulationSize (100)
+ *                                                   .setGenerations (200), memory);
+ *
+ * The parameters can also be read from a properties file (@see load). Those
+ * parameters that aren't set keep their default values, which reproduce the
+ * original configuration of the T800 (50 generations of 30 individuals).
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class GeneticConfig {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of generations to be executed */
+    private int generations = 50;
+    /** Number of individuals per generation */
+    private int populationSize = 30;
+    /** Number of best individuals that survive to the next generation */
+    private int elitism = 4;
+    /** Number of random individuals added to each generation */
+    private int immigrants = 4;
+    /** Fraction of each generation made up of random individuals. It replaces
+     the number of immigrants when it isn't negative */
+    private double immigrantRatio = -1;
+    /** Number of matches each individual has to play */
+    private int matches = 1;
+    /** Significance level of the race used to drop the worst individuals before
+     they play every match (@see FRace). If it is negative, there is no race */
+    private double racing = -1;
+    /** Number of matches each individual plays before it can be dropped from the race */
+    private int racingMinMatches = 3;
+    /** Maximum number of chromosomes whose results are cached (0 to disable the cache) */
+    private int cache = 0;
+    /** Number of matches a chromosome has to play before its cached results are
+     reused. If it is negative, the number of matches per individual is used */
+    private int cacheReuseAfter = -1;
+    /** Model used to predict the fitness of the offspring (null if there isn't any) */
+    private SurrogateModel surrogate = null;
+    /** Number of candidates generated per offspring when there is a surrogate model */
+    private int screening = 4;
+    /** Initial step size of CMA-ES (relative to the range of each gene) */
+    private double stepSize = 0.3;
+    /** Restart policy of CMA-ES */
+    private RestartType restarts = RestartType.IPOP;
+    /** Probability of mutation of each gene. If it is negative, 1 / chromosome size is used */
+    private double mutationChance = -1;
+    /** Rate of mutation (@see GeneticAlg.mutation) */
+    private double mutationRate = 0.1;
+    /** How the genes change when they mutate */
+    private MutationType mutationType = MutationType.PROPORTIONAL;
+    /** Crossover technique */
+    private CrossoverType crossover = new UniformCrossover ();
+    /** True if each crossover produces two children */
+    private boolean twoChildren = false;
+    /** Selection technique (if null, the algorithm uses its own default technique) */
+    private SelectionOperator selection = null;
+    /** Fitness function (if null, the algorithm uses its own default function) */
+    private FitnessFunction fitness = null;
+    /** Individual whose kind of chromosome is used (IndividualV1 if it is null) */
+    private Individual prototype = null;
+    /** Channel used to exchange migrants with other islands (null if there isn't migration) */
+    private MigrationChannel migrationChannel = null;
+    /** Number of generations between migrations */
+    private int migrationInterval = 5;
+    /** Number of chromosomes sent to each neighbour on each migration */
+    private int migrants = 2;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Reads the parameters from a properties file. The keys are named after the
+     * setters: generations, populationSize, elitism, immigrants, immigrantRatio,
+     * matches, racing, racingMinMatches, cache, cacheReuseAfter, surrogate (knn[:neighbours] or class
+     * name), screening, stepSize, restarts (none, ipop or bipop), mutationChance,
+     * mutationRate, mutationType (proportional, gaussian or uniform), crossover
+     * (onepoint, twopoint, uniform[:bias], blend[:alpha], sbx[:eta] or class name),
+     * twoChildren, selection (roulette, sus, tournament:size or rank:pressure), fitness (nonlinear,
+     * proportional or class name), individual (class name, it must have a
+     * constructor like IndividualV1 (boolean, FitnessFunction)) and migration
+     * (file:directory or socket:basePort, @see Island), which also reads island,
+     * islands, topology (ring or fully_connected), migrationInterval and migrants.
+     * @param file Properties file.
+     * @return This configuration.
+     * @throws IOException If the file can't be read.
+     * @throws IllegalArgumentException If a value isn't valid.
+     */
+    public GeneticConfig load (File file) throws IOException {
+        Properties properties = new Properties ();
+
+        InputStream in = new FileInputStream (file);
+        try {
+            properties.load (in);
+        }
+        finally {
+            in.close ();
+        }
+
+        return load (properties);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Reads the parameters from a set of properties (@see load (File)).
+     * @param properties Parameters to be read.
+     * @return This configuration.
+     * @throws IllegalArgumentException If a value isn't valid.
+     */
+    public GeneticConfig load (Properties properties) {
+        String value;
+
+        if ((value = properties.getProperty ("generations")) != null) {
+            setGenerations (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("populationSize")) != null) {
+            setPopulationSize (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("elitism")) != null) {
+            setElitism (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("immigrants")) != null) {
+            setImmigrants (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("immigrantRatio")) != null) {
+            setImmigrantRatio (Double.parseDouble (value.trim ()));
+        }
+        if ((value = properties.getProperty ("matches")) != null) {
+            setMatches (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("racing")) != null) {
+            setRacing (Double.parseDouble (value.trim ()));
+        }
+        if ((value = properties.getProperty ("racingMinMatches")) != null) {
+            setRacingMinMatches (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("cache")) != null) {
+            setCache (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("cacheReuseAfter")) != null) {
+            setCacheReuseAfter (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("surrogate")) != null) {
+            setSurrogate (parseSurrogate (value.trim ()));
+        }
+        if ((value = properties.getProperty ("screening")) != null) {
+            setScreening (Integer.parseInt (value.trim ()));
+        }
+        if ((value = properties.getProperty ("stepSize")) != null) {
+            setStepSize (Double.parseDouble (value.trim ()));
+        }
+        if ((value = properties.getProperty ("restarts")) != null) {
+            try {
+                setRestarts (RestartType.valueOf (value.trim ().toUpperCase ()));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException ("Unknown restart policy: " + value, e);
+            }
+        }
+        if ((value = properties.getProperty ("mutationChance")) != null) {
+            setMutationChance (Double.parseDouble (value.trim ()));
+        }
+        if ((value = properties.getProperty ("mutationRate")) != null) {
+            setMutationRate (Double.parseDouble (value.trim ()));
+        }
+        if ((value = properties.getProperty ("mutationType")) != null) {
+            try {
+                setMutationType (MutationType.valueOf (value.trim ().toUpperCase ()));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException ("Unknown mutation type: " + value, e);
+            }
+        }
+        if ((value = properties.getProperty ("crossover")) != null) {
+            setCrossover (parseCrossover (value.trim ()));
+        }
+        if ((value = properties.getProperty ("twoChildren")) != null) {
+            setTwoChildren (Boolean.parseBoolean (value.trim ()));
+        }
+        if ((value = properties.getProperty ("selection")) != null) {
+            setSelection (parseSelection (value.trim ()));
+        }
+        if ((value = properties.getProperty ("fitness")) != null) {
+            setFitness (parseFitness (value.trim ()));
+        }
+        if ((value = properties.getProperty ("individual")) != null) {
+            setIndividual (parseIndividual (value.trim ()));
+        }
+        if ((value = properties.getProperty ("migration")) != null) {
+            int interval = Integer.parseInt (properties.getProperty ("migrationInterval", "" + migrationInterval).trim ());
+            int count = Integer.parseInt (properties.getProperty ("migrants", "" + migrants).trim ());
+
+            setMigration (parseMigration (value.trim (), properties), interval, count);
+        }
+
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates the factory of the individuals of the algorithm.
+     * @param defaultFitness Fitness function used if none has been set.
+     * @return Factory of the individuals.
+     */
+    public IndividualFactory factory (FitnessFunction defaultFitness) {
+        FitnessFunction function = (fitness != null) ? fitness : defaultFitness;
+        Individual kind = (prototype != null) ? prototype : new IndividualV1 (false, function);
+
+        return new IndividualFactory (kind, function);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates the race used to evaluate the individuals. The elite can't be
+     * dropped from it (at least, the best individual).
+     * @param function Function used to estimate the fitness of each match.
+     * @return The race, or null if racing is disabled.
+     */
+    public FRace race (FitnessFunction function) {
+        if (racing < 0) {
+            return null;
+        }
+
+        return new FRace (function, racing, racingMinMatches, Math.max (1, getElitism ()));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates the cache of the results of each chromosome.
+     * @return The cache, or null if it is disabled.
+     */
+    public FitnessCache cache () {
+        if (cache <= 0) {
+            return null;
+        }
+
+        return new FitnessCache (cache, (cacheReuseAfter > 0) ? cacheReuseAfter : Math.max (1, matches));
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of generations to be executed */
+    public GeneticConfig setGenerations (int generations) {
+        this.generations = generations;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of generations to be executed */
+    public int getGenerations () {
+        return generations;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of individuals per generation */
+    public GeneticConfig setPopulationSize (int populationSize) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException ("The population must have at least 2 individuals");
+        }
+
+        this.populationSize = populationSize;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of individuals per generation */
+    public int getPopulationSize () {
+        return populationSize;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of best individuals that survive to the next generation */
+    public GeneticConfig setElitism (int elitism) {
+        this.elitism = elitism;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of best individuals that survive to the next generation */
+    public int getElitism () {
+        return Math.max (0, Math.min (elitism, populationSize));
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of random individuals added to each generation */
+    public GeneticConfig setImmigrants (int immigrants) {
+        this.immigrants = immigrants;
+        immigrantRatio = -1;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the fraction (between 0 and 1) of each generation made up of random individuals */
+    public GeneticConfig setImmigrantRatio (double immigrantRatio) {
+        if (immigrantRatio < 0 || immigrantRatio > 1) {
+            throw new IllegalArgumentException ("The immigrant ratio must be between 0 and 1");
+        }
+
+        this.immigrantRatio = immigrantRatio;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the number of random individuals added to each generation. They never
+     * take the place of the elite.
+     */
+    public int getImmigrants () {
+        int count = (immigrantRatio >= 0) ? (int) Math.round (immigrantRatio * populationSize) : immigrants;
+        return Math.max (0, Math.min (count, populationSize - getElitism ()));
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of matches each individual has to play */
+    public GeneticConfig setMatches (int matches) {
+        this.matches = matches;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of matches each individual has to play */
+    public int getMatches () {
+        return matches;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the significance level (between 0 and 1, usually 0.05) of the race.
+     * Negative to disable it.
+     */
+    public GeneticConfig setRacing (double racing) {
+        if (racing >= 1 || racing == 0) {
+            throw new IllegalArgumentException ("The significance level of the race must be between 0 and 1");
+        }
+
+        this.racing = racing;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of matches each individual plays before it can be dropped from the race */
+    public GeneticConfig setRacingMinMatches (int racingMinMatches) {
+        this.racingMinMatches = racingMinMatches;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the maximum number of chromosomes whose results are cached (0 to disable the cache) */
+    public GeneticConfig setCache (int cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the number of matches a chromosome has to play before its cached
+     * results are reused (negative to use the number of matches per individual).
+     */
+    public GeneticConfig setCacheReuseAfter (int cacheReuseAfter) {
+        this.cacheReuseAfter = cacheReuseAfter;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the model used to predict the fitness of the offspring (null to evaluate every offspring) */
+    public GeneticConfig setSurrogate (SurrogateModel surrogate) {
+        this.surrogate = surrogate;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the model used to predict the fitness of the offspring (null if there isn't any) */
+    public SurrogateModel getSurrogate () {
+        return surrogate;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the number of candidates generated per offspring when there is a
+     * surrogate model. Only the one with the best predicted fitness is evaluated.
+     */
+    public GeneticConfig setScreening (int screening) {
+        if (screening < 1) {
+            throw new IllegalArgumentException ("At least one candidate must be generated per offspring");
+        }
+
+        this.screening = screening;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of candidates generated per offspring when there is a surrogate model */
+    public int getScreening () {
+        return screening;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the initial step size of CMA-ES (relative to the range of each gene, between 0 and 1) */
+    public GeneticConfig setStepSize (double stepSize) {
+        if (stepSize <= 0 || stepSize > 1) {
+            throw new IllegalArgumentException ("The step size must be between 0 and 1");
+        }
+
+        this.stepSize = stepSize;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the initial step size of CMA-ES */
+    public double getStepSize () {
+        return stepSize;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the restart policy of CMA-ES */
+    public GeneticConfig setRestarts (RestartType restarts) {
+        this.restarts = restarts;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the restart policy of CMA-ES */
+    public RestartType getRestarts () {
+        return restarts;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the probability of mutation of each gene (negative for 1 / chromosome size) */
+    public GeneticConfig setMutationChance (double mutationChance) {
+        this.mutationChance = mutationChance;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the probability of mutation of each gene.
+     * @param chromosomeSize Size of the chromosome.
+     * @return Probability of mutation.
+     */
+    public double getMutationChance (int chromosomeSize) {
+        return (mutationChance >= 0) ? mutationChance : 1.0 / chromosomeSize;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the rate of mutation */
+    public GeneticConfig setMutationRate (double mutationRate) {
+        this.mutationRate = mutationRate;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the rate of mutation */
+    public double getMutationRate () {
+        return mutationRate;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set how the genes change when they mutate */
+    public GeneticConfig setMutationType (MutationType mutationType) {
+        this.mutationType = mutationType;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get how the genes change when they mutate */
+    public MutationType getMutationType () {
+        return mutationType;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the crossover technique */
+    public GeneticConfig setCrossover (CrossoverType crossover) {
+        this.crossover = crossover;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set whether each crossover produces two children */
+    public GeneticConfig setTwoChildren (boolean twoChildren) {
+        this.twoChildren = twoChildren;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get whether each crossover produces two children */
+    public boolean getTwoChildren () {
+        return twoChildren;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the crossover technique */
+    public CrossoverType getCrossover () {
+        return crossover;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the selection technique (null to use the default one of the algorithm) */
+    public GeneticConfig setSelection (SelectionOperator selection) {
+        this.selection = selection;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the selection technique (null if the default one has to be used) */
+    public SelectionOperator getSelection () {
+        return selection;
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the fitness function (null to use the default one of the algorithm) */
+    public GeneticConfig setFitness (FitnessFunction fitness) {
+        this.fitness = fitness;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the kind of individual.
+     * @param prototype Individual whose kind of chromosome is used (null for IndividualV1).
+     * @return This configuration.
+     */
+    public GeneticConfig setIndividual (Individual prototype) {
+        this.prototype = prototype;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the migration of the island model. Every algorithm built with this
+     * configuration exchanges chromosomes with the other islands at the end of
+     * each interval of generations (@see GeneticAlg.nextGeneration).
+     * @param channel Channel used to exchange the migrants (null to disable migration).
+     * @param interval Number of generations between migrations. If it is 0 or
+     * less, migration is disabled.
+     * @param migrants Number of chromosomes (the best ones) sent to each neighbour
+     * on each migration.
+     * @return This configuration.
+     */
+    public GeneticConfig setMigration (MigrationChannel channel, int interval, int migrants) {
+        this.migrationChannel = channel;
+        this.migrationInterval = interval;
+        this.migrants = migrants;
+        return this;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the channel used to exchange migrants (null if there isn't migration) */
+    public MigrationChannel getMigrationChannel () {
+        return migrationChannel;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of generations between migrations */
+    public int getMigrationInterval () {
+        return migrationInterval;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of chromosomes sent to each neighbour on each migration */
+    public int getMigrants () {
+        return migrants;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Parses a selection technique.
+     * @param value roulette, sus, tournament[:size] or rank[:pressure].
+     * @return Selection technique.
+     */
+    private static SelectionOperator parseSelection (String value) {
+        String name = value;
+        String argument = null;
+
+        int colon = value.indexOf (':');
+        if (colon >= 0) {
+            name = value.substring (0, colon).trim ();
+            argument = value.substring (colon + 1).trim ();
+        }
+
+        if (name.equalsIgnoreCase ("roulette")) {
+            return new RouletteSelection ();
+        }
+        else if (name.equalsIgnoreCase ("sus")) {
+            return new StochasticUniversalSampling ();
+        }
+        else if (name.equalsIgnoreCase ("tournament")) {
+            return new TournamentSelection ((argument != null) ? Integer.parseInt (argument) : 3);
+        }
+        else if (name.equalsIgnoreCase ("rank")) {
+            return new RankSelection ((argument != null) ? Double.parseDouble (argument) : 1.5);
+        }
+
+        throw new IllegalArgumentException ("Unknown selection technique: " + value);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Parses a crossover technique.
+     * @param value onepoint, twopoint, uniform[:bias], blend[:alpha], sbx[:eta] or
+     * the name of a CrossoverType class.
+     * @return Crossover technique.
+     */
+    private static CrossoverType parseCrossover (String value) {
+        String name = value;
+        String argument = null;
+
+        int colon = value.indexOf (':');
+        if (colon >= 0) {
+            name = value.substring (0, colon).trim ();
+            argument = value.substring (colon + 1).trim ();
+        }
+
+        if (name.equalsIgnoreCase ("onepoint")) {
+            return new OnePointCrossover ();
+        }
+        else if (name.equalsIgnoreCase ("twopoint")) {
+            return new TwoPointCrossover ();
+        }
+        else if (name.equalsIgnoreCase ("uniform")) {
+            return new UniformCrossover ((argument != null) ? Double.parseDouble (argument) : 0.5);
+        }
+        else if (name.equalsIgnoreCase ("blend")) {
+            return new BlendCrossover ((argument != null) ? Double.parseDouble (argument) : 0.5);
+        }
+        else if (name.equalsIgnoreCase ("sbx")) {
+            return new SimulatedBinaryCrossover ((argument != null) ? Double.parseDouble (argument) : 2);
+        }
+
+        return instantiate (value, CrossoverType.class);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Parses a migration channel. The number of the island, the total number of
+     * islands and the topology are read from the island, islands and topology
+     * properties (0, 1 and ring by default).
+     * @param value file:directory or socket:basePort.
+     * @param properties Parameters where the rest of the channel is read.
+     * @return Migration channel.
+     */
+    private static MigrationChannel parseMigration (String value, Properties properties) {
+        int island = Integer.parseInt (properties.getProperty ("island", "0").trim ());
+        int islands = Integer.parseInt (properties.getProperty ("islands", "1").trim ());
+
+        TopologyType topology;
+        try {
+            topology = TopologyType.valueOf (properties.getProperty ("topology", "ring").trim ().toUpperCase ());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException ("Unknown topology: " + properties.getProperty ("topology"), e);
+        }
+
+        if (island < 0 || island >= islands) {
+            throw new IllegalArgumentException ("The island must be between 0 and " + (islands - 1));
+        }
+
+        int colon = value.indexOf (':');
+        if (colon < 0) {
+            throw new IllegalArgumentException ("Unknown migration channel: " + value);
+        }
+
+        String name = value.substring (0, colon).trim ();
+        String argument = value.substring (colon + 1).trim ();
+
+        if (name.equalsIgnoreCase ("file")) {
+            return new FileMigration (island, islands, topology, new File (argument));
+        }
+        else if (name.equalsIgnoreCase ("socket")) {
+            try {
+                return new SocketMigration (island, islands, topology, Integer.parseInt (argument));
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException ("Can't open the migration channel: " + value, e);
+            }
+        }
+
+        throw new IllegalArgumentException ("Unknown migration channel: " + value);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Parses a surrogate model.
+     * @param value knn[:neighbours] or the name of a SurrogateModel class.
+     * @return Surrogate model.
+     */
+    private static SurrogateModel parseSurrogate (String value) {
+        if (value.toLowerCase ().startsWith ("knn")) {
+            int colon = value.indexOf (':');
+            int neighbours = (colon >= 0) ? Integer.parseInt (value.substring (colon + 1).trim ()) : 5;
+
+            return new NearestNeighbourSurrogate (neighbours, 1000);
+        }
+
+        return instantiate (value, SurrogateModel.class);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Parses a fitness function.
+     * @param value nonlinear, proportional or the name of a FitnessFunction class.
+     * @return Fitness function.
+     */
+    private static FitnessFunction parseFitness (String value) {
+        if (value.equalsIgnoreCase ("nonlinear")) {
+            return new NonLinearFitness ();
+        }
+        else if (value.equalsIgnoreCase ("proportional")) {
+            return new ProportionalFitness ();
+        }
+
+        return instantiate (value, FitnessFunction.class);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an individual of the given class (without random genes).
+     * @param value Name of the class (the package can be omitted).
+     * @return Individual of the given class.
+     */
+    private Individual parseIndividual (String value) {
+        FitnessFunction function = (fitness != null) ? fitness : new NonLinearFitness ();
+
+        try {
+            return (Individual) classFor (value).getConstructor (boolean.class, FitnessFunction.class).newInstance (false, function);
+        }
+        catch (Exception e) {
+            throw new IllegalArgumentException ("Invalid individual: " + value, e);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an object of the given class using its default constructor.
+     * @param value Name of the class (the package can be omitted).
+     * @param type Type the object must be of.
+     * @return New object.
+     * @throws IllegalArgumentException If the object can't be created or it isn't
+     * of the given type.
+     */
+    private static <T> T instantiate (String value, Class <T> type) {
+        Object instance;
+
+        try {
+            instance = classFor (value).getConstructor ().newInstance ();
+        }
+        catch (Exception e) {
+            throw new IllegalArgumentException ("Invalid class: " + value, e);
+        }
+
+        if (!type.isInstance (instance)) {
+            throw new IllegalArgumentException ("Invalid class: " + value + " isn't a " + type.getSimpleName ());
+        }
+
+        return type.cast (instance);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Looks for a class, in this package if the package is omitted.
+     * @param value Name of the class.
+     * @return The class.
+     * @throws ClassNotFoundException If the class doesn't exist.
+     */
+    private static Class <?> classFor (String value) throws ClassNotFoundException {
+        if (value.indexOf ('.') < 0) {
+            value = GeneticConfig.class.getPackage ().getName () + "." + value;
+        }
+
+        return Class.forName (value);
+    }
+}
@@ -23,7 +23,7 @@ package evolutionaryComputation;
  */
 
 
-public abstract class Individual {
+public abstract class Individual implements Cloneable {
 
     // *************************************************************************
     //                             INSTANCE FIELDS
@@ -55,6 +55,17 @@ public abstract class Individual {
 
     //__________________________________________________________________________
 
+    /**
+     * Argument based constructor.
+     * @param nGenes Size of the chromosome.
+     * @param function Function used to estimate the fitness of the individual.
+     */
+    public Individual (int nGenes, FitnessFunction function) {
+        this (nGenes, new IndividualStats (function));
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Set the value of a gene.
      * @param locus Position in the chromosome.
@@ -84,11 +95,76 @@ public abstract class Individual {
 
     //__________________________________________________________________________
 
+    /**
+     * Get the array where the genes are stored, so they can be mutated without
+     * calling getGene and setGene (@see MutationKernel).
+     * @return Array that contains the chromosome (starting at geneOffset).
+     */
+    int [] genes () {
+        return chromosome;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the position of the first gene in the array returned by genes */
+    int geneOffset () {
+        return 0;
+    }
+
+    //__________________________________________________________________________
+
     /** Create an individual with random genes */
     public abstract void createRandomIndividual ();
 
     //__________________________________________________________________________
 
+    /**
+     * Get the schema of the chromosome (types, bounds and constraints of the genes).
+     * The derived classes whose genes are bounded must override it (by default
+     * there is no schema and genes aren't bounded).
+     * @return Schema of the chromosome or null.
+     */
+    public GeneSchema schema () {
+        return null;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the lowest value a gene can take.
+     * @param locus Position of the gene in the chromosome.
+     * @return Lowest value of the gene.
+     */
+    public int minGeneValue (int locus) {
+        GeneSchema schema = schema ();
+        return schema == null ? Integer.MIN_VALUE : schema.getMin (locus);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the highest value a gene can take.
+     * @param locus Position of the gene in the chromosome.
+     * @return Highest value of the gene.
+     */
+    public int maxGeneValue (int locus) {
+        GeneSchema schema = schema ();
+        return schema == null ? Integer.MAX_VALUE : schema.getMax (locus);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Fixes the chromosome so it satisfies its schema (if there is any).
+     * @return True if any gene had to be changed.
+     */
+    public boolean repair () {
+        GeneSchema schema = schema ();
+        return schema != null && schema.repair (this);
+    }
+
+    //__________________________________________________________________________
+
     /** Estimate fitness */
     public double fitness () {
         return stats.fitness ();
@@ -195,6 +271,43 @@ public abstract class Individual {
 
     //__________________________________________________________________________
 
+    /**
+     * Adds the stats of another individual (usually a copy of this one that has
+     * been put to the test) to this individual's stats.
+     * @param other Individual whose stats are going to be added.
+     */
+    public void addStats (Individual other) {
+        // The getters are used (instead of the stats object) because the other
+        // individual can be a view of a PopulationMatrix
+        setKills (getKills () + other.getKills ());
+        setDeaths (getDeaths () + other.getDeaths ());
+        setTotalDamageGiven (getTotalDamageGiven () + other.getTotalDamageGiven ());
+        setTotalDamageTaken (getTotalDamageTaken () + other.getTotalDamageTaken ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an independent copy of the individual (chromosome and stats), so it
+     * can be evaluated without interfering with the original.
+     * @return A copy of the individual.
+     */
+    public Individual copy () {
+        try {
+            Individual copy = (Individual) clone ();
+            copy.chromosome = chromosome.clone ();
+            copy.stats = stats.copy ();
+
+            return copy;
+        }
+        catch (CloneNotSupportedException e) {
+            // It can't happen, Individual is Cloneable
+            throw new IllegalStateException (e);
+        }
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Resets the individual's temporary information about the match
      */
@@ -0,0 +1,90 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class creates the individuals of a population. Every individual is of the
+ * same kind as a prototype and uses the same fitness function, so a genetic
+ * algorithm can work with any kind of chromosome without knowing it.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class IndividualFactory {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Individual whose kind of chromosome is used */
+    private final Individual prototype;
+    /** Function used to estimate the fitness of the individuals */
+    private final FitnessFunction function;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. The individuals use the fitness function of the
+     * prototype.
+     * @param prototype Individual whose kind of chromosome is used.
+     */
+    public IndividualFactory (Individual prototype) {
+        this (prototype, prototype.stats.getFitnessFunction ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param prototype Individual whose kind of chromosome is used.
+     * @param function Function used to estimate the fitness of the individuals.
+     */
+    public IndividualFactory (Individual prototype, FitnessFunction function) {
+        this.prototype = prototype;
+        this.function = function;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a new individual with its stats set to 0.
+     * @param initialize True if we want to generate random gene values.
+     * @return A new individual.
+     */
+    public Individual create (boolean initialize) {
+        Individual individual = prototype.copy ();
+        individual.stats = new IndividualStats (function);
+
+        if (initialize) {
+            individual.createRandomIndividual ();
+        }
+
+        return individual;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the function used to estimate the fitness of the individuals */
+    public FitnessFunction getFitnessFunction () {
+        return function;
+    }
+}
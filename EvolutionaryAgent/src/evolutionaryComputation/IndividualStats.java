@@ -17,8 +17,8 @@ package evolutionaryComputation;
 
 /**
  * This class should contain statistics about an individual's match. That information
- * is to be used to estimate the fitness. Each derived class must implement a new
- * fitness function.
+ * is to be used to estimate the fitness through a fitness function (@see FitnessFunction).
+ * The fitness is only estimated again when the stats change.
  *
  * @author Francisco Aisa Garcia
  */
@@ -26,10 +26,8 @@ package evolutionaryComputation;
 /*
  * Although this class stores some other additional info, it's main purpose is to
  * facilitate trials with different fitness and invididuals (different chromosomes).
- * That is the main reason why the derived classes should have names of fitness techniques
- * (to allow clients to know rapidly which kind of fitness they are using).
  */
-public abstract class IndividualStats {
+public class IndividualStats implements Cloneable {
 
     // *************************************************************************
     //                             INSTANCE FIELDS
@@ -44,6 +42,12 @@ public abstract class IndividualStats {
     protected int totalDamageGiven;
     /** Total amount of damage the individual has received from the enemy */
     protected int totalDamageTaken;
+    /** Function used to estimate the fitness */
+    protected final FitnessFunction function;
+    /** Last fitness estimated */
+    private double fitness;
+    /** True if the stats have changed since the last time the fitness was estimated */
+    private boolean dirty;
 
 
     // *************************************************************************
@@ -53,15 +57,42 @@ public abstract class IndividualStats {
     /**
      * Initialize all stats to 0 (although this is done by java, we've done it
      * explicitly for the sake of simplicity.
+     * @param function Function used to estimate the fitness.
      */
-    IndividualStats () {
+    public IndividualStats (FitnessFunction function) {
         kills = deaths = totalDamageGiven = totalDamageTaken = 0;
+        this.function = function;
+        dirty = true;
     }
 
     //__________________________________________________________________________
 
-    /** Estimate fitness */
-    public abstract double fitness ();
+    /** Estimate fitness (only if the stats have changed since the last time) */
+    public double fitness () {
+        if (dirty) {
+            fitness = function.fitness (kills, deaths, totalDamageGiven, totalDamageTaken);
+            dirty = false;
+        }
+
+        return fitness;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the function used to estimate the fitness */
+    public FitnessFunction getFitnessFunction () {
+        return function;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Forces the fitness to be estimated again. It must be executed by any derived
+     * class that modifies the stats directly.
+     */
+    protected void invalidate () {
+        dirty = true;
+    }
 
     //__________________________________________________________________________
 
@@ -71,6 +102,7 @@ public abstract class IndividualStats {
      */
     public void incrementDamageGiven (int amount) {
         totalDamageGiven = totalDamageGiven + amount;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -81,6 +113,7 @@ public abstract class IndividualStats {
      */
     public void incrementDamageTaken (int amount) {
         totalDamageTaken = totalDamageTaken + amount;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -88,6 +121,7 @@ public abstract class IndividualStats {
     /** Increment the number of kills */
     public void incrementKills () {
         kills = kills + 1;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -95,6 +129,7 @@ public abstract class IndividualStats {
     /** Increment the number of deaths */
     public void incrementDeaths () {
         deaths = deaths + 1;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -132,6 +167,37 @@ public abstract class IndividualStats {
      */
     public void reset () {
         kills = deaths = totalDamageGiven = totalDamageTaken = 0;
+        dirty = true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds the stats of another match (or set of matches) to these stats.
+     * @param other Stats to be added.
+     */
+    public void add (IndividualStats other) {
+        kills = kills + other.kills;
+        deaths = deaths + other.deaths;
+        totalDamageGiven = totalDamageGiven + other.totalDamageGiven;
+        totalDamageTaken = totalDamageTaken + other.totalDamageTaken;
+        dirty = true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an independent copy of these stats (sharing the fitness function).
+     * @return A copy of the stats.
+     */
+    public IndividualStats copy () {
+        try {
+            return (IndividualStats) clone ();
+        }
+        catch (CloneNotSupportedException e) {
+            // It can't happen, IndividualStats is Cloneable
+            throw new IllegalStateException (e);
+        }
     }
 
     //__________________________________________________________________________
@@ -142,6 +208,7 @@ public abstract class IndividualStats {
      */
     void setTotalDamageTaken (int damage) {
         totalDamageTaken = damage;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -152,6 +219,7 @@ public abstract class IndividualStats {
      */
     void setTotalDamageGiven (int damage) {
         totalDamageGiven = damage;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -162,6 +230,7 @@ public abstract class IndividualStats {
      */
     void setKills (int kills) {
         this.kills = kills;
+        dirty = true;
     }
 
     //__________________________________________________________________________
@@ -169,5 +238,6 @@ public abstract class IndividualStats {
     /** Set the number of the deaths, it ONLY should be used by the DB */
     void setDeaths (int deaths) {
         this.deaths = deaths;
+        dirty = true;
     }
 }
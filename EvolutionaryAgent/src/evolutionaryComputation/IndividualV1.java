@@ -28,6 +28,31 @@ import utilities.Arithmetic;
 
 public class IndividualV1 extends Individual {
 
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Bounds and constraints of the chromosome */
+    private static final GeneSchema SCHEMA = new GeneSchema (26)
+        .setRange (0, 0, 0, 1200, 1)            // Distances
+        .setRange (1, 1, 0, 2000, 1)
+        .setRange (2, 2, 0, 2800, 1)
+        .setRange (3, 11, 0, 100, 1)            // Weapon choice
+        .setRange (12, 12, 0, 100, 1)           // Health
+        .setRange (13, 13, 0, 160, 1)
+        .setRange (14, 14, 5, 30, 1)            // Health risk
+        .setRange (15, 15, 15, 80, 1)
+        .setRange (16, 16, 15, 60, 1)
+        .setRange (17, 17, 10, 120, 1)
+        .setRange (18, 18, 20, 100, 1)
+        .setRange (19, 19, 3, 9, 1)             // Elapsed time
+        .setRange (20, 25, 0, 100, 1)           // Items priority
+        .addOrder (0, 1)                        // Close <= average <= far
+        .addOrder (1, 2)
+        .addOrder (12, 13);                     // Low health <= high health
+
+
     // *************************************************************************
     //                                METHODS
     // *************************************************************************
@@ -84,9 +109,17 @@ public class IndividualV1 extends Individual {
 
     //__________________________________________________________________________
 
+    /** Get the schema of the chromosome */
+    public GeneSchema schema () {
+        return SCHEMA;
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Argument based constructor.
      * @param initialize True if we want to generate random gene values.
+     * @param stats Stats of the individual.
      */
     public IndividualV1 (boolean initialize, IndividualStats stats) {
         super (26, stats);
@@ -95,4 +128,15 @@ public class IndividualV1 extends Individual {
             createRandomIndividual ();
         }
     }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param initialize True if we want to generate random gene values.
+     * @param function Function used to estimate the fitness of the individual.
+     */
+    public IndividualV1 (boolean initialize, FitnessFunction function) {
+        this (initialize, new IndividualStats (function));
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class implements a lightweight view of a row of a PopulationMatrix. It
+ * doesn't store anything but the position of the individual, every gene and stat
+ * is read from (and written to) the matrix.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class IndividualView extends Individual {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Matrix that contains the individual */
+    private final PopulationMatrix matrix;
+    /** Position of the individual in the matrix */
+    private final int row;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. The views are created by the matrix.
+     * @param matrix Matrix that contains the individual.
+     * @param row Position of the individual in the matrix.
+     */
+    IndividualView (PopulationMatrix matrix, int row) {
+        super (0, (IndividualStats) null);
+
+        this.matrix = matrix;
+        this.row = row;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the position of the individual in the matrix */
+    public int row () {
+        return row;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the value of a gene.
+     * @param locus Position in the chromosome.
+     * @param value Value to which we want to set the gene.
+     */
+    public void setGene (int locus, int value) {
+        matrix.setGene (row, locus, value);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the value of a chromosome's gene.
+     * @param locus Position of the gene in the chromosome.
+     * @return The gene's value.
+     */
+    public int getGene (int locus) {
+        return matrix.getGene (row, locus);
+    }
+
+    //__________________________________________________________________________
+
+    /** Chromosome's size */
+    public int chromosomeSize () {
+        return matrix.chromosomeSize ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the array where the genes of the matrix are stored */
+    int [] genes () {
+        return matrix.genes ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the position of the first gene of the individual in the matrix */
+    int geneOffset () {
+        return row * matrix.chromosomeSize ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the schema of the chromosome */
+    public GeneSchema schema () {
+        return matrix.getPrototype ().schema ();
+    }
+
+    //__________________________________________________________________________
+
+    /** Create an individual with random genes */
+    public void createRandomIndividual () {
+        matrix.randomize (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Estimate fitness */
+    public double fitness () {
+        return matrix.fitness (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Increment the number of kills */
+    public void incrementKills () {
+        matrix.setKills (row, matrix.getKills (row) + 1);
+    }
+
+    //__________________________________________________________________________
+
+    /** Increment the number of deaths */
+    public void incrementDeaths () {
+        matrix.setDeaths (row, matrix.getDeaths (row) + 1);
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of kills */
+    public int getKills () {
+        return matrix.getKills (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of kills */
+    public void setKills (int kills) {
+        matrix.setKills (row, kills);
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of the deaths */
+    public int getDeaths () {
+        return matrix.getDeaths (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of the deaths */
+    public void setDeaths (int deaths) {
+        matrix.setDeaths (row, deaths);
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the total amount of damage given */
+    public int getTotalDamageGiven () {
+        return matrix.getTotalDamageGiven (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the total amount of damage given */
+    public void setTotalDamageGiven (int damage) {
+        matrix.setTotalDamageGiven (row, damage);
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the total amount of damage taken */
+    public int getTotalDamageTaken () {
+        return matrix.getTotalDamageTaken (row);
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the total amount of damage taken */
+    public void setTotalDamageTaken (int damage) {
+        matrix.setTotalDamageTaken (row, damage);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Increment the total amount of damage given.
+     * @param amount Amount to be incremented.
+     */
+    public void incrementDamageGiven (int amount) {
+        matrix.setTotalDamageGiven (row, matrix.getTotalDamageGiven (row) + amount);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Increment the total amount of damage taken.
+     * @param amount Amount to be incremented.
+     */
+    public void incrementDamageTaken (int amount) {
+        matrix.setTotalDamageTaken (row, matrix.getTotalDamageTaken (row) + amount);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an independent individual (of the same kind as the prototype of the
+     * matrix) with the chromosome and the stats of this view.
+     * @return A copy of the individual.
+     */
+    public Individual copy () {
+        return matrix.detach (row);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Resets the individual's temporary information about the match
+     */
+    public void resetStats () {
+        matrix.reset (row);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import knowledge.Memoria;
+
+
+/**
+ * This class implements one island of an island model. Each island runs its own
+ * genetic algorithm (usually in its own process, with its own data base or
+ * map) and, every few generations, it sends copies of its best chromosomes to
+ * its neighbours and takes in the chromosomes they have sent. Small populations
+ * that evolve on their own keep their diversity, while migration spreads the
+ * good solutions among the islands.
+ *
+ * The migration itself is done by the nextGeneration method of the genetic
+ * algorithm, so an algorithm built with a configuration that has a migration
+ * channel (@see GeneticConfig.setMigration) is already an island. This class
+ * just turns an existing algorithm into an island.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class Island {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Genetic algorithm evolving the population of the island */
+    private final GeneticAlg geneticAlg;
+    /** Channel used to exchange the migrants */
+    private final MigrationChannel channel;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. From now on, the genetic algorithm migrates
+     * whenever its nextGeneration method is executed.
+     * @param geneticAlg Genetic algorithm evolving the population of the island.
+     * @param channel Channel used to exchange the migrants.
+     * @param interval Number of generations between migrations. If it is 0 or
+     * less, migration is disabled.
+     * @param migrants Number of chromosomes (the best ones) sent to each neighbour
+     * on each migration. It must be smaller than the size of the population.
+     */
+    public Island (GeneticAlg geneticAlg, MigrationChannel channel, int interval, int migrants) {
+        this.geneticAlg = geneticAlg;
+        this.channel = channel;
+
+        geneticAlg.setMigration (channel, interval, migrants);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the genetic algorithm evolving the population of the island.
+     * @return Genetic algorithm of the island.
+     */
+    public GeneticAlg getGeneticAlg () {
+        return geneticAlg;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It must be executed once every individual of the current generation has been
+     * evaluated. It is the same as the nextGeneration method of the genetic
+     * algorithm, which does the migration (@see GeneticAlg.nextGeneration).
+     * @param memory Data Base controller. It can be null.
+     */
+    public void nextGeneration (Memoria memory) {
+        geneticAlg.nextGeneration (memory);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Releases the resources used by the migration channel.
+     */
+    public void close () {
+        channel.close ();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import knowledge.Memoria;
+
+
+/**
+ * This class implements a genetic algorithm whose population is stored in two
+ * population matrices (@see PopulationMatrix). Each generation is bred from the
+ * front matrix into the back one and then they swap roles, so selection,
+ * crossover and mutation don't allocate anything, no matter how big the
+ * population is. The elite survives and the rest of the population is bred from
+ * parents chosen by the selection operator (tournament by default).
+ *
+ * The population array of the genetic algorithm holds the views of the front
+ * matrix, so the algorithm is used like any other one.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class MatrixGenetic extends GeneticAlg {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Number of individuals taking part in each tournament */
+    public static final int TOURNAMENT_SIZE = 3;
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Matrix holding the current generation */
+    private PopulationMatrix front;
+    /** Matrix where the next generation is bred */
+    private PopulationMatrix back;
+    /** Fitness of each individual of the current generation */
+    private final double fitness [];
+    /** Ranking of the current generation, used for elitism */
+    private final FitnessRanking ranking = new FitnessRanking ();
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * It initializes the genetic algorithm using the information stored in the
+     * data base. If there isn't any information available, it generates the first
+     * generation. Unless the configuration says otherwise, the individuals use a
+     * non linear fitness and the parents are chosen by tournament.
+     * @param config Parameters of the algorithm (the kind of individual sets the
+     * kind of chromosome of the matrices).
+     * @param memory Data Base controller. It can be null.
+     */
+    public MatrixGenetic (GeneticConfig config, Memoria memory) {
+        super (config, new NonLinearFitness ());
+
+        front = new PopulationMatrix (population.length, factory.create (false));
+        back = new PopulationMatrix (population.length, factory.create (false));
+        fitness = new double [population.length];
+
+        if (selectionOperator == null) {
+            selectionOperator = new TournamentSelection (TOURNAMENT_SIZE);
+        }
+
+        population = front.views ();
+        this.chromosomeSize = front.chromosomeSize ();
+
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        initialize (memory);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the matrix holding the current generation.
+     * @return Matrix of the current generation.
+     */
+    public PopulationMatrix matrix () {
+        return front;
+    }
+
+    //__________________________________________________________________________
+
+    /** Select the best Individuals for the next population, mate them and mutate them */
+    public void selection () {
+        front.fitness (fitness);
+        ranking.rank (fitness);
+        selectionOperator.prepare (fitness);
+
+        // Elitism, the best individuals survive
+        int elite = Math.min (elitism, fitness.length);
+        for (int row = 0; row < elite; ++row) {
+            back.copyRow (front, ranking.best (row), row);
+            back.reset (row);
+        }
+
+        for (int row = elite; row < fitness.length; ++row) {
+            int male = selectionOperator.select ();
+            int female = selectionOperator.selectOther (male);
+
+            // The offspring starts as a copy of the male, so the genes that the
+            // crossover technique doesn't write are inherited anyway
+            back.copyRow (front, male, row);
+            back.reset (row);
+
+            crossoverType.crossover (front.view (male), front.view (female), back.view (row));
+        }
+
+        // The whole offspring is mutated in a single pass over the matrix
+        if (elite < fitness.length) {
+            mutationKernel (mutationChance, mutationRate).mutate (back, elite, fitness.length - 1);
+        }
+
+        // Swap the matrices
+        PopulationMatrix aux = front;
+        front = back;
+        back = aux;
+
+        population = front.views ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Load all the genetic algorithm information stored in the data base.
+     * @param memory Data Base controller.
+     */
+    public boolean load (Memoria memory) {
+        boolean success = memory.loadPoblacion (population, chromosomeSize);
+
+        currentGeneration = memory.loadGeneration ();
+        currentIndividual = memory.loadCurrent ();
+        currentMatch = memory.loadIteration ();
+
+        return success;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Store all the genetic algorithm information in the data base.
+     * @param memory Data Base controller.
+     */
+    public void store (Memoria memory) {
+        memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+    }
+}
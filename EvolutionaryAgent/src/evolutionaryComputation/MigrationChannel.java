@@ -0,0 +1,114 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.TopologyType;
+
+
+/**
+ * This class is meant to facilitate trials with different ways of exchanging
+ * chromosomes between islands (@see Island). Each island has its own channel,
+ * identified by the number of the island. The topology decides which islands
+ * receive the migrants.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public abstract class MigrationChannel {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of the island that owns this channel (from 0 to islands - 1) */
+    protected final int island;
+    /** Total number of islands */
+    protected final int islands;
+    /** Topology used to choose the destination of the migrants */
+    protected final TopologyType topology;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param island Number of the island that owns this channel (from 0 to islands - 1).
+     * @param islands Total number of islands.
+     * @param topology Topology used to choose the destination of the migrants.
+     */
+    protected MigrationChannel (int island, int islands, TopologyType topology) {
+        this.island = island;
+        this.islands = islands;
+        this.topology = topology;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the islands that receive the migrants of this island.
+     * @return Number of each destination island.
+     */
+    protected int [] neighbours () {
+        if (islands < 2) {
+            return new int [0];
+        }
+
+        if (topology == TopologyType.RING) {
+            int neighbours [] = {(island + 1) % islands};
+            return neighbours;
+        }
+
+        int neighbours [] = new int [islands - 1];
+        for (int i = 0, k = 0; i < islands; ++i) {
+            if (i != island) {
+                neighbours [k] = i;
+                k = k + 1;
+            }
+        }
+
+        return neighbours;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sends the given chromosomes to every neighbour of this island. If a neighbour
+     * can't be reached, its migrants are lost (it doesn't stop the algorithm).
+     * @param chromosomes Chromosomes of the migrants.
+     */
+    public abstract void send (int chromosomes [][]);
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the chromosomes that other islands have sent to this one since
+     * the last time it was executed. It doesn't wait for them.
+     * @return Chromosomes received (it can be empty).
+     */
+    public abstract int [][] receive ();
+
+    //__________________________________________________________________________
+
+    /**
+     * Releases the resources used by the channel.
+     */
+    public void close () {
+    }
+}
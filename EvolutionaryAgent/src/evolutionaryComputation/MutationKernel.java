@@ -0,0 +1,266 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.GeneType;
+import enumTypes.MutationType;
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class mutates chromosomes. Instead of drawing a random number for every
+ * gene to decide whether it mutates, it draws the number of genes that are skipped
+ * until the next mutation (which follows a geometric distribution). The result
+ * is the same, but the cost depends on the number of mutations rather than on
+ * the size of the chromosomes, which matters because most genes don't mutate.
+ * The genes are read and written directly on the arrays that store them, and a
+ * whole population matrix can be mutated as if it were one long chromosome.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class MutationKernel {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** How the genes change */
+    private final MutationType type;
+    /** Probability of mutation of each gene */
+    private final double chance;
+    /** Rate of mutation (between 0 and 1) */
+    private final double rate;
+    /** Logarithm of the probability of a gene not mutating */
+    private final double logSurvival;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param type How the genes change.
+     * @param chance Probability of mutation of each gene.
+     * @param rate Rate of mutation. The number MUST BE between 0 and 1 (@see GeneticAlg.mutation).
+     */
+    public MutationKernel (MutationType type, double chance, double rate) {
+        this.type = type;
+        this.chance = chance;
+        this.rate = rate;
+
+        logSurvival = Math.log (1 - chance);
+    }
+
+    //__________________________________________________________________________
+
+    /** Get how the genes change */
+    public MutationType getType () {
+        return type;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the probability of mutation of each gene */
+    public double getChance () {
+        return chance;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the rate of mutation */
+    public double getRate () {
+        return rate;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Mutates the chromosome of an individual and repairs it (if it has a schema).
+     * @param individual Individual that is going to suffer mutations.
+     * @return Number of genes that mutated.
+     */
+    public int mutate (Individual individual) {
+        if (chance <= 0) {
+            return 0;
+        }
+
+        RandomStream random = RandomService.current ();
+        GeneSchema schema = individual.schema ();
+
+        int genes [] = individual.genes ();
+        int offset = individual.geneOffset ();
+        int size = individual.chromosomeSize ();
+
+        int mutations = 0;
+        for (long locus = skip (random); locus < size; locus = locus + 1 + skip (random)) {
+            int i = offset + (int) locus;
+            genes [i] = mutateGene (schema, (int) locus, genes [i], random);
+            ++mutations;
+        }
+
+        if (mutations > 0) {
+            individual.repair ();
+        }
+
+        return mutations;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Mutates the chromosomes of a range of rows of a population matrix in a
+     * single pass, and repairs the ones that changed.
+     * @param matrix Matrix that contains the individuals.
+     * @param first Position of the first individual to be mutated.
+     * @param last Position of the last individual to be mutated (inclusive).
+     * @return Number of genes that mutated.
+     */
+    public int mutate (PopulationMatrix matrix, int first, int last) {
+        if (chance <= 0 || last < first) {
+            return 0;
+        }
+
+        RandomStream random = RandomService.current ();
+        GeneSchema schema = matrix.getPrototype ().schema ();
+
+        int genes [] = matrix.genes ();
+        int size = matrix.chromosomeSize ();
+        long end = (long) (last + 1) * size;
+
+        int mutations = 0;
+        int changedRow = -1;
+        for (long i = (long) first * size + skip (random); i < end; i = i + 1 + skip (random)) {
+            int row = (int) (i / size);
+            int locus = (int) (i % size);
+
+            // The rows are visited in order, so each one is repaired once it is done
+            if (row != changedRow) {
+                if (changedRow >= 0 && schema != null) {
+                    schema.repair (matrix.view (changedRow));
+                }
+                changedRow = row;
+            }
+
+            genes [(int) i] = mutateGene (schema, locus, genes [(int) i], random);
+            ++mutations;
+        }
+
+        if (changedRow >= 0 && schema != null) {
+            schema.repair (matrix.view (changedRow));
+        }
+
+        return mutations;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Draws the number of genes that don't mutate before the next one that does.
+     * @param random Random number generator.
+     * @return Number of genes to be skipped.
+     */
+    private long skip (RandomStream random) {
+        if (chance >= 1) {
+            return 0;
+        }
+
+        // 1 - nextDouble () is in (0, 1], so the logarithm is never infinite
+        double skip = Math.log (1 - random.nextDouble ()) / logSurvival;
+        return (skip < Integer.MAX_VALUE) ? (long) skip : Integer.MAX_VALUE;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Mutates a gene. The result can be out of the bounds of the gene, the
+     * chromosome is repaired afterwards.
+     * @param schema Schema of the chromosome (it can be null).
+     * @param locus Position of the gene.
+     * @param value Current value of the gene.
+     * @param random Random number generator.
+     * @return Mutated value.
+     */
+    private int mutateGene (GeneSchema schema, int locus, int value, RandomStream random) {
+        if (schema == null || locus >= schema.size ()) {
+            return mutateUnbounded (value, random);
+        }
+
+        if (type == MutationType.PROPORTIONAL || schema.getType (locus) == GeneType.CATEGORICAL) {
+            return schema.mutate (locus, value, rate, random);
+        }
+
+        int min = schema.getMin (locus);
+        int step = schema.getStep (locus);
+        long steps = ((long) schema.getMax (locus) - min) / step;
+
+        if (type == MutationType.UNIFORM) {
+            return (int) (min + (long) (random.nextDouble () * (steps + 1)) * step);
+        }
+
+        // Gaussian: at least one step, so the gene always changes
+        long delta = Math.round (random.nextGaussian () * rate * steps);
+        if (delta == 0) {
+            delta = random.nextBoolean () ? 1 : -1;
+        }
+
+        return (int) Math.max (Integer.MIN_VALUE, Math.min (Integer.MAX_VALUE, value + delta * step));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Mutates a gene that isn't bounded. Its magnitude is used as the scale and
+     * the result is never negative.
+     * @param value Current value of the gene.
+     * @param random Random number generator.
+     * @return Mutated value.
+     */
+    private int mutateUnbounded (int value, RandomStream random) {
+        long magnitude = Math.abs ((long) value);
+        long mutated;
+
+        if (type == MutationType.UNIFORM) {
+            mutated = (long) (random.nextDouble () * (2 * magnitude + 2));
+        }
+        else {
+            long delta;
+            if (type == MutationType.GAUSSIAN) {
+                delta = Math.round (random.nextGaussian () * rate * Math.max (1, magnitude));
+            }
+            else {
+                delta = Math.max (1, (long) (rate * magnitude));
+                if (!random.nextBoolean ()) {
+                    delta = -delta;
+                }
+            }
+
+            // Move at least one unit, otherwise a gene at 0 could never change again
+            if (delta == 0) {
+                delta = random.nextBoolean () ? 1 : -1;
+            }
+
+            mutated = value + delta;
+        }
+
+        // Avoid negative gene values
+        return (int) Math.max (0, Math.min (Integer.MAX_VALUE, mutated));
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import knowledge.Memoria;
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements NSGA-II (Deb et al. 2002), a multi-objective genetic
+ * algorithm. Instead of collapsing the stats of an individual into a single
+ * fitness value, every stat is an objective: kills and damage given are
+ * maximized, deaths and damage taken are minimized. The individuals are
+ * compared through Pareto dominance (@see ParetoSorting), so there isn't a
+ * single best individual but a front of trade-offs.
+ *
+ * Each generation, the offspring that have just been evaluated are merged with
+ * their parents, the merged population is sorted in Pareto fronts and the next
+ * parents are the individuals of the best fronts (the least crowded ones when
+ * a front doesn't fit). The next offspring are bred from parents chosen by
+ * binary tournament (front first, crowding distance second). It is elitist by
+ * nature, so the elitism of the configuration is ignored, but the configured
+ * number of random immigrants is added to the offspring.
+ *
+ * The fitness function is only used to report the results (@see Copycat) and
+ * to choose bestIndividual. When the execution ends, the first front is stored.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class NSGAGenetic extends GeneticAlg {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Number of objectives (kills, deaths, damage given and damage taken) */
+    public static final int OBJECTIVES = 4;
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Parents of the current population (null in the first generation) */
+    private Individual parents [] = null;
+    /** Individuals where the next parents are copied (recycled every generation) */
+    private Individual spareParents [] = null;
+    /** Parents and offspring merged (recycled every generation) */
+    private Individual merged [] = null;
+    /** Objectives of the merged population (recycled every generation) */
+    private double values [] = null;
+    /** Pareto fronts of the parents */
+    private final ParetoSorting sorting = new ParetoSorting ();
+    /** Position in the merged population of each parent, used in the tournaments */
+    private int parentPositions [] = null;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * It initializes the algorithm using the information stored in the data
+     * base. If there isn't any information available, it generates the first
+     * generation.
+     * @param config Parameters of the algorithm.
+     * @param memory Data Base controller.
+     */
+    public NSGAGenetic (GeneticConfig config, Memoria memory) {
+        super (config, new NonLinearFitness ());
+
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        initialize (memory);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Merges the parents with the offspring that have just been evaluated, keeps
+     * the best fronts as the next parents and breeds the next offspring. The
+     * next parents are copied into the spare parents and the offspring are
+     * written into the spare population, so no individual is created.
+     */
+    public void selection () {
+        // Merge parents and offspring
+        int parentCount = (parents != null) ? parents.length : 0;
+        if (merged == null || merged.length != parentCount + population.length) {
+            merged = new Individual [parentCount + population.length];
+            values = new double [merged.length * OBJECTIVES];
+        }
+        for (int i = 0; i < parentCount; ++i) {
+            merged [i] = parents [i];
+        }
+        for (int i = 0; i < population.length; ++i) {
+            merged [parentCount + i] = population [i];
+        }
+
+        for (int i = 0; i < merged.length; ++i) {
+            objectives (merged [i], values, i * OBJECTIVES);
+        }
+
+        sorting.sort (values, merged.length, OBJECTIVES);
+
+        // The next parents are the best fronts. The last front that fits
+        // partially is cut by crowding distance (the least crowded first)
+        if (spareParents == null || spareParents.length != population.length) {
+            spareParents = new Individual [population.length];
+            for (int i = 0; i < spareParents.length; ++i) {
+                spareParents [i] = factory.create (false);
+            }
+        }
+        if (parentPositions == null || parentPositions.length != population.length) {
+            parentPositions = new int [population.length];
+        }
+
+        Individual next [] = spareParents;
+        int filled = 0;
+
+        for (int f = 0; f < sorting.fronts () && filled < next.length; ++f) {
+            int front [] = sorting.front (f);
+
+            if (filled + front.length > next.length) {
+                sortByCrowding (front);
+            }
+
+            for (int k = 0; k < front.length && filled < next.length; ++k) {
+                parentPositions [filled] = front [k];
+                copyGenes (merged [front [k]], next [filled]);
+                next [filled].resetStats ();
+                next [filled].addStats (merged [front [k]]);
+                ++filled;
+            }
+        }
+
+        spareParents = parents;
+        parents = next;
+
+        // Breed the offspring
+        Individual offspring [] = sparePopulation ();
+        int firstImmigrant = offspring.length - Math.min (immigrants, offspring.length);
+
+        for (int i = 0; i < firstImmigrant; ++i) {
+            int male = tournament ();
+            int female = tournament ();
+            for (int attempt = 0; attempt < 3 && female == male; ++attempt) {
+                female = tournament ();
+            }
+
+            offspring [i].resetStats ();
+            crossoverType.crossover (parents [male], parents [female], offspring [i]);
+            mutation (offspring [i], mutationChance, mutationRate);
+        }
+
+        for (int i = firstImmigrant; i < offspring.length; ++i) {
+            offspring [i].createRandomIndividual ();
+            offspring [i].resetStats ();
+        }
+
+        swapPopulations ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the first Pareto front of the parents and the evaluated
+     * individuals of the current population.
+     * @return Individuals that aren't dominated by any other.
+     */
+    public Individual [] paretoFront () {
+        int parentCount = (parents != null) ? parents.length : 0;
+        int evaluated = Math.min (currentIndividual, population.length);
+
+        Individual candidates [] = new Individual [parentCount + evaluated];
+        for (int i = 0; i < parentCount; ++i) {
+            candidates [i] = parents [i];
+        }
+        for (int i = 0; i < evaluated; ++i) {
+            candidates [parentCount + i] = population [i];
+        }
+
+        if (candidates.length == 0) {
+            return candidates;
+        }
+
+        double values [] = new double [candidates.length * OBJECTIVES];
+        for (int i = 0; i < candidates.length; ++i) {
+            objectives (candidates [i], values, i * OBJECTIVES);
+        }
+
+        ParetoSorting frontSorting = new ParetoSorting ();
+        frontSorting.sort (values, candidates.length, OBJECTIVES);
+
+        int front [] = frontSorting.front (0);
+        Individual result [] = new Individual [front.length];
+        for (int k = 0; k < front.length; ++k) {
+            result [k] = candidates [front [k]];
+        }
+
+        return result;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Writes the objectives of an individual. Every objective is maximized, so
+     * those that have to be minimized are negated.
+     * @param individual Individual whose objectives are written.
+     * @param values Array where the objectives are written.
+     * @param offset Position of values where the first objective is written.
+     */
+    protected void objectives (Individual individual, double values [], int offset) {
+        values [offset] = individual.getKills ();
+        values [offset + 1] = -individual.getDeaths ();
+        values [offset + 2] = individual.getTotalDamageGiven ();
+        values [offset + 3] = -individual.getTotalDamageTaken ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Restarts the execution of the algorithm, forgetting the parents.
+     */
+    protected void restart () {
+        parents = null;
+        parentPositions = null;
+        super.restart ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Stores the first Pareto front in the data base.
+     * @param memory Data Base controller.
+     */
+    protected void storeResult (Memoria memory) {
+        Individual front [] = paretoFront ();
+
+        String tableName = population [0].getClass ().getName ();
+        tableName = tableName.replace("evolutionaryComputation.", "");
+        memory.storeParetoFront (tableName, front);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Load all the genetic algorithm information stored in the data base. The
+     * parents are stored in the table Auxiliar.
+     * @param memory Data Base controller.
+     */
+    public boolean load (Memoria memory) {
+        boolean success = memory.loadPoblacion (population, population [0].chromosomeSize ());
+
+        currentGeneration = memory.loadGeneration ();
+        currentIndividual = memory.loadCurrent ();
+        currentMatch = memory.loadIteration ();
+
+        if (success && currentGeneration > 0) {
+            Individual stored [] = new Individual [population.length];
+            for (int i = 0; i < stored.length; ++i) {
+                stored [i] = factory.create (false);
+            }
+
+            parents = memory.loadPoblacionAuxiliar (stored, stored [0].chromosomeSize ()) ? stored : null;
+        }
+
+        return success;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Store all the genetic algorithm information in the data base (in a single
+     * transaction, the population and its parents are always written together).
+     * @param memory Data Base controller.
+     */
+    public void store (final Memoria memory) {
+        memory.transaccion (new Runnable () {
+            public void run () {
+                memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+
+                if (parents != null) {
+                    memory.storeAuxiliar (parents);
+                }
+
+                if (cache != null) {
+                    memory.storeFitnessCache (cache);
+                }
+            }
+        });
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a copy of the algorithm that can be stored in another thread,
+     * including a copy of the parents.
+     * @return Copy of the algorithm, only meant to be stored.
+     */
+    public GeneticAlg snapshot () {
+        NSGAGenetic copy = (NSGAGenetic) super.snapshot ();
+
+        if (parents != null) {
+            copy.parents = new Individual [parents.length];
+            for (int i = 0; i < parents.length; ++i) {
+                copy.parents [i] = parents [i].copy ();
+            }
+        }
+
+        copy.spareParents = null;
+        copy.merged = null;
+        copy.values = null;
+
+        return copy;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Chooses a parent through a binary tournament.
+     * @return Position of the parent.
+     */
+    private int tournament () {
+        RandomStream random = RandomService.current ();
+
+        int a = random.nextInt (parents.length);
+        int b = random.nextInt (parents.length);
+
+        return sorting.isBetter (parentPositions [b], parentPositions [a]) ? b : a;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sorts the members of a front from the least to the most crowded one.
+     * @param front Positions of the members of the front.
+     */
+    private void sortByCrowding (int front []) {
+        // Insertion sort (only the front that doesn't fit is sorted)
+        for (int i = 1; i < front.length; ++i) {
+            int member = front [i];
+            int j = i - 1;
+
+            while (j >= 0 && sorting.crowdingOf (front [j]) < sorting.crowdingOf (member)) {
+                front [j + 1] = front [j];
+                --j;
+            }
+
+            front [j + 1] = member;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * Surrogate model based on the k nearest neighbours. The predicted fitness of a
+ * chromosome is the average fitness of the k most similar chromosomes learnt so
+ * far, weighted by the inverse of their distance. Each gene is normalized by the
+ * range of values seen for it, so genes with large values don't dominate the
+ * distance. If the chromosome has been learnt before, the average fitness of its
+ * evaluations is returned.
+ *
+ * Only the latest samples are kept (up to a given capacity), so the model keeps
+ * up with the population as it evolves and predictions stay cheap.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class NearestNeighbourSurrogate extends SurrogateModel {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of neighbours used in each prediction */
+    private final int k;
+    /** Chromosomes learnt (circular buffer) */
+    private final int samples [][];
+    /** Fitness of each chromosome learnt */
+    private final double fitness [];
+    /** Number of samples stored */
+    private int size = 0;
+    /** Position where the next sample is stored */
+    private int next = 0;
+    /** Lowest value seen for each gene */
+    private int min [] = null;
+    /** Highest value seen for each gene */
+    private int max [] = null;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param k Number of neighbours used in each prediction.
+     * @param capacity Maximum number of samples kept.
+     */
+    public NearestNeighbourSurrogate (int k, int capacity) {
+        if (k < 1 || capacity < 1) {
+            throw new IllegalArgumentException ("The number of neighbours and the capacity must be positive");
+        }
+
+        this.k = k;
+        samples = new int [capacity][];
+        fitness = new double [capacity];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Learns the fitness of a chromosome. If the model is full, the oldest
+     * sample is forgotten.
+     * @param genes Chromosome of the individual (it isn't modified).
+     * @param value Fitness of the individual.
+     */
+    public void learn (int genes [], double value) {
+        if (min == null) {
+            min = genes.clone ();
+            max = genes.clone ();
+        }
+
+        for (int i = 0; i < Math.min (genes.length, min.length); ++i) {
+            min [i] = Math.min (min [i], genes [i]);
+            max [i] = Math.max (max [i], genes [i]);
+        }
+
+        samples [next] = genes.clone ();
+        fitness [next] = value;
+        next = (next + 1) % samples.length;
+        size = Math.min (size + 1, samples.length);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Predicts the fitness of a chromosome.
+     * @param genes Chromosome of the individual (it isn't modified).
+     * @return Predicted fitness (0 if nothing has been learnt).
+     */
+    public double predict (int genes []) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int neighbours = Math.min (k, size);
+
+        // Distances and fitness of the nearest samples, from the nearest to the farthest
+        double nearest [] = new double [neighbours];
+        double nearestFitness [] = new double [neighbours];
+        int found = 0;
+
+        double exactSum = 0;
+        int exact = 0;
+
+        for (int s = 0; s < size; ++s) {
+            double distance = distance (genes, samples [s]);
+
+            if (distance == 0) {
+                exactSum = exactSum + fitness [s];
+                ++exact;
+            }
+            else if (found < neighbours || distance < nearest [found - 1]) {
+                // Insert it in order, dropping the farthest one if there is no room
+                int pos = (found < neighbours) ? found++ : found - 1;
+                while (pos > 0 && nearest [pos - 1] > distance) {
+                    nearest [pos] = nearest [pos - 1];
+                    nearestFitness [pos] = nearestFitness [pos - 1];
+                    --pos;
+                }
+
+                nearest [pos] = distance;
+                nearestFitness [pos] = fitness [s];
+            }
+        }
+
+        if (exact > 0) {
+            return exactSum / exact;
+        }
+
+        double weightedSum = 0;
+        double totalWeight = 0;
+        for (int i = 0; i < found; ++i) {
+            double weight = 1.0 / nearest [i];
+            weightedSum = weightedSum + weight * nearestFitness [i];
+            totalWeight = totalWeight + weight;
+        }
+
+        return weightedSum / totalWeight;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of samples kept.
+     * @return Number of samples.
+     */
+    public int size () {
+        return size;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The model makes predictions once it has learnt, at least, k chromosomes.
+     * @return True if the predictions can be used.
+     */
+    public boolean isReady () {
+        return size >= k;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates the (squared) distance between two chromosomes, normalizing each
+     * gene by the range of values seen for it.
+     * @param a First chromosome.
+     * @param b Second chromosome.
+     * @return Distance between both chromosomes.
+     */
+    private double distance (int a [], int b []) {
+        double distance = 0;
+        int length = Math.min (a.length, b.length);
+
+        for (int i = 0; i < length; ++i) {
+            int range = max [i] - min [i];
+            if (range > 0) {
+                double difference = (a [i] - b [i]) / (double) range;
+                distance = distance + difference * difference;
+            }
+        }
+
+        return distance;
+    }
+}
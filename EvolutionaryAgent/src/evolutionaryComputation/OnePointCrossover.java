@@ -0,0 +1,58 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+
+
+/**
+ * This class implements a one point crossover: the offspring gets the genes of
+ * the male up to a random cut point and the genes of the female after it. The
+ * sibling gets the opposite halves.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class OnePointCrossover extends CrossoverType {
+
+    /**
+     * Crossover phase. Mate two different Individuals.
+     * @param male One individual.
+     * @param female Another individual.
+     * @param offspring Resulting individual. IT CAN'T BE a null pointer, it must
+     * be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
+     */
+    public void crossover (Individual male, Individual female, Individual offspring, Individual sibling) {
+        int size = offspring.chromosomeSize ();
+
+        // The cut is never at the ends, so both parents pass at least one gene
+        int cut = (size > 1) ? RandomService.current ().nextInt (1, size - 1) : size;
+
+        for (int locus = 0; locus < size; ++locus) {
+            int maleGene = gene (male, female, locus);
+            int femaleGene = gene (female, male, locus);
+            boolean fromMale = locus < cut;
+
+            offspring.setGene (locus, fromMale ? maleGene : femaleGene);
+            if (sibling != null) {
+                sibling.setGene (locus, fromMale ? femaleGene : maleGene);
+            }
+        }
+
+        finish (offspring, sibling);
+    }
+}
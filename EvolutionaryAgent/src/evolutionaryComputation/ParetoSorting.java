@@ -0,0 +1,357 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class sorts a population in Pareto fronts, for genetic algorithms with
+ * several objectives (@see NSGAGenetic). Every objective is maximized. An
+ * individual dominates another one if it isn't worse in any objective and it
+ * is better in one of them at least. The first front contains the individuals
+ * that no one dominates, the second one those that are only dominated by the
+ * first front and so on.
+ *
+ * The fronts are built with the efficient non-dominated sort (ENS-SS, Zhang et
+ * al. 2015): the individuals are sorted lexicographically, so an individual can
+ * only be dominated by those that come before it, and then each individual is
+ * added to the first front that doesn't dominate it. It needs O(M N log N)
+ * comparisons in the best case and O(M N^2) in the worst one, but linear memory,
+ * so populations of thousands of individuals can be sorted. The crowding distance
+ * of each individual within its front is estimated too.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class ParetoSorting {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of individuals sorted */
+    private int size;
+    /** Number of objectives */
+    private int objectives;
+    /** Values of the objectives (objectives values per individual, in a row) */
+    private double values [];
+    /** Front of each individual (0 is the first one) */
+    private int rank [];
+    /** Crowding distance of each individual within its front */
+    private double crowding [];
+    /** Positions of the individuals, front by front */
+    private int members [];
+    /** Position in members where each front starts (plus the end of the last one) */
+    private int frontStart [];
+    /** Number of fronts */
+    private int fronts;
+    /** Auxiliary array used to sort */
+    private int buffer [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Sorts a set of individuals in Pareto fronts and estimates their crowding
+     * distance.
+     * @param values Values of the objectives (objectives values per individual,
+     * in a row). They are not copied, so they must not be modified until the
+     * results have been read.
+     * @param size Number of individuals.
+     * @param objectives Number of objectives.
+     */
+    public void sort (final double values [], int size, int objectives) {
+        this.values = values;
+        this.size = size;
+        this.objectives = objectives;
+
+        if (rank == null || rank.length < size) {
+            rank = new int [size];
+            crowding = new double [size];
+            members = new int [size];
+            frontStart = new int [size + 1];
+            buffer = new int [size];
+        }
+
+        // Lexicographic order: nobody can be dominated by someone that comes after it
+        int order [] = new int [size];
+        for (int i = 0; i < size; ++i) {
+            order [i] = i;
+        }
+        mergeSort (order, 0, size, -1);
+
+        // Add each individual to the first front that doesn't dominate it. The
+        // fronts are kept as linked lists (the last member of each front points
+        // to the previous one) so no extra memory is needed
+        int last [] = new int [size];
+        int previous [] = new int [size];
+        int frontSize [] = new int [size];
+        fronts = 0;
+
+        for (int k = 0; k < size; ++k) {
+            int p = order [k];
+            int front = 0;
+
+            while (front < fronts && isDominatedByFront (p, last [front], previous)) {
+                ++front;
+            }
+
+            if (front == fronts) {
+                last [front] = -1;
+                frontSize [front] = 0;
+                ++fronts;
+            }
+
+            previous [p] = last [front];
+            last [front] = p;
+            frontSize [front] = frontSize [front] + 1;
+            rank [p] = front;
+        }
+
+        // Lay the fronts out one after another
+        frontStart [0] = 0;
+        for (int f = 0; f < fronts; ++f) {
+            frontStart [f + 1] = frontStart [f] + frontSize [f];
+
+            int pos = frontStart [f + 1];
+            for (int p = last [f]; p >= 0; p = previous [p]) {
+                members [--pos] = p;
+            }
+
+            estimateCrowding (frontStart [f], frontStart [f + 1]);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of fronts.
+     * @return Number of fronts.
+     */
+    public int fronts () {
+        return fronts;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the individuals of a front.
+     * @param front 0 for the first front, 1 for the second one...
+     * @return Positions of the individuals of the front (a new array).
+     */
+    public int [] front (int front) {
+        int result [] = new int [frontStart [front + 1] - frontStart [front]];
+        System.arraycopy (members, frontStart [front], result, 0, result.length);
+
+        return result;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the front an individual belongs to.
+     * @param individual Position of the individual.
+     * @return 0 for the first front, 1 for the second one...
+     */
+    public int rankOf (int individual) {
+        return rank [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the crowding distance of an individual within its front. The bigger,
+     * the more isolated (infinite for the individuals at the ends of the front).
+     * @param individual Position of the individual.
+     * @return Crowding distance.
+     */
+    public double crowdingOf (int individual) {
+        return crowding [individual];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if an individual is better than another one for an NSGA-II
+     * tournament: it belongs to a better front or, in the same front, it is
+     * less crowded.
+     * @param a Position of an individual.
+     * @param b Position of another individual.
+     * @return True if a is better than b.
+     */
+    public boolean isBetter (int a, int b) {
+        if (rank [a] != rank [b]) {
+            return rank [a] < rank [b];
+        }
+
+        return crowding [a] > crowding [b];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if an individual is dominated by any member of a front.
+     * @param p Position of the individual.
+     * @param member Last member of the front.
+     * @param previous Link to the previous member of each front.
+     * @return True if it is dominated.
+     */
+    private boolean isDominatedByFront (int p, int member, int previous []) {
+        // The last members are the most similar ones, so they are checked first
+        for (; member >= 0; member = previous [member]) {
+            if (dominates (member, p)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if an individual dominates another one.
+     * @param a Position of an individual.
+     * @param b Position of another individual.
+     * @return True if a dominates b.
+     */
+    private boolean dominates (int a, int b) {
+        boolean better = false;
+        int offsetA = a * objectives;
+        int offsetB = b * objectives;
+
+        for (int m = 0; m < objectives; ++m) {
+            double valueA = values [offsetA + m];
+            double valueB = values [offsetB + m];
+
+            if (valueA < valueB) {
+                return false;
+            }
+            else if (valueA > valueB) {
+                better = true;
+            }
+        }
+
+        return better;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates the crowding distance of the members of a front.
+     * @param from Position in members where the front starts.
+     * @param to Position in members where the front ends (exclusive).
+     */
+    private void estimateCrowding (int from, int to) {
+        for (int k = from; k < to; ++k) {
+            crowding [members [k]] = 0;
+        }
+
+        if (to - from <= 2) {
+            for (int k = from; k < to; ++k) {
+                crowding [members [k]] = Double.POSITIVE_INFINITY;
+            }
+
+            return;
+        }
+
+        for (int m = 0; m < objectives; ++m) {
+            mergeSort (members, from, to, m);
+
+            double min = values [members [from] * objectives + m];
+            double max = values [members [to - 1] * objectives + m];
+
+            crowding [members [from]] = Double.POSITIVE_INFINITY;
+            crowding [members [to - 1]] = Double.POSITIVE_INFINITY;
+
+            if (max > min) {
+                for (int k = from + 1; k < to - 1; ++k) {
+                    double gap = values [members [k + 1] * objectives + m] - values [members [k - 1] * objectives + m];
+                    crowding [members [k]] = crowding [members [k]] + gap / (max - min);
+                }
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Compares two individuals.
+     * @param a Position of an individual.
+     * @param b Position of another individual.
+     * @param objective Objective to be compared, or -1 to compare them
+     * lexicographically (from the first objective to the last one, the biggest first).
+     * @return True if a must go after b.
+     */
+    private boolean isAfter (int a, int b, int objective) {
+        if (objective >= 0) {
+            return values [a * objectives + objective] > values [b * objectives + objective];
+        }
+
+        for (int m = 0; m < objectives; ++m) {
+            double valueA = values [a * objectives + m];
+            double valueB = values [b * objectives + m];
+
+            if (valueA != valueB) {
+                return valueA < valueB;
+            }
+        }
+
+        return false;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sorts part of an array of positions (stable bottom-up merge sort).
+     * @param positions Array to be sorted.
+     * @param from First position to be sorted.
+     * @param to Last position to be sorted (exclusive).
+     * @param objective Objective used to sort (ascending), or -1 to sort them
+     * lexicographically (descending).
+     */
+    private void mergeSort (int positions [], int from, int to, int objective) {
+        for (int width = 1; width < to - from; width = width * 2) {
+            for (int left = from; left < to - width; left = left + 2 * width) {
+                int middle = left + width;
+                int right = Math.min (middle + width, to);
+
+                int i = left;
+                int j = middle;
+                int k = left;
+                while (i < middle && j < right) {
+                    if (isAfter (positions [i], positions [j], objective)) {
+                        buffer [k++] = positions [j++];
+                    }
+                    else {
+                        buffer [k++] = positions [i++];
+                    }
+                }
+                while (i < middle) {
+                    buffer [k++] = positions [i++];
+                }
+                while (j < right) {
+                    buffer [k++] = positions [j++];
+                }
+
+                System.arraycopy (buffer, left, positions, left, right - left);
+            }
+        }
+    }
+}
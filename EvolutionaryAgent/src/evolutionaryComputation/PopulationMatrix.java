@@ -0,0 +1,322 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class stores a whole population in a few primitive arrays instead of one
+ * object (plus its chromosome and stats) per individual. Every chromosome is
+ * stored, one after the other, in a single array and the stats of each
+ * individual are stored in parallel arrays. This way big populations (like the
+ * ones used with the simulator) don't produce garbage nor scatter the genes
+ * across the heap.
+ *
+ * Each row of the matrix can be accessed through a view (@see IndividualView),
+ * which behaves like any other individual, so the matrix can be used with the
+ * genetic algorithms, crossover techniques, Copycat or the data base. The views
+ * are created once, with the matrix.
+ *
+ * The fitness technique and the kind of chromosome are taken from a prototype
+ * individual, which is also used to generate random chromosomes. Therefore,
+ * this class is not thread safe.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class PopulationMatrix {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of individuals */
+    private final int size;
+    /** Number of genes of each chromosome */
+    private final int chromosomeSize;
+    /** Chromosomes of every individual, one after the other */
+    private final int genes [];
+    /** Number of times each individual has killed */
+    private final int kills [];
+    /** Number of times each individual has died */
+    private final int deaths [];
+    /** Total amount of damage each individual has given to the enemy */
+    private final int totalDamageGiven [];
+    /** Total amount of damage each individual has received from the enemy */
+    private final int totalDamageTaken [];
+    /** Individual used to generate random chromosomes */
+    private final Individual prototype;
+    /** Function used to estimate the fitness */
+    private final FitnessFunction function;
+    /** Views of each row of the matrix */
+    private final Individual views [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. Every gene and stat is initialized to 0.
+     * @param size Number of individuals.
+     * @param prototype Individual whose kind of chromosome and fitness technique
+     * are going to be used. It is used as an auxiliary object, so it can't be
+     * shared with a population.
+     */
+    public PopulationMatrix (int size, Individual prototype) {
+        this.size = size;
+        this.prototype = prototype;
+        function = prototype.stats.getFitnessFunction ();
+        chromosomeSize = prototype.chromosomeSize ();
+
+        genes = new int [size * chromosomeSize];
+        kills = new int [size];
+        deaths = new int [size];
+        totalDamageGiven = new int [size];
+        totalDamageTaken = new int [size];
+
+        views = new Individual [size];
+        for (int row = 0; row < size; ++row) {
+            views [row] = new IndividualView (this, row);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /** Number of individuals */
+    public int size () {
+        return size;
+    }
+
+    //__________________________________________________________________________
+
+    /** Chromosome's size */
+    public int chromosomeSize () {
+        return chromosomeSize;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the array where the genes are stored (row after row), so they can be
+     * mutated in a single pass (@see MutationKernel).
+     */
+    int [] genes () {
+        return genes;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the individual whose kind of chromosome is used */
+    public Individual getPrototype () {
+        return prototype;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the view of a row of the matrix.
+     * @param row Position of the individual.
+     * @return View of the individual.
+     */
+    public Individual view (int row) {
+        return views [row];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the views of every row. The array is shared, it MUST NOT be modified.
+     * @return Views of every individual.
+     */
+    public Individual [] views () {
+        return views;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the value of a gene.
+     * @param row Position of the individual.
+     * @param locus Position of the gene in the chromosome.
+     * @return The gene's value.
+     */
+    public int getGene (int row, int locus) {
+        return genes [row * chromosomeSize + locus];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Set the value of a gene.
+     * @param row Position of the individual.
+     * @param locus Position of the gene in the chromosome.
+     * @param value Value to which we want to set the gene.
+     */
+    public void setGene (int row, int locus, int value) {
+        genes [row * chromosomeSize + locus] = value;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Copies the chromosome and the stats of an individual of a matrix (it can be
+     * this one) into a row of this matrix. Both matrices must use the same
+     * chromosome size.
+     * @param source Matrix that contains the individual to be copied.
+     * @param sourceRow Position of the individual to be copied.
+     * @param row Position where the individual is copied.
+     */
+    public void copyRow (PopulationMatrix source, int sourceRow, int row) {
+        System.arraycopy (source.genes, sourceRow * chromosomeSize, genes, row * chromosomeSize, chromosomeSize);
+
+        kills [row] = source.kills [sourceRow];
+        deaths [row] = source.deaths [sourceRow];
+        totalDamageGiven [row] = source.totalDamageGiven [sourceRow];
+        totalDamageTaken [row] = source.totalDamageTaken [sourceRow];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random chromosome (using the prototype) and resets the stats.
+     * @param row Position of the individual.
+     */
+    public void randomize (int row) {
+        prototype.createRandomIndividual ();
+
+        for (int locus = 0, offset = row * chromosomeSize; locus < chromosomeSize; ++locus) {
+            genes [offset + locus] = prototype.getGene (locus);
+        }
+
+        reset (row);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimate the fitness of an individual using the fitness technique of the
+     * prototype.
+     * @param row Position of the individual.
+     * @return Fitness of the individual.
+     */
+    public double fitness (int row) {
+        return function.fitness (kills [row], deaths [row], totalDamageGiven [row], totalDamageTaken [row]);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimate the fitness of every individual.
+     * @param fitness Array where the fitness of each individual is written. Its
+     * size must be (at least) the number of individuals.
+     */
+    public void fitness (double fitness []) {
+        for (int row = 0; row < size; ++row) {
+            fitness [row] = fitness (row);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Resets the stats of an individual.
+     * @param row Position of the individual.
+     */
+    public void reset (int row) {
+        kills [row] = deaths [row] = totalDamageGiven [row] = totalDamageTaken [row] = 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates an independent individual (of the same kind as the prototype) with
+     * the chromosome and the stats of a row.
+     * @param row Position of the individual.
+     * @return A copy of the individual.
+     */
+    public Individual detach (int row) {
+        Individual copy = prototype.copy ();
+
+        for (int locus = 0, offset = row * chromosomeSize; locus < chromosomeSize; ++locus) {
+            copy.setGene (locus, genes [offset + locus]);
+        }
+
+        copy.setKills (kills [row]);
+        copy.setDeaths (deaths [row]);
+        copy.setTotalDamageGiven (totalDamageGiven [row]);
+        copy.setTotalDamageTaken (totalDamageTaken [row]);
+
+        return copy;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of kills of an individual */
+    public int getKills (int row) {
+        return kills [row];
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of kills of an individual */
+    public void setKills (int row, int value) {
+        kills [row] = value;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the number of deaths of an individual */
+    public int getDeaths (int row) {
+        return deaths [row];
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the number of deaths of an individual */
+    public void setDeaths (int row, int value) {
+        deaths [row] = value;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the total amount of damage given by an individual */
+    public int getTotalDamageGiven (int row) {
+        return totalDamageGiven [row];
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the total amount of damage given by an individual */
+    public void setTotalDamageGiven (int row, int value) {
+        totalDamageGiven [row] = value;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the total amount of damage taken by an individual */
+    public int getTotalDamageTaken (int row) {
+        return totalDamageTaken [row];
+    }
+
+    //__________________________________________________________________________
+
+    /** Set the total amount of damage taken by an individual */
+    public void setTotalDamageTaken (int row, int value) {
+        totalDamageTaken [row] = value;
+    }
+}
@@ -22,14 +22,21 @@ package evolutionaryComputation;
  */
 
 
-public class ProportionalFitness extends IndividualStats {
+public class ProportionalFitness extends FitnessFunction {
 
     // *************************************************************************
     //                                METHODS
     // *************************************************************************
 
-    /** Estimate fitness */
-    public double fitness () {
+    /**
+     * Estimate fitness.
+     * @param kills Number of times the individual has killed.
+     * @param deaths Number of times the individual has died.
+     * @param totalDamageGiven Total amount of damage the individual has given to the enemy.
+     * @param totalDamageTaken Total amount of damage the individual has received from the enemy.
+     * @return Fitness of the individual.
+     */
+    public double fitness (int kills, int deaths, int totalDamageGiven, int totalDamageTaken) {
         double balance = kills - deaths;
 
         double fitnessValue = 0;
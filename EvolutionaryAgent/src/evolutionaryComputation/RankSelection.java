@@ -0,0 +1,100 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class implements linear rank selection. The chance of each individual
+ * depends on its position in the ranking instead of its fitness, so a few
+ * outstanding individuals can't take over the population and small differences
+ * still matter. The worst individual gets (2 - pressure) / n of the chances and
+ * the best one pressure / n. The selection itself is done through the alias
+ * method (@see RouletteSelection), so it takes constant time.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class RankSelection extends SelectionOperator {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Selective pressure, between 1 (no pressure) and 2 */
+    private final double pressure;
+    /** Wheel used to select the individuals once they have been ranked */
+    private final RouletteSelection wheel;
+    /** Ranking of the population */
+    private final FitnessRanking ranking;
+    /** Chances of each individual */
+    private double chances [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param pressure Selective pressure, between 1 (no pressure) and 2.
+     */
+    public RankSelection (double pressure) {
+        this.pressure = Math.max (1, Math.min (2, pressure));
+        wheel = new RouletteSelection ();
+        ranking = new FitnessRanking ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Ranks the individuals and prepares the wheel.
+     * @param fitness Fitness of each individual of the population.
+     */
+    public void prepare (double fitness []) {
+        size = fitness.length;
+
+        if (chances == null || chances.length != size) {
+            chances = new double [size];
+        }
+
+        ranking.rank (fitness);
+
+        for (int individual = 0; individual < size; ++individual) {
+            int rank = ranking.rankOf (individual);
+
+            double chance = (2 - pressure) / size;
+            if (size > 1) {
+                chance = chance + 2.0 * rank * (pressure - 1) / (size * (size - 1.0));
+            }
+
+            chances [individual] = chance;
+        }
+
+        wheel.prepare (chances);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a parent with a probability that depends on its rank.
+     * @return Position of the selected individual.
+     */
+    public int select () {
+        return wheel.select ();
+    }
+}
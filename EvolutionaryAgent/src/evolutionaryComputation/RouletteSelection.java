@@ -0,0 +1,127 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements roulette wheel (fitness proportional) selection using
+ * the alias method (Vose). Preparing the wheel takes linear time, but each
+ * selection takes constant time, no matter the size of the population.
+ * Individuals with negative fitness are never selected (unless every individual
+ * has no fitness at all, in which case every individual has the same chance).
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class RouletteSelection extends SelectionOperator {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Probability of keeping each column of the table (instead of its alias) */
+    private double probability [];
+    /** Alias of each column of the table */
+    private int alias [];
+    /** Auxiliary work lists, reused between generations */
+    private int small [], large [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Builds the alias table.
+     * @param fitness Fitness of each individual of the population.
+     */
+    public void prepare (double fitness []) {
+        size = fitness.length;
+
+        if (probability == null || probability.length < size) {
+            probability = new double [size];
+            alias = new int [size];
+            small = new int [size];
+            large = new int [size];
+        }
+
+        double total = totalFitness (fitness);
+
+        // Scale every weight so the average is 1
+        int nSmall = 0, nLarge = 0;
+        for (int i = 0; i < size; ++i) {
+            double weight = (total > 0) ? Math.max (fitness [i], 0) : 1;
+            probability [i] = (total > 0) ? weight * size / total : 1;
+
+            if (probability [i] < 1) {
+                small [nSmall] = i;
+                nSmall = nSmall + 1;
+            }
+            else {
+                large [nLarge] = i;
+                nLarge = nLarge + 1;
+            }
+        }
+
+        // Fill each small column with a piece of a large one
+        while (nSmall > 0 && nLarge > 0) {
+            nSmall = nSmall - 1;
+            int less = small [nSmall];
+            nLarge = nLarge - 1;
+            int more = large [nLarge];
+
+            alias [less] = more;
+            probability [more] = probability [more] + probability [less] - 1;
+
+            if (probability [more] < 1) {
+                small [nSmall] = more;
+                nSmall = nSmall + 1;
+            }
+            else {
+                large [nLarge] = more;
+                nLarge = nLarge + 1;
+            }
+        }
+
+        // The remaining columns are full (rounding errors aside)
+        while (nLarge > 0) {
+            nLarge = nLarge - 1;
+            probability [large [nLarge]] = 1;
+        }
+        while (nSmall > 0) {
+            nSmall = nSmall - 1;
+            probability [small [nSmall]] = 1;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a parent with a probability proportional to its fitness.
+     * @return Position of the selected individual.
+     */
+    public int select () {
+        RandomStream random = RandomService.current ();
+
+        int column = uniform (random);
+        return (random.nextDouble () < probability [column]) ? column : alias [column];
+    }
+}
@@ -14,10 +14,8 @@
 
 package evolutionaryComputation;
 
-import java.util.Random;
 import knowledge.Memoria;
-import utilities.Arithmetic;
-import utilities.Copycat;
+import utilities.RandomService;
 
 
 /**
@@ -29,6 +27,17 @@ import utilities.Copycat;
 
 public class RouletteWheel extends GeneticAlg {
 
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Ranking of the current population, used for elitism */
+    private final FitnessRanking ranking = new FitnessRanking ();
+    /** Fitness of the current population (reused every generation) */
+    private double fitness [] = new double [0];
+
+
     // *************************************************************************
     //                                METHODS
     // *************************************************************************
@@ -36,7 +45,7 @@ public class RouletteWheel extends GeneticAlg {
     /**
      * It initializes the genetic algorithm using the information stored in
      * the data base. If there isn't any information available, it generates the first
-     * generation.
+     * generation. There is neither elitism nor immigrants.
      * @param GENERATIONS Number of generations to be executed.
      * @param populationSize Size of the population for each generation.
      * @param crossoverType Kind of crossover to be applied.
@@ -44,159 +53,89 @@ public class RouletteWheel extends GeneticAlg {
      */
     @Deprecated
     public RouletteWheel (int GENERATIONS, int populationSize, CrossoverType crossoverType, Memoria memory) {
-        super (GENERATIONS, populationSize, crossoverType);
+        this (new GeneticConfig ().setGenerations (GENERATIONS).setPopulationSize (populationSize).setCrossover (crossoverType)
+                                  .setElitism (0).setImmigrants (0), memory);
+    }
 
-        // Initialize each individual
-        for (int i = 0; i < population.length; ++i) {
-            // To try different chromosomes change the individual being initialized
-            // To try different fitness techniques, change the IndividualStats object passed
-            population [i] = new IndividualV1 (true, new ProportionalFitness ());
-        }
+    //__________________________________________________________________________
 
-        this.chromosomeSize = population [0].chromosomeSize ();
+    /**
+     * It initializes the genetic algorithm using the information stored in
+     * the data base. If there isn't any information available, it generates the first
+     * generation. Unless the configuration says otherwise, the individuals use a
+     * proportional fitness and they are selected through a roulette wheel.
+     * @param config Parameters of the algorithm.
+     * @param memory Data Base controller.
+     */
+    public RouletteWheel (GeneticConfig config, Memoria memory) {
+        super (config, new ProportionalFitness ());
 
-        // Load stored information in the data base. If no information is available
-        // then initialize everything randomly
-        boolean success = load (memory);
-
-        if (success) {
-            // If the next individual to evaluate is the first one of the next population
-            // check out if the next generation is the last one.
-            // If it is the last one, store the best individual, otherwise, create
-            // the next generation based on selection, crossover and mutation
-
-            if (currentIndividual >= population.length) {
-                // Write down the results
-                Copycat.copyPopulation (currentGeneration, population);
-
-                currentGeneration = currentGeneration + 1;
-
-                if (currentGeneration == GENERATIONS) {
-                    // The execution has ended, select the best individual (the one
-                    // with the biggest fitness) and store it as a result in the
-                    // data base
-
-                    // Look for the best inidividual
-                    double max = population [0].fitness ();
-                    int pos = 0;
-                    for (int i = 1; i < population.length; ++i) {
-                        if (population [i].fitness () >= max){
-                            max = population [i].fitness ();
-                            pos = i;
-                        }
-                    }
-
-                    // Store the best individual
-                    String tableName = population [pos].getClass ().getName ();
-                    tableName = tableName.replace("evolutionaryComputation.", "");
-                    memory.storeBestIndividuo (tableName, population [pos], false);
-
-                    // Restart execution
-                    currentGeneration = 0;
-                    currentIndividual = 0;
-                    currentMatch = 0;
-
-                    for (int i = 0; i < population.length; ++i) {
-                        population [i].createRandomIndividual ();
-                    }
-                }
-                else {
-                    // Reset the next individual to be evaluated
-                    currentIndividual = 0;
-                    currentMatch = 0;
-
-                    // Selection, Crossover and Mutation
-                    selection ();
-                }
-            }
+        if (selectionOperator == null) {
+            // Fitness proportional selection (alias method)
+            selectionOperator = new RouletteSelection ();
         }
-        else {
-            currentGeneration = 0;
-            currentIndividual = 0;
-            currentMatch = 0;
 
-            for (int i = 0; i < population.length; ++i) {
-                population [i].createRandomIndividual ();
-            }
-        }
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        initialize (memory);
     }
 
     //__________________________________________________________________________
 
     /** Select the best Individuals for the next population, mate them and mutate them */
-    @Deprecated
     public void selection() {
-        int chances [] = new int [population.length];
+        if (fitness.length != population.length) {
+            fitness = new double [population.length];
+        }
 
-        chances [0] = (int) (Math.round(population [0].fitness() * 10));
-        for (int i = 1; i < population.length; ++i) {
-            chances [i] = chances [i - 1] + (int) (Math.round(population [i].fitness() * 10));
+        for (int i = 0; i < population.length; ++i) {
+            fitness [i] = population [i].fitness ();
         }
 
-        // Create the new population
-        Individual [] newPopulation = new Individual [population.length];
+        selectionOperator.prepare (fitness);
+
+        // The new population is written over the individuals of the spare one
+        Individual [] newPopulation = sparePopulation ();
+
+        // Keep the elite (the best individuals)
+        if (elitism > 0) {
+            ranking.rank (fitness);
+        }
+
+        for (int i = 0; i < elitism; ++i) {
+            copyGenes (population [ranking.best (i)], newPopulation [i]);
+            newPopulation [i].resetStats ();
+        }
 
         // Create the new population
-        for (int i = 0; i <population.length; ++i) {
+        int firstImmigrant = population.length - immigrants;
+
+        for (int i = elitism; i < firstImmigrant; ++i) {
             // Select by statistics an individual to survive
-            int dice = Arithmetic.doRandomNumber (0, chances [population.length - 1]);
-
-            boolean found = false;
-            int survivorA = 0;
-            for (int k = 0; k < population.length && !found; ++k) {
-                if (dice <= chances [k]) {
-                    survivorA = k;
-                    found = true;
-                }
-            }
+            int survivorA = selectionOperator.select ();
 
             // With 90% chance the selected individual will achieve reproduction
-            Random generator = new Random();
-            if (generator.nextDouble() < 0.9) {
-                double chanceOfMutation = 1.0 / chromosomeSize;
-
-                // Get the other chromosome involved in reproduction by statistics
-                int survivorB;
-                boolean differentIndividual = true;
-                do {
-                    dice = Arithmetic.doRandomNumber (0, chances [population.length - 1]);
-
-                    survivorB = 0;
-                    found = false;
-                    for (int k = 0; k < population.length && !found; ++k) {
-                        if (dice <= chances [k]) {
-                            if (k != survivorA) {
-                                survivorB = k;
-                                found = true;
-                                differentIndividual = true;
-                            }
-                            else {
-                                differentIndividual = false;
-                                found = true;
-                            }
-                        }
-                    }
-                } while (!differentIndividual);
-
-                // Crossover and mutation
-                newPopulation [i] = new IndividualV1 (false, new ProportionalFitness ());
-                crossoverType.crossover (population [survivorA], population [survivorB], newPopulation [i]);
-                mutation (newPopulation [i], chanceOfMutation, 0.1);
+            if (RandomService.current ().nextDouble () < 0.9) {
+                // Get the other chromosome involved in reproduction by statistics,
+                // crossover and mutation
+                breed (survivorA, newPopulation [i]);
             }
             else {
-                // Note that we actually create a new individual, because several
+                // Note that we actually copy the individual, because several
                 // suvivors can be in the next generations (the same survivors).
                 // Copying references can create trouble with individual stats.
-                newPopulation [i] = new IndividualV1 (false, new ProportionalFitness ());
-
-                // Copy the chromosome values
-                for (int k = 0; k < population [survivorA].chromosomeSize (); ++k) {
-                    newPopulation [i].setGene(k, population [survivorA].getGene(k));
-                }
+                copyGenes (population [survivorA], newPopulation [i]);
+                newPopulation [i].resetStats ();
             }
         }
 
-        population = newPopulation;
+        // Random immigrants
+        for (int i = firstImmigrant; i < newPopulation.length; ++i) {
+            newPopulation [i].createRandomIndividual ();
+            newPopulation [i].resetStats ();
+        }
+
+        swapPopulations ();
     }
 
     //__________________________________________________________________________
@@ -223,5 +162,9 @@ public class RouletteWheel extends GeneticAlg {
      */
     public void store(Memoria memory) {
         memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+
+        if (cache != null) {
+            memory.storeFitnessCache (cache);
+        }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class is meant to facilitate trials with different selection techniques.
+ * The operator is prepared once per generation with the fitness of every
+ * individual and then it can be asked for as many parents as needed.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public abstract class SelectionOperator {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of individuals of the population the operator was prepared for */
+    protected int size;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Prepares the operator for a new generation. It must be executed before
+     * selecting any parent, and again whenever the fitness changes.
+     * @param fitness Fitness of each individual of the population. The operator
+     * may keep a reference to it.
+     */
+    public abstract void prepare (double fitness []);
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a parent.
+     * @return Position of the selected individual.
+     */
+    public abstract int select ();
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a parent different from the given one. If the operator keeps drawing
+     * the same individual (it happens when it has most of the chances), a random
+     * individual is chosen instead, so it never gets stuck.
+     * @param excluded Position of the individual that can't be selected.
+     * @return Position of the selected individual.
+     */
+    public int selectOther (int excluded) {
+        if (size < 2) {
+            return excluded;
+        }
+
+        for (int attempt = 0; attempt < 3; ++attempt) {
+            int selected = select ();
+
+            if (selected != excluded) {
+                return selected;
+            }
+        }
+
+        int selected = RandomService.current ().nextInt (size - 1);
+        return (selected >= excluded) ? selected + 1 : selected;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects several parents at once. Techniques that select the whole set at
+     * the same time (like stochastic universal sampling) override it.
+     * @param parents Array where the positions of the selected individuals are
+     * written. Every position of the array is filled.
+     */
+    public void select (int parents []) {
+        for (int i = 0; i < parents.length; ++i) {
+            parents [i] = select ();
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Estimates the total amount of fitness, ignoring negative values (they are
+     * considered to be 0).
+     * @param fitness Fitness of each individual.
+     * @return Sum of the (non negative) fitness.
+     */
+    protected static double totalFitness (double fitness []) {
+        double total = 0;
+        for (int i = 0; i < fitness.length; ++i) {
+            if (fitness [i] > 0) {
+                total = total + fitness [i];
+            }
+        }
+
+        return total;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a random individual (every individual has the same chance).
+     * @param random Stream of random numbers.
+     * @return Position of the selected individual.
+     */
+    protected int uniform (RandomStream random) {
+        return random.nextInt (size);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements a simulated binary crossover (SBX) for integer genes.
+ * Half of the genes are recombined: the two children are spread around the mean
+ * of the parents with a polynomial distribution whose spread is controlled by the
+ * distribution index (the bigger it is, the closer the children are to the
+ * parents). The rest of the genes are copied from the parents. The results are
+ * rounded and kept within the bounds of each gene.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class SimulatedBinaryCrossover extends CrossoverType {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Distribution index */
+    private final double eta;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /** Default constructor (distribution index = 2) */
+    public SimulatedBinaryCrossover () {
+        this (2);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param eta Distribution index (0 or more).
+     */
+    public SimulatedBinaryCrossover (double eta) {
+        if (eta < 0) {
+            throw new IllegalArgumentException ("The distribution index can't be negative");
+        }
+
+        this.eta = eta;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Crossover phase. Mate two different Individuals.
+     * @param male One individual.
+     * @param female Another individual.
+     * @param offspring Resulting individual. IT CAN'T BE a null pointer, it must
+     * be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
+     */
+    public void crossover (Individual male, Individual female, Individual offspring, Individual sibling) {
+        RandomStream random = RandomService.current ();
+        double exponent = 1 / (eta + 1);
+
+        for (int locus = 0; locus < offspring.chromosomeSize (); ++locus) {
+            double maleGene = gene (male, female, locus);
+            double femaleGene = gene (female, male, locus);
+
+            double first = maleGene;
+            double second = femaleGene;
+
+            if (maleGene != femaleGene && random.nextBoolean ()) {
+                double u = random.nextDouble ();
+                double beta = (u <= 0.5) ? Math.pow (2 * u, exponent) : Math.pow (1 / (2 * (1 - u)), exponent);
+
+                first = 0.5 * ((1 + beta) * maleGene + (1 - beta) * femaleGene);
+                second = 0.5 * ((1 - beta) * maleGene + (1 + beta) * femaleGene);
+            }
+
+            offspring.setGene (locus, bound (offspring, locus, first));
+            if (sibling != null) {
+                sibling.setGene (locus, bound (sibling, locus, second));
+            }
+        }
+
+        finish (offspring, sibling);
+    }
+}
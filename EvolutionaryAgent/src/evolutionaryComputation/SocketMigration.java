@@ -0,0 +1,243 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.TopologyType;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * This class exchanges migrants through sockets. Island number i listens on
+ * port basePort + i of the given host (the loopback interface by default) and
+ * keeps every chromosome it receives until the island asks for them. If a
+ * neighbour isn't listening, its migrants are lost.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class SocketMigration extends MigrationChannel {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Maximum number of migrants accepted in a shipment */
+    public static final int MAX_MIGRANTS = 1024;
+    /** Maximum number of genes accepted in a chromosome */
+    public static final int MAX_GENES = 1024;
+    /** Time (in milliseconds) a neighbour has to send a shipment once it is connected */
+    public static final int READ_TIMEOUT = 5000;
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Host where the islands are listening */
+    private final InetAddress host;
+    /** Port of the island number 0 */
+    private final int basePort;
+    /** Socket where this island receives the migrants */
+    private final ServerSocket server;
+    /** Chromosomes received and not retrieved yet */
+    private final List <int []> received;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. The islands listen on the loopback interface.
+     * @param island Number of the island that owns this channel (from 0 to islands - 1).
+     * @param islands Total number of islands.
+     * @param topology Topology used to choose the destination of the migrants.
+     * @param basePort Port of the island number 0.
+     * @throws IOException If the port of this island can't be opened.
+     */
+    public SocketMigration (int island, int islands, TopologyType topology, int basePort) throws IOException {
+        this (island, islands, topology, InetAddress.getByName (null), basePort);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param island Number of the island that owns this channel (from 0 to islands - 1).
+     * @param islands Total number of islands.
+     * @param topology Topology used to choose the destination of the migrants.
+     * @param host Host where the islands are listening.
+     * @param basePort Port of the island number 0.
+     * @throws IOException If the port of this island can't be opened.
+     */
+    public SocketMigration (int island, int islands, TopologyType topology, InetAddress host, int basePort) throws IOException {
+        super (island, islands, topology);
+
+        this.host = host;
+        this.basePort = basePort;
+        received = new ArrayList <int []> ();
+        server = new ServerSocket (basePort + island, 50, host);
+
+        Thread listener = new Thread ("Migration-" + island) {
+            public void run () {
+                listen ();
+            }
+        };
+        listener.setDaemon (true);
+        listener.start ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Sends the chromosomes to every neighbour of this island.
+     * @param chromosomes Chromosomes of the migrants.
+     */
+    public void send (int chromosomes [][]) {
+        int neighbours [] = neighbours ();
+
+        for (int i = 0; i < neighbours.length; ++i) {
+            Socket socket = null;
+            try {
+                socket = new Socket (host, basePort + neighbours [i]);
+                DataOutputStream out = new DataOutputStream (new BufferedOutputStream (socket.getOutputStream ()));
+
+                out.writeInt (chromosomes.length);
+                for (int k = 0; k < chromosomes.length; ++k) {
+                    out.writeInt (chromosomes [k].length);
+                    for (int locus = 0; locus < chromosomes [k].length; ++locus) {
+                        out.writeInt (chromosomes [k][locus]);
+                    }
+                }
+
+                out.flush ();
+            }
+            catch (IOException e) {
+                // The neighbour isn't listening, its migrants are lost
+                Logger.getLogger (SocketMigration.class.getName ()).log (Level.INFO, "Island " + neighbours [i] + " unreachable");
+            }
+            finally {
+                try {
+                    if (socket != null) {
+                        socket.close ();
+                    }
+                }
+                catch (IOException ex) {
+                    Logger.getLogger (SocketMigration.class.getName ()).log (Level.SEVERE, null, ex);
+                }
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the chromosomes received since the last time it was executed.
+     * @return Chromosomes received (it can be empty).
+     */
+    public int [][] receive () {
+        synchronized (received) {
+            int chromosomes [][] = received.toArray (new int [received.size ()][]);
+            received.clear ();
+
+            return chromosomes;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Stops listening.
+     */
+    public void close () {
+        try {
+            server.close ();
+        }
+        catch (IOException ex) {
+            Logger.getLogger (SocketMigration.class.getName ()).log (Level.SEVERE, null, ex);
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Accepts shipments until the channel is closed.
+     */
+    private void listen () {
+        while (!server.isClosed ()) {
+            Socket socket = null;
+            try {
+                socket = server.accept ();
+                socket.setSoTimeout (READ_TIMEOUT);
+                DataInputStream in = new DataInputStream (new BufferedInputStream (socket.getInputStream ()));
+
+                int count = in.readInt ();
+                if (count < 0 || count > MAX_MIGRANTS) {
+                    throw new IOException ("Invalid number of migrants: " + count);
+                }
+
+                List <int []> shipment = new ArrayList <int []> (count);
+
+                for (int k = 0; k < count; ++k) {
+                    int length = in.readInt ();
+                    if (length < 0 || length > MAX_GENES) {
+                        throw new IOException ("Invalid chromosome size: " + length);
+                    }
+
+                    int genes [] = new int [length];
+                    for (int locus = 0; locus < genes.length; ++locus) {
+                        genes [locus] = in.readInt ();
+                    }
+
+                    shipment.add (genes);
+                }
+
+                synchronized (received) {
+                    received.addAll (shipment);
+                }
+            }
+            catch (IOException e) {
+                // The channel has been closed or the shipment was incomplete, too
+                // slow or invalid (it is discarded)
+            }
+            catch (RuntimeException e) {
+                // A wrong shipment mustn't stop the listener
+                Logger.getLogger (SocketMigration.class.getName ()).log (Level.WARNING, null, e);
+            }
+            finally {
+                try {
+                    if (socket != null) {
+                        socket.close ();
+                    }
+                }
+                catch (IOException ex) {
+                    Logger.getLogger (SocketMigration.class.getName ()).log (Level.SEVERE, null, ex);
+                }
+            }
+        }
+    }
+}
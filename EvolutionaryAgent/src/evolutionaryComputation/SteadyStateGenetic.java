@@ -0,0 +1,453 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import enumTypes.ReplacementType;
+import java.util.ArrayList;
+import java.util.List;
+import knowledge.Memoria;
+import utilities.Copycat;
+
+
+/**
+ * This class implements a steady-state genetic algorithm. There is no barrier
+ * between generations: as soon as an evaluator finishes putting an individual
+ * to the test, the offspring is inserted into the population and a new one is
+ * bred from parents chosen by the selection operator (a tournament by default).
+ * This way, evaluators never sit idle waiting for the slowest match of the
+ * generation.
+ *
+ * Since there are no generations as such, a generation is considered to be over
+ * each time as many offspring as individuals in the population have been
+ * inserted.
+ *
+ * The algorithm can still be driven sequentially (testIndividual, store and
+ * nextGeneration), in which case each new generation is bred from the selected
+ * parents keeping the elite.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class SteadyStateGenetic extends GeneticAlg {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Number of individuals taking part in each tournament */
+    public static final int TOURNAMENT_SIZE = 3;
+    /** Name of the state in the data base (evaluated individuals, individuals
+     handed out and births) */
+    private static final String STATE = "SteadyState";
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Policy used to choose which individual is replaced by a new offspring */
+    protected ReplacementType replacementType;
+    /** It indicates which individuals of the population have already been evaluated */
+    protected boolean evaluated [];
+    /** Number of individuals of the population that have already been evaluated */
+    protected int evaluatedCount;
+    /** Number of offspring inserted in the population since the algorithm started */
+    protected int births;
+    /** Ranking of the current population, used for elitism */
+    private final FitnessRanking ranking = new FitnessRanking ();
+    /** Tournament used to choose the individual replaced by a new offspring */
+    private final SelectionOperator replacementOperator = new TournamentSelection (TOURNAMENT_SIZE);
+    /** Fitness of the individuals that have already been evaluated */
+    private double fitness [];
+    /** Fitness of the individuals that have already been evaluated, with the sign
+     changed (the replacement tournament looks for the worst one) */
+    private double negatedFitness [];
+    /** Individuals that aren't in the population anymore, reused by breed */
+    private final List <Individual> released = new ArrayList <Individual> ();
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * It initializes the steady-state genetic algorithm using the information stored
+     * in the data base. If there isn't any information available, it generates the
+     * first population. Unless the configuration says otherwise, the individuals
+     * use a non linear fitness and the parents are chosen by tournament.
+     * @param config Parameters of the algorithm. Its number of generations counts
+     * as many offspring as individuals in the population per generation.
+     * @param replacementType Policy used to choose which individual is replaced by
+     * a new offspring.
+     * @param memory Data Base controller.
+     */
+    public SteadyStateGenetic (GeneticConfig config, ReplacementType replacementType, Memoria memory) {
+        super (config, new NonLinearFitness ());
+
+        if (selectionOperator == null) {
+            selectionOperator = new TournamentSelection (TOURNAMENT_SIZE);
+        }
+
+        this.replacementType = replacementType;
+        evaluated = new boolean [population.length];
+
+        // Load stored information in the data base. If no information is available
+        // then initialize everything randomly
+        initialize (memory);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get a new individual to be put to the test. While there are individuals of
+     * the first population that haven't been handed out, a copy of them is returned.
+     * Otherwise, an offspring of two selected parents is bred. If there aren't
+     * enough evaluated individuals to choose two parents, a random individual is
+     * returned.
+     * Once it has been evaluated, it MUST BE handed back through insert.
+     * @return Individual to be tested (with its stats set to 0).
+     */
+    public synchronized Individual breed () {
+        Individual offspring = released.isEmpty () ? factory.create (false) : released.remove (released.size () - 1);
+
+        if (currentIndividual < population.length) {
+            copyGenes (population [currentIndividual], offspring);
+            offspring.resetStats ();
+            currentIndividual = currentIndividual + 1;
+        }
+        else if (evaluatedCount < 2) {
+            offspring.createRandomIndividual ();
+            offspring.resetStats ();
+        }
+        else {
+            prepareSelection ();
+            breed (selectionOperator.select (), offspring);
+        }
+
+        return offspring;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Inserts an individual that has already been evaluated into the population.
+     * While the first population is being evaluated, it takes the place of one of
+     * the individuals that haven't been evaluated yet. Otherwise, the replacement
+     * policy decides which individual it replaces (if any). Every time a generation
+     * is over the population is written down and, if it was the last one, the
+     * result is stored (@see storeResult) and the algorithm restarts.
+     * @param offspring Individual that has been evaluated (@see breed).
+     * @param memory Data Base controller. If it is null, the result isn't stored.
+     */
+    public synchronized void insert (Individual offspring, Memoria memory) {
+        if (evaluatedCount < population.length) {
+            // The evaluated individuals are always the first ones. The one the
+            // offspring is a copy of is moved to its slot, so the individuals that
+            // are still being evaluated are always the ones between evaluatedCount
+            // and currentIndividual
+            int slot = evaluatedCount;
+            int original = originalOf (offspring);
+
+            if (original > slot) {
+                Individual aux = population [slot];
+                population [slot] = population [original];
+                population [original] = aux;
+            }
+
+            released.add (population [slot]);
+            population [slot] = offspring;
+            evaluated [slot] = true;
+            evaluatedCount = evaluatedCount + 1;
+        }
+        else if (replacementType == ReplacementType.WORST) {
+            int worst = worstIndividual ();
+
+            if (offspring.fitness () >= population [worst].fitness ()) {
+                released.add (population [worst]);
+                population [worst] = offspring;
+            }
+            else {
+                released.add (offspring);
+            }
+        }
+        else {
+            prepareSelection ();
+            int loser = replacementOperator.select ();
+
+            released.add (population [loser]);
+            population [loser] = offspring;
+        }
+
+        births = births + 1;
+
+        if (births % population.length == 0) {
+            // Write down the results
+            Copycat.copyPopulation (currentGeneration, population);
+            if (memory != null) {
+                storeHistory (memory);
+            }
+
+            currentGeneration = currentGeneration + 1;
+
+            if (currentGeneration == GENERATIONS) {
+                if (memory != null) {
+                    storeResult (memory);
+                }
+
+                // Restart execution
+                restart ();
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Breeds, evaluates and inserts the given number of offspring using several
+     * evaluators at the same time (one thread per evaluator). Each thread breeds a
+     * new offspring as soon as it inserts the previous one, so no thread waits for
+     * the others. It returns once every offspring has been inserted.
+     * @param evaluators Evaluators to be used. Each one is used by one thread only.
+     * @param matches Number of evaluations each offspring has to go through.
+     * @param offspring Number of offspring to be inserted.
+     * @param memory Data Base controller. It can be null.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public void run (final FitnessEvaluator evaluators [], final int matches, final int offspring, final Memoria memory) throws InterruptedException {
+        // Number of offspring that have been handed out to the threads
+        final int handedOut [] = {0};
+
+        Thread workers [] = new Thread [evaluators.length];
+
+        for (int i = 0; i < evaluators.length; ++i) {
+            final FitnessEvaluator evaluator = evaluators [i];
+
+            workers [i] = new Thread ("Evaluator-" + i) {
+                public void run () {
+                    while (true) {
+                        synchronized (handedOut) {
+                            if (handedOut [0] == offspring) {
+                                return;
+                            }
+
+                            handedOut [0] = handedOut [0] + 1;
+                        }
+
+                        Individual individual = breed ();
+                        for (int match = 0; match < matches; ++match) {
+                            evaluator.evaluate (individual);
+                        }
+
+                        insert (individual, memory);
+                    }
+                }
+            };
+
+            workers [i].start ();
+        }
+
+        for (int i = 0; i < workers.length; ++i) {
+            workers [i].join ();
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Restarts the execution of the algorithm, generating a random population
+     * that hasn't been evaluated.
+     */
+    protected void restart () {
+        super.restart ();
+
+        for (int i = 0; i < evaluated.length; ++i) {
+            evaluated [i] = false;
+        }
+
+        evaluatedCount = 0;
+        births = 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Only used when the algorithm is driven sequentially. The whole population
+     * has been evaluated, so a new one is bred from the selected parents. The
+     * elite survives.
+     */
+    public synchronized void selection () {
+        for (int i = 0; i < evaluated.length; ++i) {
+            evaluated [i] = true;
+        }
+        evaluatedCount = population.length;
+
+        // Rank the individuals based on their fitness (from the worst to the best)
+        ranking.rank (population);
+        selectionOperator.prepare (ranking.fitness ());
+
+        // The new population is written over the individuals of the spare one
+        Individual newPopulation [] = sparePopulation ();
+        int elite = Math.min (elitism, newPopulation.length);
+
+        for (int i = 0; i < elite; ++i) {
+            copyGenes (population [ranking.best (i)], newPopulation [i]);
+            newPopulation [i].resetStats ();
+        }
+
+        for (int i = elite; i < newPopulation.length; ++i) {
+            breed (selectionOperator.select (), newPopulation [i]);
+        }
+
+        swapPopulations ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Prepares the selection and the replacement operators with the fitness of
+     * the individuals that have already been evaluated (the first ones of the
+     * population).
+     */
+    private void prepareSelection () {
+        if (fitness == null || fitness.length != evaluatedCount) {
+            fitness = new double [evaluatedCount];
+            negatedFitness = new double [evaluatedCount];
+        }
+
+        for (int i = 0; i < evaluatedCount; ++i) {
+            fitness [i] = population [i].fitness ();
+            negatedFitness [i] = -fitness [i];
+        }
+
+        selectionOperator.prepare (fitness);
+        replacementOperator.prepare (negatedFitness);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Look for the individual of the first population an offspring is a copy of,
+     * among the ones that have been handed out but not evaluated yet.
+     * @param offspring Individual handed out by breed.
+     * @return Position of the individual with the same chromosome, or -1 if there
+     * isn't any.
+     */
+    private int originalOf (Individual offspring) {
+        for (int i = evaluatedCount; i < Math.min (currentIndividual, population.length); ++i) {
+            boolean same = true;
+
+            for (int k = 0; k < chromosomeSize && same; ++k) {
+                same = population [i].getGene (k) == offspring.getGene (k);
+            }
+
+            if (same) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Look for the worst individual (the one with the smallest fitness) of the
+     * population.
+     * @return Position of the worst individual.
+     */
+    private int worstIndividual () {
+        int pos = 0;
+        for (int i = 1; i < population.length; ++i) {
+            if (population [i].fitness () < population [pos].fitness ()) {
+                pos = i;
+            }
+        }
+
+        return pos;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Load all the genetic algorithm information stored in the data base. The
+     * individuals that had been handed out but not evaluated lost their results,
+     * so they are handed out again. If the number of evaluated individuals isn't
+     * stored (old data bases), the ones before the current one are considered
+     * to be evaluated.
+     * @param memory Data Base controller.
+     */
+    public boolean load (Memoria memory) {
+        boolean success = memory.loadPoblacion (population, population [0].chromosomeSize ());
+
+        currentGeneration = memory.loadGeneration ();
+        currentMatch = memory.loadIteration ();
+
+        double state [] = memory.loadState (STATE);
+
+        if (state != null && state.length == 3 && state [0] >= 0 && state [0] <= state [1] && state [1] <= population.length) {
+            evaluatedCount = (int) state [0];
+            births = (int) state [2];
+        }
+        else {
+            evaluatedCount = Math.min (memory.loadCurrent (), population.length);
+            births = currentGeneration * population.length + evaluatedCount;
+        }
+
+        for (int i = 0; i < evaluated.length; ++i) {
+            evaluated [i] = i < evaluatedCount;
+        }
+
+        currentIndividual = evaluatedCount;
+
+        return success;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Store all the genetic algorithm information in the data base, in a single
+     * transaction. The number of evaluated individuals and the number of
+     * individuals handed out are stored apart (@see load). It waits until no
+     * offspring is being inserted.
+     * @param memory Data Base controller.
+     */
+    public synchronized void store (final Memoria memory) {
+        memory.transaccion (new Runnable () {
+            public void run () {
+                memory.storeGenes (currentIndividual, currentGeneration, currentMatch, population);
+                memory.storeState (STATE, new double [] {evaluatedCount, currentIndividual, births});
+
+                if (cache != null) {
+                    memory.storeFitnessCache (cache);
+                }
+            }
+        });
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a copy of the algorithm that can be stored in another thread. It
+     * waits until no offspring is being bred or inserted.
+     * @return Copy of the algorithm, only meant to be stored.
+     */
+    public synchronized GeneticAlg snapshot () {
+        return super.snapshot ();
+    }
+}
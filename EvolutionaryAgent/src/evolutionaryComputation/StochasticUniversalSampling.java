@@ -0,0 +1,152 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements stochastic universal sampling. Instead of spinning the
+ * wheel once per parent, it spins it once per generation and takes the parents
+ * at evenly spaced pointers, so the number of times each individual is selected
+ * is as close as possible to its expected value. The parents are handed out in
+ * random order.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class StochasticUniversalSampling extends SelectionOperator {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Fitness of each individual */
+    private double fitness [];
+    /** Total amount of (non negative) fitness */
+    private double total;
+    /** Parents sampled and not handed out yet */
+    private int sample [];
+    /** Next parent of the sample to be handed out */
+    private int next;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Prepares the operator for a new generation.
+     * @param fitness Fitness of each individual of the population.
+     */
+    public void prepare (double fitness []) {
+        this.fitness = fitness;
+        size = fitness.length;
+        total = totalFitness (fitness);
+
+        if (sample == null || sample.length != size) {
+            sample = new int [size];
+        }
+
+        // Force a new sample on the next selection
+        next = size;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects a parent. Every "population size" selections form a whole sample.
+     * @return Position of the selected individual.
+     */
+    public int select () {
+        if (next >= size) {
+            sample (sample);
+            shuffle (sample);
+            next = 0;
+        }
+
+        next = next + 1;
+        return sample [next - 1];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Selects several parents with a single spin of the wheel.
+     * @param parents Array where the positions of the selected individuals are
+     * written.
+     */
+    public void select (int parents []) {
+        sample (parents);
+        shuffle (parents);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Spins the wheel once and takes as many parents as the size of the array,
+     * in the order of the population.
+     * @param parents Array where the positions of the selected individuals are
+     * written.
+     */
+    private void sample (int parents []) {
+        RandomStream random = RandomService.current ();
+
+        if (total <= 0) {
+            for (int i = 0; i < parents.length; ++i) {
+                parents [i] = uniform (random);
+            }
+            return;
+        }
+
+        double distance = total / parents.length;
+        double pointer = random.nextDouble () * distance;
+
+        double accumulated = Math.max (fitness [0], 0);
+        int individual = 0;
+
+        for (int i = 0; i < parents.length; ++i) {
+            while (accumulated <= pointer && individual < size - 1) {
+                individual = individual + 1;
+                accumulated = accumulated + Math.max (fitness [individual], 0);
+            }
+
+            parents [i] = individual;
+            pointer = pointer + distance;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Shuffles the parents, so consecutive parents aren't always neighbours.
+     * @param parents Positions of the selected individuals.
+     */
+    private void shuffle (int parents []) {
+        RandomStream random = RandomService.current ();
+
+        for (int i = parents.length - 1; i > 0; --i) {
+            int k = random.nextInt (i + 1);
+
+            int aux = parents [i];
+            parents [i] = parents [k];
+            parents [k] = aux;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+
+/**
+ * This class is meant to facilitate trials with different surrogate models. A
+ * surrogate learns the fitness of the chromosomes that have already been put to
+ * the test, so it can predict the fitness of new chromosomes without playing any
+ * match. The genetic algorithm uses it to discard the offspring that are likely
+ * to be bad before they are evaluated.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public abstract class SurrogateModel {
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Learns the fitness of a chromosome. It is meant to be executed every time
+     * an individual has been evaluated, so the model is trained incrementally.
+     * @param genes Chromosome of the individual (it isn't modified).
+     * @param fitness Fitness of the individual.
+     */
+    public abstract void learn (int genes [], double fitness);
+
+    //__________________________________________________________________________
+
+    /**
+     * Predicts the fitness of a chromosome.
+     * @param genes Chromosome of the individual (it isn't modified).
+     * @return Predicted fitness.
+     */
+    public abstract double predict (int genes []);
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the number of chromosomes the model has learnt from.
+     * @return Number of samples.
+     */
+    public abstract int size ();
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the model has learnt enough to make predictions. Until then, the
+     * genetic algorithm shouldn't trust them.
+     * @return True if the predictions can be used.
+     */
+    public boolean isReady () {
+        return size () > 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Learns the fitness of an individual that has been evaluated.
+     * @param individual Individual that has been evaluated.
+     */
+    public void learn (Individual individual) {
+        learn (genes (individual), individual.fitness ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Predicts the fitness of an individual.
+     * @param individual Individual whose fitness is predicted.
+     * @return Predicted fitness.
+     */
+    public double predict (Individual individual) {
+        return predict (genes (individual));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Copies the chromosome of an individual (views over a population matrix
+     * don't have their own array).
+     * @param individual Individual to be copied.
+     * @return Values of the genes.
+     */
+    private static int [] genes (Individual individual) {
+        int genes [] = new int [individual.chromosomeSize ()];
+        for (int i = 0; i < genes.length; ++i) {
+            genes [i] = individual.getGene (i);
+        }
+
+        return genes;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements k-tournament selection: k random individuals take part
+ * in a tournament and the one with the biggest fitness wins. The bigger the
+ * tournament, the bigger the selective pressure.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class TournamentSelection extends SelectionOperator {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Number of individuals taking part in each tournament */
+    private final int tournamentSize;
+    /** Fitness of each individual */
+    private double fitness [];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param tournamentSize Number of individuals taking part in each tournament.
+     */
+    public TournamentSelection (int tournamentSize) {
+        this.tournamentSize = tournamentSize;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Prepares the operator for a new generation.
+     * @param fitness Fitness of each individual of the population.
+     */
+    public void prepare (double fitness []) {
+        this.fitness = fitness;
+        size = fitness.length;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Holds a tournament.
+     * @return Position of the winner.
+     */
+    public int select () {
+        RandomStream random = RandomService.current ();
+
+        int winner = uniform (random);
+        for (int i = 1; i < tournamentSize; ++i) {
+            int contender = uniform (random);
+
+            if (fitness [contender] > fitness [winner]) {
+                winner = contender;
+            }
+        }
+
+        return winner;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package evolutionaryComputation;
+
+import utilities.RandomService;
+import utilities.RandomStream;
+
+
+/**
+ * This class implements a two point crossover: the offspring gets the genes of
+ * the female between two random cut points and the genes of the male elsewhere.
+ * The sibling gets the opposite segments.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class TwoPointCrossover extends CrossoverType {
+
+    /**
+     * Crossover phase. Mate two different Individuals.
+     * @param male One individual.
+     * @param female Another individual.
+     * @param offspring Resulting individual. IT CAN'T BE a null pointer, it must
+     * be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
+     */
+    public void crossover (Individual male, Individual female, Individual offspring, Individual sibling) {
+        RandomStream random = RandomService.current ();
+        int size = offspring.chromosomeSize ();
+
+        // The segment [first, second) is never empty and never the whole chromosome
+        int first = 0;
+        int second = size;
+        if (size > 1) {
+            first = random.nextInt (0, size - 1);
+            second = random.nextInt (first + 1, (first == 0) ? size - 1 : size);
+        }
+
+        for (int locus = 0; locus < size; ++locus) {
+            int maleGene = gene (male, female, locus);
+            int femaleGene = gene (female, male, locus);
+            boolean fromMale = locus < first || locus >= second;
+
+            offspring.setGene (locus, fromMale ? maleGene : femaleGene);
+            if (sibling != null) {
+                sibling.setGene (locus, fromMale ? femaleGene : maleGene);
+            }
+        }
+
+        finish (offspring, sibling);
+    }
+}
@@ -14,10 +14,15 @@
 
 package evolutionaryComputation;
 
+import utilities.RandomService;
+import utilities.RandomStream;
+
 
 /**
- * This class implements a uniform crossover where each gene of two individuals
- * has 50% chance of reaching the offspring.
+ * This class implements a uniform crossover where each gene of the offspring
+ * comes from one of the parents. By default each parent has 50% chance of
+ * passing each gene, but the crossover can be biased towards the first parent
+ * (the male). The sibling gets the genes that the offspring didn't get.
  *
  * @author Francisco Aisa Garcia
  */
@@ -25,34 +30,63 @@ package evolutionaryComputation;
 
 public class UniformCrossover extends CrossoverType {
 
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Probability of a gene coming from the male */
+    private final double bias;
+
+
     // *************************************************************************
     //                                METHODS
     // *************************************************************************
 
 
+    /** Default constructor, both parents have the same chance */
+    public UniformCrossover () {
+        this (0.5);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param bias Probability of a gene coming from the male (between 0 and 1).
+     */
+    public UniformCrossover (double bias) {
+        if (bias < 0 || bias > 1) {
+            throw new IllegalArgumentException ("The bias must be between 0 and 1");
+        }
+
+        this.bias = bias;
+    }
+
+    //__________________________________________________________________________
+
     /**
      * Crossover phase. Mate two different Individuals.
      * @param male One individual.
      * @param female Another individual.
      * @param offspring Resulting individual. IT CAN'T BE a null pointer, it must
      * be a valid object.
+     * @param sibling Second resulting individual, or null if only one is wanted.
      */
-    public void crossover (Individual male, Individual female, Individual offspring) {
-        int maleChromosomeSize = male.chromosomeSize ();
-        int femaleChromosomeSize = female.chromosomeSize ();
-
-        if (maleChromosomeSize != femaleChromosomeSize) {
-            //Individual offspring = new IndividualV1 (false);
-            for (int locus = 0; locus < maleChromosomeSize; ++locus) {
-                double probability = Math.random ();
-
-                if (probability > 0.5) {
-                    offspring.setGene (locus, male.getGene (locus));
-                }
-                else {
-                    offspring.setGene (locus, female.getGene (locus));
-                }
+    public void crossover (Individual male, Individual female, Individual offspring, Individual sibling) {
+        RandomStream random = RandomService.current ();
+
+        for (int locus = 0; locus < offspring.chromosomeSize (); ++locus) {
+            int maleGene = gene (male, female, locus);
+            int femaleGene = gene (female, male, locus);
+            boolean fromMale = random.nextDouble () < bias;
+
+            offspring.setGene (locus, fromMale ? maleGene : femaleGene);
+            if (sibling != null) {
+                sibling.setGene (locus, fromMale ? femaleGene : maleGene);
             }
         }
+
+        finish (offspring, sibling);
     }
 }
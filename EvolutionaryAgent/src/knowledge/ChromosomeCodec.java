@@ -0,0 +1,252 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package knowledge;
+
+
+/**
+ * This class packs a chromosome into a single array of bytes (to be stored as a
+ * BLOB in the data base) and unpacks it. The array starts with a header: the
+ * version of the format, the kind of encoding and the number of genes (so
+ * chromosomes of different sizes can be stored in the same table). The genes
+ * follow, either as variable length integers (small values take a single byte)
+ * or, if it is shorter, as 4 bytes integers.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class ChromosomeCodec {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Version of the format */
+    public static final int VERSION = 1;
+    /** Encoding where each gene is a zigzag variable length integer */
+    private static final int VARINT = 0;
+    /** Encoding where each gene takes 4 bytes (big endian) */
+    private static final int FIXED = 1;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Packs a chromosome.
+     * @param genes Array that contains the genes.
+     * @param offset Position of the first gene in the array.
+     * @param length Number of genes.
+     * @return Packed chromosome.
+     */
+    public static byte [] encode (int genes [], int offset, int length) {
+        int varintSize = 0;
+        for (int i = offset; i < offset + length; ++i) {
+            varintSize = varintSize + varintSize (zigzag (genes [i]));
+        }
+
+        int encoding = (varintSize <= 4 * length) ? VARINT : FIXED;
+        int payload = (encoding == VARINT) ? varintSize : 4 * length;
+
+        byte blob [] = new byte [2 + varintSize (length) + payload];
+        blob [0] = (byte) VERSION;
+        blob [1] = (byte) encoding;
+
+        int position = writeVarint (blob, 2, length);
+        for (int i = offset; i < offset + length; ++i) {
+            if (encoding == VARINT) {
+                position = writeVarint (blob, position, zigzag (genes [i]));
+            }
+            else {
+                blob [position++] = (byte) (genes [i] >>> 24);
+                blob [position++] = (byte) (genes [i] >>> 16);
+                blob [position++] = (byte) (genes [i] >>> 8);
+                blob [position++] = (byte) genes [i];
+            }
+        }
+
+        return blob;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Packs a chromosome.
+     * @param genes Genes of the chromosome.
+     * @return Packed chromosome.
+     */
+    public static byte [] encode (int genes []) {
+        return encode (genes, 0, genes.length);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the number of genes of a packed chromosome.
+     * @param blob Packed chromosome.
+     * @return Number of genes.
+     * @throws IllegalArgumentException If the format isn't valid.
+     */
+    public static int length (byte blob []) {
+        checkHeader (blob);
+        return (int) readVarint (blob, 2);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Unpacks a chromosome into an array. If the array is too small, only the
+     * first genes are unpacked.
+     * @param blob Packed chromosome.
+     * @param genes Array where the genes are written.
+     * @param offset Position of the first gene in the array.
+     * @return Number of genes of the chromosome.
+     * @throws IllegalArgumentException If the format isn't valid.
+     */
+    public static int decode (byte blob [], int genes [], int offset) {
+        checkHeader (blob);
+
+        long header = readVarint (blob, 2);
+        int length = (int) header;
+        int position = (int) (header >>> 32);
+        int count = Math.min (length, genes.length - offset);
+
+        if (blob [1] == VARINT) {
+            for (int i = 0; i < count; ++i) {
+                long value = readVarint (blob, position);
+                genes [offset + i] = unzigzag ((int) value);
+                position = (int) (value >>> 32);
+            }
+        }
+        else {
+            if (position + 4 * count > blob.length) {
+                throw new IllegalArgumentException ("Truncated chromosome");
+            }
+
+            for (int i = 0; i < count; ++i, position += 4) {
+                genes [offset + i] = ((blob [position] & 0xFF) << 24) | ((blob [position + 1] & 0xFF) << 16)
+                                   | ((blob [position + 2] & 0xFF) << 8) | (blob [position + 3] & 0xFF);
+            }
+        }
+
+        return length;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Unpacks a chromosome into a new array.
+     * @param blob Packed chromosome.
+     * @return Genes of the chromosome.
+     * @throws IllegalArgumentException If the format isn't valid.
+     */
+    public static int [] decode (byte blob []) {
+        int genes [] = new int [length (blob)];
+        decode (blob, genes, 0);
+
+        return genes;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks the header of a packed chromosome.
+     * @param blob Packed chromosome.
+     * @throws IllegalArgumentException If the format isn't valid.
+     */
+    private static void checkHeader (byte blob []) {
+        if (blob == null || blob.length < 3 || blob [0] != VERSION || (blob [1] != VARINT && blob [1] != FIXED)) {
+            throw new IllegalArgumentException ("Unknown chromosome format");
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /** Maps signed integers to unsigned ones, so small negative values stay small */
+    private static int zigzag (int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    //__________________________________________________________________________
+
+    /** Inverse of zigzag */
+    private static int unzigzag (int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    //__________________________________________________________________________
+
+    /** Number of bytes of an unsigned variable length integer */
+    private static int varintSize (int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value = value >>> 7;
+            ++size;
+        }
+
+        return size;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Writes an unsigned variable length integer (7 bits per byte, the highest bit
+     * tells if there are more bytes).
+     * @param blob Array where it is written.
+     * @param position Position of the first byte.
+     * @return Position after the last byte.
+     */
+    private static int writeVarint (byte blob [], int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            blob [position++] = (byte) ((value & 0x7F) | 0x80);
+            value = value >>> 7;
+        }
+        blob [position++] = (byte) value;
+
+        return position;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Reads an unsigned variable length integer.
+     * @param blob Array where it is read.
+     * @param position Position of the first byte.
+     * @return The value (lowest 32 bits) and the position after the last byte
+     * (highest 32 bits).
+     * @throws IllegalArgumentException If the array ends before the integer.
+     */
+    private static long readVarint (byte blob [], int position) {
+        int value = 0;
+        int shift = 0;
+
+        while (true) {
+            if (position >= blob.length || shift > 28) {
+                throw new IllegalArgumentException ("Truncated chromosome");
+            }
+
+            byte b = blob [position++];
+            value = value | ((b & 0x7F) << shift);
+            shift = shift + 7;
+
+            if ((b & 0x80) == 0) {
+                return ((long) position << 32) | (value & 0xFFFFFFFFL);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import cz.cuni.amis.pogamut.ut2004.agent.module.sensor.AgentInfo;
 import cz.cuni.amis.pogamut.ut2004.agent.module.sensor.Game;
 import cz.cuni.amis.pogamut.ut2004.agent.module.sensor.Items;
 import cz.cuni.amis.pogamut.ut2004.bot.command.CompleteBotCommandsWrapper;
+import cz.cuni.amis.pogamut.ut2004.communication.messages.ItemType;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.HearPickup;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Item;
 import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.NavPoint;
@@ -91,6 +92,12 @@ public class EnemyInfo {
     /** Constant that identifies the position of the sniper rifle in the arsenal vector */
     public final static int SNIPER_RIFLE = 8;
 
+    /** Type of the weapon that corresponds to each position of the arsenal vector
+     (the lightning gun shares its position with the sniper rifle) */
+    public final static ItemType ARSENAL_TYPES [] = {ItemType.SHIELD_GUN, ItemType.ASSAULT_RIFLE, ItemType.BIO_RIFLE,
+                                                     ItemType.LINK_GUN, ItemType.MINIGUN, ItemType.FLAK_CANNON,
+                                                     ItemType.ROCKET_LAUNCHER, ItemType.SHOCK_RIFLE, ItemType.SNIPER_RIFLE};
+
 
     // *************************************************************************
     //                               METHODS
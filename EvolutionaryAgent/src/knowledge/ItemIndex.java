@@ -0,0 +1,269 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package knowledge;
+
+import cz.cuni.amis.pogamut.ut2004.communication.messages.ItemType;
+import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * This class keeps the items known in a map, indexed by their id and by their
+ * type (category and group), so the items of a category or a group are found
+ * without going through the rest. It also remembers which items are already
+ * stored in the data base, so only the new ones (or the ones that have changed)
+ * are written at the end of the match.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class ItemIndex {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Map of the game (null if it isn't known) */
+    private final String map;
+    /** Type of each item, indexed by its id */
+    private final Map <String, Type> items;
+    /** Ids of the items of each group, indexed by their category */
+    private final Map <ItemType.Category, Map <ItemType.Group, Set <String>>> categories;
+    /** Type of the items as they are stored in the data base, indexed by their id */
+    private final Map <String, Type> stored;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param map Map of the game (null if it isn't known).
+     */
+    public ItemIndex (String map) {
+        this.map = map;
+        items = new HashMap <String, Type> ();
+        categories = new EnumMap <ItemType.Category, Map <ItemType.Group, Set <String>>> (ItemType.Category.class);
+        stored = new HashMap <String, Type> ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the map of the game.
+     * @return Map of the game (null if it isn't known).
+     */
+    public String getMap () {
+        return map;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds an item that has been seen in the game.
+     * @param item Item.
+     * @return True if the item wasn't known (or its type has changed).
+     */
+    public boolean add (Item item) {
+        return add (item.getId ().getStringId (), item.getType ().getCategory (), item.getType ().getGroup ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds an item.
+     * @param id Id of the item.
+     * @param category Category of the item.
+     * @param group Group of the item.
+     * @return True if the item wasn't known (or its type has changed).
+     */
+    public synchronized boolean add (String id, ItemType.Category category, ItemType.Group group) {
+        id = id.intern ();
+        Type type = new Type (category, group);
+        Type previous = items.put (id, type);
+
+        if (type.equals (previous)) {
+            return false;
+        }
+
+        if (previous != null) {
+            categories.get (previous.category).get (previous.group).remove (id);
+        }
+
+        Map <ItemType.Group, Set <String>> groups = categories.get (category);
+        if (groups == null) {
+            groups = new EnumMap <ItemType.Group, Set <String>> (ItemType.Group.class);
+            categories.put (category, groups);
+        }
+
+        Set <String> ids = groups.get (group);
+        if (ids == null) {
+            ids = new LinkedHashSet <String> ();
+            groups.put (group, ids);
+        }
+        ids.add (id);
+
+        return true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Adds an item that is already stored in the data base.
+     * @param id Id of the item.
+     * @param category Category of the item.
+     * @param group Group of the item.
+     */
+    public synchronized void addStored (String id, ItemType.Category category, ItemType.Group group) {
+        add (id, category, group);
+        stored.put (id.intern (), new Type (category, group));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the items of a category.
+     * @param category Category of the items.
+     * @return Ids of the items of each group of the category (it can't be modified).
+     */
+    public synchronized Map <ItemType.Group, Set <String>> category (ItemType.Category category) {
+        Map <ItemType.Group, Set <String>> groups = categories.get (category);
+
+        if (groups == null) {
+            return Collections.emptyMap ();
+        }
+
+        return Collections.unmodifiableMap (groups);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the items of a group.
+     * @param category Category of the items.
+     * @param group Group of the items.
+     * @return Ids of the items (it can't be modified).
+     */
+    public synchronized Set <String> group (ItemType.Category category, ItemType.Group group) {
+        Set <String> ids = category (category).get (group);
+
+        if (ids == null) {
+            return Collections.emptySet ();
+        }
+
+        return Collections.unmodifiableSet (ids);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the number of items.
+     * @return Number of items known.
+     */
+    public synchronized int size () {
+        return items.size ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Get the items that have to be written in the data base. If the map is
+     * different from the map of the index, every item has to be written.
+     * @param map Map of the game.
+     * @return Rows of the table Item (id, tipo, nombre and mapa) of the items
+     * that aren't stored yet or whose type has changed.
+     */
+    public synchronized List <String []> pending (String map) {
+        boolean all = !map.equals (this.map);
+        List <String []> rows = new ArrayList <String []> ();
+
+        for (Map.Entry <String, Type> item : items.entrySet ()) {
+            Type type = item.getValue ();
+
+            if (all || !type.equals (stored.get (item.getKey ()))) {
+                rows.add (new String [] {item.getKey (), type.category.name (), type.group.name (), map});
+            }
+        }
+
+        return rows;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Marks some items as stored in the data base. The rows of other maps are ignored.
+     * @param rows Rows of the table Item (id, tipo, nombre and mapa) that have been written.
+     */
+    public synchronized void stored (List <String []> rows) {
+        for (String row [] : rows) {
+            if (row [3].equals (map)) {
+                stored.put (row [0].intern (), new Type (ItemType.Category.valueOf (row [1]), ItemType.Group.valueOf (row [2])));
+            }
+        }
+    }
+
+
+    // *************************************************************************
+    //                              NESTED CLASSES
+    // *************************************************************************
+
+
+    /**
+     * Type of an item (its category and its group).
+     */
+    private static class Type {
+        /** Category of the item */
+        private final ItemType.Category category;
+        /** Group of the item */
+        private final ItemType.Group group;
+
+        /**
+         * Argument based constructor.
+         * @param category Category of the item.
+         * @param group Group of the item.
+         */
+        private Type (ItemType.Category category, ItemType.Group group) {
+            this.category = category;
+            this.group = group;
+        }
+
+        @Override
+        public int hashCode () {
+            return 31 * category.hashCode () + group.hashCode ();
+        }
+
+        @Override
+        public boolean equals (Object other) {
+            if (!(other instanceof Type)) {
+                return false;
+            }
+
+            Type type = (Type) other;
+            return category == type.category && group == type.group;
+        }
+    }
+}
@@ -19,9 +19,11 @@ import cz.cuni.amis.pogamut.ut2004.communication.messages.gbinfomessages.Item;
 import evolutionaryComputation.*;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import utilities.Pair;
@@ -36,11 +38,14 @@ import utilities.Pair;
 
 public class Memoria {
 
-    /** DB's name. */
+    /** Default DB's name. */
     private static String BDNAME = "Memoria.db";
     /** Debug mode. */
     private static Boolean DEBUG = false;
 
+    /** Name of the DB used by this object. */
+    private String bdName = BDNAME;
+
     /** Contains all the weapons related to a certain level. */
     public static Map <String, Pair<String, Boolean> > weapon = new HashMap<String, Pair <String, Boolean> > ();
     /** Contains all the shield items related to a certain level. */
@@ -51,6 +56,23 @@ public class Memoria {
     public static Map <String, Set <String> > ammo = new HashMap<String, Set <String> > ();
     /** Contains all the adrenaline items related to a certain level. */
     public static Set <String> adrenaline = new HashSet<String>();
+    /** Index of the items known in the current map (the ones seen and the ones stored in DB). */
+    private static volatile ItemIndex indice = new ItemIndex(null);
+
+    /** Connection to the DB used by this object. It is opened the first time it is
+     * needed and kept open until close() is called. */
+    private Connection conexion = null;
+    /** Prepared statements compiled on the connection, indexed by their SQL sentence. */
+    private Map <String, PreparedStatement> sentencias = new HashMap <String, PreparedStatement> ();
+    /** Rows of the table Genetico as they were last written by storeGenes (generation,
+     * stats, current and genes of each position), so only the rows that change are
+     * written again. Null if they aren't known. */
+    private int [][] genetico = null;
+    /** True while the writes of transaccion() are being done: each store joins
+     * that transaction instead of committing on its own. */
+    private boolean enTransaccion = false;
+    /** True if a write failed inside transaccion(), so everything is undone. */
+    private boolean fallida = false;
 
      /** Default Constructor. */
     public Memoria () {
@@ -71,15 +93,321 @@ public class Memoria {
 
     }
 
+    /** Argument based constructor. Useful to run several genetic algorithms
+      * (islands) at the same time without sharing the table Genetico.
+      * @param bdName Name of the DB file.
+      * @param tablaItems Create table Items?.
+      * @param tablaGenetico Create table Genetico?.
+      * @param nGenes Number of genes.
+      * @param tablaAuxiliar Create table Auxiliar?
+     */
+    public Memoria (String bdName, boolean tablaItems, boolean tablaGenetico, int nGenes, boolean tablaAuxiliar) {
+
+        this.bdName = bdName;
+        loadObject(tablaItems, tablaGenetico, nGenes, tablaAuxiliar);
+
+    }
+
+    /** Get the connection to the DB, opening it if it isn't open yet.
+     *
+     * @return Connection to the DB.
+     */
+    private Connection conectar() throws ClassNotFoundException, SQLException{
+
+        if (conexion == null || conexion.isClosed()){
+            Class.forName("org.sqlite.JDBC");
+            conexion = DriverManager.getConnection("jdbc:sqlite:"+bdName);
+            sentencias.clear();
+
+            // With a write-ahead log, each transaction only needs to append to the
+            // log (SQLite versions without WAL just ignore it)
+            Statement stat = conexion.createStatement();
+            try {
+                stat.executeQuery("PRAGMA journal_mode=WAL;").close();
+                stat.execute("PRAGMA synchronous=NORMAL;");
+            }
+            finally {
+                stat.close();
+            }
+        }
+
+        return conexion;
+    }
+
+    /** Start a transaction: nothing is written until confirmar() is called. */
+    private void empezar() throws ClassNotFoundException, SQLException{
+
+        if (enTransaccion) {
+            return;
+        }
+
+        conectar().setAutoCommit(false);
+    }
+
+    /** Write everything done since empezar() was called, all at once. */
+    private void confirmar() throws SQLException{
+
+        if (enTransaccion) {
+            return;
+        }
+
+        conexion.commit();
+        conexion.setAutoCommit(true);
+    }
+
+    /** Undo everything done since empezar() was called (after an error). */
+    private void deshacer(){
+
+        // A statement that has failed can't be executed again, prepare them again
+        descartarSentencias();
+
+        if (enTransaccion) {
+            // The whole transaction is undone when it finishes
+            fallida = true;
+            return;
+        }
+
+        try {
+            if (conexion != null && !conexion.isClosed() && !conexion.getAutoCommit()){
+                conexion.rollback();
+                conexion.setAutoCommit(true);
+            }
+        }
+        catch(SQLException e) {
+
+            System.out.println("OCURRIO UN ERROR DESHACIENDO LA TRANSACCION");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** Get a prepared statement, so each SQL sentence is only parsed once per connection.
+     * @param sql SQL sentence (with a '?' for each parameter).
+     *
+     * @return Prepared statement (its parameters keep the values of the last execution).
+     */
+    private PreparedStatement preparar(String sql) throws ClassNotFoundException, SQLException{
+
+        Connection conn = conectar();
+        PreparedStatement sentencia = sentencias.get(sql);
+
+        if (sentencia == null){
+            sentencia = conn.prepareStatement(sql);
+            sentencias.put(sql, sentencia);
+        }
+
+        return sentencia;
+    }
+
+    /** Execute a SQL sentence that doesn't return any result (tables creation, for example).
+     * @param sql SQL sentence.
+     */
+    private void ejecutar(String sql) throws ClassNotFoundException, SQLException{
+
+        Statement stat = conectar().createStatement();
+        try {
+            stat.execute(sql);
+        }
+        finally {
+            stat.close();
+        }
+    }
+
+    /** SQL sentence that inserts a row into a table.
+     * @param tabla Name of the table.
+     * @param nValores Number of values of the row.
+     *
+     * @return SQL sentence with a '?' for each value.
+     */
+    private static String insertar(String tabla, int nValores){
+
+        return insertar("INSERT", tabla, nValores);
+    }
+
+    /** SQL sentence that inserts a row into a table.
+     * @param verbo Kind of insertion ("INSERT", "INSERT OR REPLACE"...).
+     * @param tabla Name of the table.
+     * @param nValores Number of values of the row.
+     *
+     * @return SQL sentence with a '?' for each value.
+     */
+    private static String insertar(String verbo, String tabla, int nValores){
+
+        StringBuilder insert = new StringBuilder(verbo +" INTO "+ tabla +" VALUES (");
+        for (int i=0; i<nValores; ++i){
+            insert.append(i == 0 ? "?" : ", ?");
+        }
+
+        return insert.append(");").toString();
+    }
+
+    /** Set the stats and the genes of an individual as parameters of a prepared statement.
+     * @param sentencia Prepared statement.
+     * @param primero Index of the parameter where the stats start (deaths, kills,
+     * totalDamageGiven and totalDamageTaken, followed by the genes).
+     * @param individual Individual whose values are set.
+     */
+    private static void asignar(PreparedStatement sentencia, int primero, Individual individual) throws SQLException{
+
+        sentencia.setInt(primero, individual.getDeaths());
+        sentencia.setInt(primero + 1, individual.getKills());
+        sentencia.setInt(primero + 2, individual.getTotalDamageGiven());
+        sentencia.setInt(primero + 3, individual.getTotalDamageTaken());
+
+        sentencia.setBytes(primero + 4, ChromosomeCodec.encode(genes(individual)));
+    }
+
+    /** Copy the genes of an individual into a new array.
+     * @param individual Individual whose genes are copied.
+     *
+     * @return Genes of the individual.
+     */
+    private static int [] genes(Individual individual){
+
+        int [] genes = new int [individual.chromosomeSize()];
+        for (int j=0; j<genes.length; ++j){
+            genes[j] = individual.getGene(j);
+        }
+
+        return genes;
+    }
+
+    /** Set the stats and the genes of the current row of a query (deaths, kills,
+     * totalDamageGiven, totalDamageTaken and chromosome, in that order) to an individual.
+     * @param resultados Result of the query.
+     * @param individual Individual whose values are set.
+     * @param genes Array used to unpack the chromosome.
+     */
+    private static void leerFila(ResultSet resultados, Individual individual, int [] genes) throws SQLException{
+
+        individual.setDeaths(resultados.getInt(1));
+        individual.setKills(resultados.getInt(2));
+        individual.setTotalDamageGiven(resultados.getInt(3));
+        individual.setTotalDamageTaken(resultados.getInt(4));
+
+        int nGenes = Math.min(ChromosomeCodec.decode(resultados.getBytes(5), genes, 0), genes.length);
+        nGenes = Math.min(nGenes, individual.chromosomeSize());
+        for (int j=0; j<nGenes; ++j){
+            individual.setGene(j, genes[j]);
+        }
+    }
+
+    /** Do several writes (stores) in a single transaction: either all of them
+     * are written or none of them. Any other thread that uses this object waits
+     * until they are finished.
+     * @param escrituras Writes to be done.
+     *
+     * @return True if everything was written.
+     */
+    public synchronized boolean transaccion(Runnable escrituras){
+
+        if (enTransaccion) {
+            escrituras.run();
+            return !fallida;
+        }
+
+        try {
+            empezar();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR EMPEZANDO LA TRANSACCION");
+            e.printStackTrace(System.out);
+            return false;
+        }
+
+        enTransaccion = true;
+        fallida = false;
+        try {
+            escrituras.run();
+        }
+        catch(RuntimeException e) {
+
+            fallida = true;
+            throw e;
+        }
+        finally {
+            enTransaccion = false;
+
+            if (fallida) {
+                deshacer();
+                genetico = null;
+            }
+        }
+
+        if (fallida) {
+            return false;
+        }
+
+        try {
+            confirmar();
+            return true;
+        }
+        catch(SQLException e) {
+
+            deshacer();
+            genetico = null;
+            System.out.println("OCURRIO UN ERROR CONFIRMANDO LA TRANSACCION");
+            e.printStackTrace(System.out);
+            return false;
+        }
+    }
+
+    /** Close the prepared statements, so they are prepared again when needed. */
+    private void descartarSentencias(){
+
+        try {
+            for (PreparedStatement sentencia : sentencias.values()){
+                sentencia.close();
+            }
+        }
+        catch(SQLException e) {
+
+            System.out.println("OCURRIO UN ERROR CERRANDO LAS SENTENCIAS");
+            e.printStackTrace(System.out);
+        }
+        finally {
+            sentencias.clear();
+        }
+    }
+
+    /** Close the connection to the DB (and its prepared statements). The object
+     * can still be used afterwards, the connection is opened again when needed.
+     */
+    public synchronized void close(){
+
+        descartarSentencias();
+
+        try {
+            if (conexion != null){
+                conexion.close();
+            }
+        }
+        catch(SQLException e) {
+
+            System.out.println("OCURRIO UN ERROR CERRANDO LA CONEXION");
+            e.printStackTrace(System.out);
+        }
+        finally {
+            conexion = null;
+            genetico = null;
+        }
+    }
+
+    /** SQL sentence that creates the table Genetico. The genes are packed in a
+     * single column (@see ChromosomeCodec). */
+    private static final String CREATE_GENETICO = "CREATE TABLE Genetico (posicion int not null, generacion int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, current int not null, chromosome blob not null);";
+    /** SQL sentence that creates the table Auxiliar. */
+    private static final String CREATE_AUXILIAR = "CREATE TABLE Auxiliar (posicion int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, chromosome blob not null);";
+    /** SQL sentence that creates the table Cache (if it doesn't exist). */
+    private static final String CREATE_CACHE = "CREATE TABLE IF NOT EXISTS Cache (samples int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, chromosome blob not null);";
+
     /** Private function to load an object of this class.
      * @param createTables Create table Items?
      * @param tablaGenetico Create table Genetico?
      * @param nGenes Number of genes.
      * @param tablaAuxiliar Create table Auxiliar?
      */
-    private void loadObject(boolean tablaItems, boolean tablaGenetico, int nGenes, boolean tablaAuxiliar){
-
-        Connection conn = null;
+    private synchronized void loadObject(boolean tablaItems, boolean tablaGenetico, int nGenes, boolean tablaAuxiliar){
 
         if(DEBUG == true){
             System.out.println("Start function loadObject()");
@@ -87,225 +415,753 @@ public class Memoria {
         }
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-
             if (tablaItems == true) {
-                stat.execute("DROP TABLE IF EXISTS Item;");
+                ejecutar("DROP TABLE IF EXISTS Item;");
             }
             if (tablaGenetico == true) {
-                stat.execute("DROP TABLE IF EXISTS Genetico;");
+                ejecutar("DROP TABLE IF EXISTS Genetico;");
+                ejecutar("DROP TABLE IF EXISTS Cache;");
+                ejecutar("DROP TABLE IF EXISTS Estado;");
             }
             if (tablaAuxiliar == true) {
-                stat.execute("DROP TABLE IF EXISTS Auxiliar;");
+                ejecutar("DROP TABLE IF EXISTS Auxiliar;");
+            }
+
+            ejecutar("CREATE TABLE Item (id char(50) not null, tipo char(15) not null, nombre char(15) not null, mapa char(20) not null,  primary key(id, mapa) )");
+            ejecutar(CREATE_GENETICO);
+            ejecutar(CREATE_AUXILIAR);
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR EN LA CREACIÓN DE LAS TABLAS");
+            e.printStackTrace(System.out);
+        }
+
+        try {
+            // Tables created by previous versions have a column per gene
+            migrar("Genetico", 7, CREATE_GENETICO);
+            migrar("Auxiliar", 5, CREATE_AUXILIAR);
+            migrar("Cache", 5, CREATE_CACHE);
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR EN LA MIGRACION DE LAS TABLAS");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** Convert a table with a column per gene (chromosome0, chromosome1...), as they
+     * were created by previous versions, into a table with the genes packed in a
+     * single column. Nothing is done if the table doesn't exist or is already packed.
+     * @param tabla Name of the table.
+     * @param nColumnas Number of columns before the genes.
+     * @param crear SQL sentence that creates the new table.
+     */
+    private void migrar(String tabla, int nColumnas, String crear) throws ClassNotFoundException, SQLException{
+
+        if (!existeTabla(tabla)) {
+            return;
+        }
+
+        int nGenes = 0;
+        Statement stat = conectar().createStatement();
+        ResultSet columnas = stat.executeQuery("PRAGMA table_info(" + tabla + ");");
+        while (columnas.next()){
+            if (columnas.getString("name").matches("chromosome[0-9]+")){
+                ++nGenes;
+            }
+        }
+        columnas.close();
+
+        if (nGenes == 0) {
+            stat.close();
+            return;
+        }
+
+        try {
+            empezar();
+            stat.execute("ALTER TABLE " + tabla + " RENAME TO " + tabla + "Anterior;");
+            stat.execute(crear);
+
+            ResultSet filas = stat.executeQuery("SELECT * FROM " + tabla + "Anterior ORDER BY rowid;");
+            PreparedStatement insert = conexion.prepareStatement(insertar(tabla, nColumnas + 1));
+            int [] genes = new int [nGenes];
+            boolean pendientes = false;
+
+            while (filas.next()){
+                for (int i=1; i<=nColumnas; ++i){
+                    insert.setInt(i, filas.getInt(i));
+                }
+                for (int j=0; j<nGenes; ++j){
+                    genes[j] = filas.getInt("chromosome"+j);
+                }
+                insert.setBytes(nColumnas + 1, ChromosomeCodec.encode(genes));
+
+                insert.addBatch();
+                pendientes = true;
+            }
+            filas.close();
+
+            if (pendientes) {
+                insert.executeBatch();
+            }
+            insert.close();
+
+            stat.execute("DROP TABLE " + tabla + "Anterior;");
+            confirmar();
+        }
+        catch(SQLException e) {
+
+            deshacer();
+            throw e;
+        }
+        finally {
+            stat.close();
+        }
+    }
+
+    /** Create a special table to store the best individuals of the genetic algorithm.
+     * @param nombreTabla Name of the new table.
+     * @param best The best individual of the genetic algorithm.
+     * @param delete Delete the table?
+     *
+     */
+    public void storeBestIndividuo(String nombreTabla, Individual best, boolean delete){
+
+        Connection conn = null;
+        String insert;
+        String tabla = "CREATE TABLE "+ nombreTabla +" (deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null";
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+            conn = DriverManager.getConnection("jdbc:sqlite:"+nombreTabla+"info.db");
+            Statement stat = conn.createStatement();
+
+            if (delete == true) {
+                stat.execute("DROP TABLE IF EXISTS"+ nombreTabla +";");
+            }
+
+            if (best != null){
+                for (int i=0; i<best.chromosomeSize(); ++i){
+                    tabla = tabla.concat(",chromosome" +i+ " int not null");
+                }
+                tabla = tabla.concat(");");
+                stat.execute(tabla);
+
+                insert = "INSERT INTO "+ nombreTabla +" VALUES";
+                insert = insert.concat("(' +"+ best.getDeaths() +"', '"+
+                        best.getKills() +"', '"+ best.getTotalDamageGiven() +"', '"+
+                        best.getTotalDamageTaken() +"'");
+
+                for (int j=0; j<best.chromosomeSize(); ++j){
+                    insert = insert.concat(",' "+ best.getGene(j) +"'");
+                }
+
+                insert = insert.concat(");");
+
+                stat.execute(insert);
             }
 
-            stat.execute("CREATE TABLE Item (id char(50) not null, tipo char(15) not null, nombre char(15) not null, mapa char(20) not null,  primary key(id, mapa) )");
-            String genetico = "CREATE TABLE Genetico (posicion int not null, generacion int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, current int not null";
-            for (int i=0; i<nGenes; ++i){
-                genetico = genetico.concat(",chromosome" +i+ " int not null");
-            }
-            genetico = genetico.concat(");");
-            stat.execute(genetico);
+            conn.close();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR EN LA CREACIÓN DE LA TABLA PARA EL MEJOR INDIVIDUO");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** It loads the population that has being stored in the DB.
+     * @param population Array containing all the individuals that belong to the current generation.
+     * @param nGenes Size of the individual's chromosome.
+     *
+     * @return List of the individuals stored in the DB.
+     */
+    public synchronized boolean loadPoblacion(Individual [] population, int nGenes){
+
+        ResultSet resultados;
+        String sql = "SELECT deaths, kills, totalDamageGiven, totalDamageTaken, chromosome FROM Genetico ORDER BY posicion";
+        boolean success = false;
+        boolean salir = false;
+        int [] genes = new int [nGenes];
+
+        try {
+            resultados = preparar(sql).executeQuery();
+
+            if (resultados.next()!= false){
+                success = true;
+                System.out.println("SUCCESS");
+            }
+            else{
+                salir = true;
+                System.out.println("NO SUCCESS");
+
+            }
+
+            int i = 0;
+            while(!salir){
+                leerFila(resultados, population[i], genes);
+                ++i;
+                if (resultados.next() == false){
+                    salir = true;
+                }
+            }
+            resultados.close();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS INDIVIDUOS");
+            e.printStackTrace(System.out);
+        }
+
+        return success;
+    }
+
+    /** Each individual is executed more than once, this table makes sure that all
+     * the information about those individuals is stored, in order to use it later.
+     * @param population Results of the same individual stored as different individuals
+     * in the same array (when really is the same individual with different results).
+     * @param nGenes Size of the individual's chromosome.
+     *
+     * @return List of the individuals in the DB.
+     */
+    public synchronized boolean loadPoblacionAuxiliar(Individual [] population, int nGenes){
+
+        ResultSet resultados;
+        String sql = "SELECT deaths, kills, totalDamageGiven, totalDamageTaken, chromosome FROM Auxiliar ORDER BY posicion";
+        boolean success = false;
+        boolean salir = false;
+        int [] genes = new int [nGenes];
+
+        try {
+            resultados = preparar(sql).executeQuery();
+
+            if (resultados.next()!= false){
+                success = true;
+                System.out.println("SUCCESS");
+            }
+            else{
+                salir = true;
+                System.out.println("NO SUCCESS");
+
+            }
+
+            int i = 0;
+            while(!salir){
+                leerFila(resultados, population[i], genes);
+                ++i;
+                if (resultados.next() == false){
+                    salir = true;
+                }
+            }
+            resultados.close();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS INDIVIDUOS");
+            e.printStackTrace(System.out);
+        }
+
+        return success;
+    }
+
+    /** Store an auxiliary population in DB (the parents of the current generation,
+     * for example), replacing the previous one.
+     * @param population Array containing the individuals to be stored.
+     */
+    public synchronized void storeAuxiliar (Individual [] population){
+
+        try {
+            empezar();
+            preparar("DELETE FROM Auxiliar WHERE posicion != '-1';").executeUpdate();
+
+            if (population.length > 0) {
+                PreparedStatement insert = preparar(insertar("Auxiliar", 6));
+                for (int i=0; i<population.length; ++i) {
+                    insert.setInt(1, i);
+                    asignar(insert, 2, population[i]);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            confirmar();
+        }
+        catch(Exception e) {
+
+            deshacer();
+            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN AUXILIAR");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** Create a special table to store the Pareto front of a multi-objective genetic
+     * algorithm (the individuals that aren't dominated by any other), replacing the
+     * previous one.
+     * @param nombreTabla Name of the kind of individual. The table is named after it
+     * followed by "Pareto".
+     * @param front Individuals of the Pareto front.
+     */
+    public void storeParetoFront (String nombreTabla, Individual [] front){
+
+        Connection conn = null;
+        String tablaPareto = nombreTabla + "Pareto";
+
+        if (front.length == 0) {
+            return;
+        }
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+            conn = DriverManager.getConnection("jdbc:sqlite:"+nombreTabla+"info.db");
+            Statement stat = conn.createStatement();
+
+            stat.execute("DROP TABLE IF EXISTS "+ tablaPareto +";");
+
+            stat.execute("CREATE TABLE "+ tablaPareto +" (posicion int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, chromosome blob not null);");
+
+            PreparedStatement insert = conn.prepareStatement(insertar(tablaPareto, 6));
+            for (int i=0; i<front.length; ++i) {
+                insert.setInt(1, i);
+                asignar(insert, 2, front[i]);
+
+                insert.executeUpdate();
+            }
+
+            conn.close();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR EN LA CREACIÓN DE LA TABLA PARA EL FRENTE DE PARETO");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** It loads the individuals stored in the DB that have already been evaluated
+     * (those whose stats aren't empty), so they can be used to train a surrogate model.
+     * They are taken from the history of every generation (@see storeHistory) and
+     * from the current generation.
+     * @param factory Factory used to create the individuals.
+     * @param nGenes Size of the individual's chromosome.
+     *
+     * @return List of the evaluated individuals in the DB (empty if there isn't any).
+     */
+    public synchronized List <Individual> loadEvaluations (IndividualFactory factory, int nGenes){
+
+        ResultSet resultados;
+        String sql = "SELECT deaths, kills, totalDamageGiven, totalDamageTaken, chromosome FROM Genetico WHERE kills + deaths + totalDamageGiven + totalDamageTaken > 0 ORDER BY posicion";
+        int [] genes = new int [nGenes];
+        List <Individual> evaluations = new ArrayList <Individual> ();
+
+        try {
+            if (existeTabla("Historia")) {
+                resultados = preparar("SELECT * FROM Historia WHERE partida = -1 AND kills + deaths + totalDamageGiven + totalDamageTaken > 0 ORDER BY run, generacion, posicion").executeQuery();
+                while (resultados.next()){
+                    evaluations.add(leerIndividuo(resultados, factory, nGenes));
+                }
+                resultados.close();
+            }
+
+            resultados = preparar(sql).executeQuery();
+
+            while (resultados.next()){
+                Individual individual = factory.create(false);
+                leerFila(resultados, individual, genes);
+                evaluations.add(individual);
+            }
+            resultados.close();
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS INDIVIDUOS EVALUADOS");
+            e.printStackTrace(System.out);
+        }
+
+        return evaluations;
+    }
+
+    /** Create an individual with the stats and the genes of the current row of a query.
+     * @param resultados Result of the query.
+     * @param factory Factory used to create the individuals.
+     * @param nGenes Size of the individual's chromosome.
+     *
+     * @return New individual.
+     */
+    private static Individual leerIndividuo(ResultSet resultados, IndividualFactory factory, int nGenes) throws SQLException{
+
+        Individual individual = factory.create(false);
+        individual.setDeaths(resultados.getInt("deaths"));
+        individual.setKills(resultados.getInt("kills"));
+        individual.setTotalDamageGiven(resultados.getInt("totalDamageGiven"));
+        individual.setTotalDamageTaken(resultados.getInt("totalDamageTaken"));
+
+        for (int j=0; j<nGenes; ++j){
+            individual.setGene(j, resultados.getInt("chromosome"+j));
+        }
+
+        return individual;
+    }
+
+    /** Check if a table exists in the DB.
+     * @param tabla Name of the table.
+     *
+     * @return True if it exists.
+     */
+    private boolean existeTabla(String tabla) throws ClassNotFoundException, SQLException{
+
+        PreparedStatement select = preparar("SELECT name FROM sqlite_master WHERE type = 'table' AND name = ?");
+        select.setString(1, tabla);
+
+        ResultSet resultados = select.executeQuery();
+        boolean existe = resultados.next();
+        resultados.close();
+
+        return existe;
+    }
+
+    /** Create the table Historia (and its indexes) if it doesn't exist. Each row is
+     * an individual of a generation of an execution (run) of the genetic algorithm,
+     * and rows are never modified or deleted, so the table keeps the whole history.
+     * @param nGenes Size of the individual's chromosome.
+     */
+    private void crearHistoria(int nGenes) throws ClassNotFoundException, SQLException{
+
+        String historia = "CREATE TABLE IF NOT EXISTS Historia (run int not null, generacion int not null, posicion int not null, partida int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null, fitness double not null";
+        for (int i=0; i<nGenes; ++i){
+            historia = historia.concat(",chromosome" +i+ " int not null");
+        }
+        historia = historia.concat(", primary key(run, generacion, posicion, partida));");
+
+        ejecutar(historia);
+        // The best individual of each generation
+        ejecutar("CREATE INDEX IF NOT EXISTS HistoriaFitness ON Historia (run, generacion, partida, fitness);");
+    }
+
+    /** Get the number of the next execution (run) of the genetic algorithm to be stored
+     * in the history.
+     *
+     * @return Biggest run stored plus one (0 if there isn't any).
+     */
+    public synchronized int nextHistoryRun (){
+
+        int salida = 0;
+
+        try {
+            if (existeTabla("Historia")) {
+                ResultSet resultados = preparar("SELECT MAX(run) AS ultimo FROM Historia").executeQuery();
+                if (resultados.next()) {
+                    salida = resultados.getInt("ultimo") + 1;
+                }
+                resultados.close();
+            }
+        }
+        catch(Exception e) {
+
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LA EJECUCION");
+            e.printStackTrace(System.out);
+        }
+
+        return salida;
+    }
+
+    /** Append the individuals of a generation to the history (in a single transaction).
+     * Rows already stored with the same key are kept as they were.
+     * @param run Execution of the genetic algorithm.
+     * @param generacion Generation of the individuals.
+     * @param partida Match whose results are stored, or -1 if they are the results
+     * of all the matches the individuals have played.
+     * @param population Individuals of the generation (their position is the key).
+     */
+    public synchronized void storeHistory (int run, int generacion, int partida, Individual [] population){
+
+        if (population.length == 0) {
+            return;
+        }
+
+        int nGenes = population[0].chromosomeSize();
+
+        try {
+            crearHistoria(nGenes);
+            empezar();
+
+            PreparedStatement insert = preparar(insertar("INSERT OR IGNORE", "Historia", 9 + nGenes));
+            for (int i=0; i<population.length; ++i) {
+                insert.setInt(1, run);
+                insert.setInt(2, generacion);
+                insert.setInt(3, i);
+                insert.setInt(4, partida);
+                insert.setInt(5, population[i].getDeaths());
+                insert.setInt(6, population[i].getKills());
+                insert.setInt(7, population[i].getTotalDamageGiven());
+                insert.setInt(8, population[i].getTotalDamageTaken());
+                insert.setDouble(9, population[i].fitness());
+
+                for (int j=0; j<nGenes; ++j){
+                    insert.setInt(10 + j, population[i].getGene(j));
+                }
 
-            String auxiliar = "CREATE TABLE Auxiliar (posicion int not null, deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null";
-            for (int i=0; i<nGenes; ++i){
-                auxiliar = auxiliar.concat(",chromosome" +i+ " int not null");
+                insert.addBatch();
             }
-            auxiliar = auxiliar.concat(");");
-            stat.execute(auxiliar);
+            insert.executeBatch();
 
-            conn.close();
+            confirmar();
         }
         catch(Exception e) {
 
-            System.out.println("OCURRIO UN ERROR EN LA CREACIÓN DE LAS TABLAS");
+            deshacer();
+            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN HISTORIA");
             e.printStackTrace(System.out);
         }
     }
 
-    /** Create a special table to store the best individuals of the genetic algorithm.
-     * @param nombreTabla Name of the new table.
-     * @param best The best individual of the genetic algorithm.
-     * @param delete Delete the table?
+    /** It loads the best individual of each generation of an execution stored in the
+     * history (using the results of all their matches).
+     * @param run Execution of the genetic algorithm.
+     * @param factory Factory used to create the individuals.
+     * @param nGenes Size of the individual's chromosome.
      *
+     * @return Best individual of each generation, from the first to the last one.
      */
-    public void storeBestIndividuo(String nombreTabla, Individual best, boolean delete){
+    public synchronized List <Individual> loadBestHistory (int run, IndividualFactory factory, int nGenes){
 
-        Connection conn = null;
-        String insert;
-        String tabla = "CREATE TABLE "+ nombreTabla +" (deaths int not null, kills int not null, totalDamageGiven int not null, totalDamageTaken int not null";
+        List <Individual> best = new ArrayList <Individual> ();
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+nombreTabla+"info.db");
-            Statement stat = conn.createStatement();
+            crearHistoria(nGenes);
 
-            if (delete == true) {
-                stat.execute("DROP TABLE IF EXISTS"+ nombreTabla +";");
+            PreparedStatement select = preparar("SELECT * FROM Historia h WHERE run = ? AND partida = -1 AND posicion = "
+                    + "(SELECT posicion FROM Historia WHERE run = h.run AND generacion = h.generacion AND partida = -1 "
+                    + "ORDER BY fitness DESC LIMIT 1) ORDER BY generacion");
+            select.setInt(1, run);
+
+            ResultSet resultados = select.executeQuery();
+            while (resultados.next()){
+                best.add(leerIndividuo(resultados, factory, nGenes));
             }
+            resultados.close();
+        }
+        catch(Exception e) {
 
-            if (best != null){
-                for (int i=0; i<best.chromosomeSize(); ++i){
-                    tabla = tabla.concat(",chromosome" +i+ " int not null");
-                }
-                tabla = tabla.concat(");");
-                stat.execute(tabla);
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS MEJORES INDIVIDUOS");
+            e.printStackTrace(System.out);
+        }
 
-                insert = "INSERT INTO "+ nombreTabla +" VALUES";
-                insert = insert.concat("(' +"+ best.getDeaths() +"', '"+
-                        best.getKills() +"', '"+ best.getTotalDamageGiven() +"', '"+
-                        best.getTotalDamageTaken() +"'");
+        return best;
+    }
 
-                for (int j=0; j<best.chromosomeSize(); ++j){
-                    insert = insert.concat(",' "+ best.getGene(j) +"'");
-                }
+    /** It loads the individuals of the history whose gene at a certain position is
+     * within a range (all the executions and generations). The first query of each
+     * gene creates an index on it.
+     * @param locus Position of the gene.
+     * @param min Lowest value of the gene.
+     * @param max Highest value of the gene.
+     * @param factory Factory used to create the individuals.
+     * @param nGenes Size of the individual's chromosome.
+     *
+     * @return Individuals whose gene is within the range (with the results of all their matches).
+     */
+    public synchronized List <Individual> loadHistoryByGene (int locus, int min, int max, IndividualFactory factory, int nGenes){
 
-                insert = insert.concat(");");
+        List <Individual> individuals = new ArrayList <Individual> ();
 
-                stat.execute(insert);
-            }
+        try {
+            crearHistoria(nGenes);
+            ejecutar("CREATE INDEX IF NOT EXISTS HistoriaChromosome" +locus+ " ON Historia (chromosome" +locus+ ");");
 
-            conn.close();
+            PreparedStatement select = preparar("SELECT * FROM Historia WHERE chromosome" +locus+ " BETWEEN ? AND ? AND partida = -1");
+            select.setInt(1, min);
+            select.setInt(2, max);
+
+            ResultSet resultados = select.executeQuery();
+            while (resultados.next()){
+                individuals.add(leerIndividuo(resultados, factory, nGenes));
+            }
+            resultados.close();
         }
         catch(Exception e) {
 
-            System.out.println("OCURRIO UN ERROR EN LA CREACIÓN DE LA TABLA PARA EL MEJOR INDIVIDUO");
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LA HISTORIA");
             e.printStackTrace(System.out);
         }
+
+        return individuals;
     }
 
-    /** It loads the population that has being stored in the DB.
-     * @param population Array containing all the individuals that belong to the current generation.
+    /** It loads the results of each chromosome stored in the DB into a cache
+     * (from the least to the most recently used).
+     * @param cache Cache where the results are added.
      * @param nGenes Size of the individual's chromosome.
      *
-     * @return List of the individuals stored in the DB.
+     * @return True if there was any result stored.
      */
-    public boolean loadPoblacion(Individual [] population, int nGenes){
+    public synchronized boolean loadFitnessCache (FitnessCache cache, int nGenes){
 
         ResultSet resultados;
-        String sql = "SELECT * FROM Genetico";
-        Connection conn = null;
+        String sql = "SELECT samples, deaths, kills, totalDamageGiven, totalDamageTaken, chromosome FROM Cache ORDER BY rowid";
         boolean success = false;
-        boolean salir = false;
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-            resultados = stat.executeQuery(sql);
+            ejecutar(CREATE_CACHE);
+            resultados = preparar(sql).executeQuery();
 
-            if (resultados.next()!= false){
+            while (resultados.next()){
+                cache.put(new FitnessCache.Entry(ChromosomeCodec.decode(resultados.getBytes(6)),
+                        resultados.getInt(1), resultados.getInt(3), resultados.getInt(2),
+                        resultados.getInt(4), resultados.getInt(5)));
                 success = true;
-                System.out.println("SUCCESS");
             }
-            else{
-                salir = true;
-                System.out.println("NO SUCCESS");
+            resultados.close();
+        }
+        catch(Exception e) {
 
-            }
+            System.out.println("OCURRIO UN ERROR RECUPERANDO LA CACHE");
+            e.printStackTrace(System.out);
+        }
 
-            int i = 0;
-            while(!salir){
-                population[i].setDeaths(resultados.getInt("deaths"));
-                population[i].setKills(resultados.getInt("kills"));
-                population[i].setTotalDamageGiven(resultados.getInt("totalDamageGiven"));
-                population[i].setTotalDamageTaken(resultados.getInt("totalDamageTaken"));
+        return success;
+    }
 
-                for (int j=0; j<nGenes; ++j){
-                    population[i].setGene(j, resultados.getInt("chromosome"+j));
-                }
-                ++i;
-                if (resultados.next() == false){
-                    salir = true;
+    /** Store the results of each chromosome of a cache in DB (replacing the previous ones).
+     * @param cache Cache to be stored.
+     */
+    public synchronized void storeFitnessCache (FitnessCache cache){
+
+        List <FitnessCache.Entry> entries = cache.entries();
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            ejecutar(CREATE_CACHE);
+
+            empezar();
+            preparar("DELETE FROM Cache;").executeUpdate();
+
+            PreparedStatement insert = preparar(insertar("Cache", 6));
+            for (FitnessCache.Entry entry : entries) {
+                insert.setInt(1, entry.getSamples());
+                insert.setInt(2, entry.getDeaths());
+                insert.setInt(3, entry.getKills());
+                insert.setInt(4, entry.getTotalDamageGiven());
+                insert.setInt(5, entry.getTotalDamageTaken());
+
+                int [] genes = new int [entry.chromosomeSize()];
+                for (int j=0; j<genes.length; ++j){
+                    genes[j] = entry.getGene(j);
                 }
+                insert.setBytes(6, ChromosomeCodec.encode(genes));
+
+                insert.addBatch();
             }
-            conn.close();
+            insert.executeBatch();
+
+            confirmar();
         }
         catch(Exception e) {
 
-            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS INDIVIDUOS");
+            deshacer();
+            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN CACHE");
             e.printStackTrace(System.out);
         }
+    }
 
-        return success;
+    /** SQL sentence that creates the table Estado (if it doesn't exist). */
+    private static final String CREATE_ESTADO = "CREATE TABLE IF NOT EXISTS Estado (nombre char(50) not null, valores text not null, primary key(nombre));";
+    /** Name of the state where storeGenes writes the number of matches played. */
+    private static final String ITERACION = "Genetico.iteracion";
+
+    /** Store the state of an algorithm in DB (a vector of real values), replacing
+     * the previous state with the same name.
+     * @param nombre Name of the state.
+     * @param valores Values of the state.
+     */
+    public synchronized void storeState (String nombre, double [] valores){
+
+        try {
+            escribirEstado(nombre, valores);
+        }
+        catch(Exception e) {
+
+            deshacer();
+            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN ESTADO");
+            e.printStackTrace(System.out);
+        }
     }
 
-    /** Each individual is executed more than once, this table makes sure that all
-     * the information about those individuals is stored, in order to use it later.
-     * @param population Results of the same individual stored as different individuals
-     * in the same array (when really is the same individual with different results).
-     * @param nGenes Size of the individual's chromosome.
+    /** Write a state in the table Estado (without starting a transaction).
+     * @param nombre Name of the state.
+     * @param valores Values of the state.
+     */
+    private void escribirEstado(String nombre, double [] valores) throws ClassNotFoundException, SQLException{
+
+        StringBuilder texto = new StringBuilder();
+
+        for (int i=0; i<valores.length; ++i){
+            if (i > 0) {
+                texto.append(' ');
+            }
+            texto.append(valores[i]);
+        }
+
+        ejecutar(CREATE_ESTADO);
+
+        PreparedStatement insert = preparar("INSERT OR REPLACE INTO Estado VALUES (?, ?);");
+        insert.setString(1, nombre);
+        insert.setString(2, texto.toString());
+        insert.executeUpdate();
+    }
+
+    /** Load the state of an algorithm stored in DB.
+     * @param nombre Name of the state.
      *
-     * @return List of the individuals in the DB.
+     * @return Values of the state, or null if it isn't stored.
      */
-    public boolean loadPoblacionAuxiliar(Individual [] population, int nGenes){
+    public synchronized double [] loadState (String nombre){
 
         ResultSet resultados;
-        String sql = "SELECT * FROM Auxiliar";
-        Connection conn = null;
-        boolean success = false;
-        boolean salir = false;
+        double [] valores = null;
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-            resultados = stat.executeQuery(sql);
-
-            if (resultados.next()!= false){
-                success = true;
-                System.out.println("SUCCESS");
-            }
-            else{
-                salir = true;
-                System.out.println("NO SUCCESS");
+            ejecutar(CREATE_ESTADO);
 
-            }
+            PreparedStatement select = preparar("SELECT valores FROM Estado WHERE nombre = ?");
+            select.setString(1, nombre);
+            resultados = select.executeQuery();
 
-            int i = 0;
-            while(!salir){
-                population[i].setDeaths(resultados.getInt("deaths"));
-                population[i].setKills(resultados.getInt("kills"));
-                population[i].setTotalDamageGiven(resultados.getInt("totalDamageGiven"));
-                population[i].setTotalDamageTaken(resultados.getInt("totalDamageTaken"));
+            if (resultados.next()){
+                String texto = resultados.getString("valores").trim();
+                String [] partes = texto.length() > 0 ? texto.split(" ") : new String [0];
 
-                for (int j=0; j<nGenes; ++j){
-                    population[i].setGene(j, resultados.getInt("chromosome"+j));
-                }
-                ++i;
-                if (resultados.next() == false){
-                    salir = true;
+                valores = new double [partes.length];
+                for (int i=0; i<partes.length; ++i){
+                    valores[i] = Double.parseDouble(partes[i]);
                 }
             }
-            conn.close();
+
+            resultados.close();
         }
         catch(Exception e) {
 
-            System.out.println("OCURRIO UN ERROR RECUPERANDO LOS INDIVIDUOS");
+            System.out.println("OCURRIO UN ERROR RECUPERANDO EL ESTADO");
             e.printStackTrace(System.out);
         }
 
-        return success;
+        return valores;
     }
 
     /** Load the current individual.
      *
      * @return Current individual's position.
      */
-    public int loadCurrent (){
+    public synchronized int loadCurrent (){
 
         ResultSet resultados;
         String sql = "SELECT posicion FROM Genetico WHERE current != '-1'";
-        Connection conn = null;
         int salida = 0;
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-            resultados = stat.executeQuery(sql);
+            resultados = preparar(sql).executeQuery();
 
             if (resultados.next()!= false){
                salida = resultados.getInt("posicion") + 1;
@@ -315,7 +1171,7 @@ public class Memoria {
 
             }
 
-            conn.close();
+            resultados.close();
         }
         catch(Exception e) {
 
@@ -326,55 +1182,38 @@ public class Memoria {
         return salida;
     }
 
-    /** Load the current individual.
+    /** Load the number of matches already played by the individual returned by
+     * loadCurrent (@see storeGenes). The column current of the table Genetico is
+     * only a flag, it isn't a number of matches.
      *
-     * @return Current individual's position.
+     * @return Number of matches played (0 if it isn't stored).
      */
-    public int loadIteration (){
-
-        ResultSet resultados;
-        String sql = "SELECT current FROM Genetico WHERE current != '-1'";
-        Connection conn = null;
-        int salida = 0;
+    public synchronized int loadIteration (){
 
-        try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-            resultados = stat.executeQuery(sql);
-
-            salida = resultados.getInt("current");
-
-            conn.close();
-        }
-        catch(Exception e) {
+        double [] valores = loadState(ITERACION);
 
-            System.out.println("OCURRIO UN ERROR RECUPERANDO EL ITERATION");
-            e.printStackTrace(System.out);
+        if (valores == null || valores.length != 1 || valores[0] < 0) {
+            return 0;
         }
 
-        return salida;
+        return (int) valores[0];
     }
 
     /** Load the current generation.
      * @return Number of current generation.
      */
-    public int loadGeneration (){
+    public synchronized int loadGeneration (){
 
         ResultSet resultados;
         String sql = "SELECT generacion FROM Genetico LIMIT 1";
-        Connection conn = null;
         int salida = 0;
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
-            resultados = stat.executeQuery(sql);
+            resultados = preparar(sql).executeQuery();
 
             salida = resultados.getInt("generacion");
 
-            conn.close();
+            resultados.close();
         }
         catch(Exception e) {
 
@@ -385,77 +1224,118 @@ public class Memoria {
         return salida;
     }
 
-    /** Store the population in DB.
-     * @param currentIndividual Current individual's position..
+    /** Store the population in DB. Everything is written in a single transaction,
+     * so the stored population is never half written. The first time the whole table
+     * is rewritten, and afterwards only the rows that have changed (usually the stats
+     * of the individual that has just played and the current flag) are replaced.
+     * @param currentIndividual Position of the individual that has just played
+     * (it is flagged, loadCurrent returns the next one).
      * @param generation Current generation's number.
      * @param population Array containing all the individuals that belong to the current generation.
-     * @param iteration Number of matches the bot has played
+     * @param iteration Number of matches already played by the next individual
+     * (@see loadIteration).
      */
-    public void storeGenes (int currentIndividual, int generation,int iteration, Individual [] population){
+    public synchronized void storeGenes (int currentIndividual, int generation,int iteration, Individual [] population){
 
-        Connection conn = null;
+        int [][] filas = new int [population.length][];
+        for (int i=0; i<population.length; ++i) {
+            filas[i] = fila(population[i], generation, (i == currentIndividual) ? 1 : -1);
+        }
 
         try {
-            Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-            Statement stat = conn.createStatement();
+            empezar();
 
-
-            stat.execute("DELETE FROM Genetico WHERE posicion != '-1';");
             if (iteration == 0) {
-                stat.execute("DELETE FROM Auxiliar WHERE posicion != '-1';");
+                preparar("DELETE FROM Auxiliar WHERE posicion != '-1';").executeUpdate();
             }
 
-            String insert;
+            if (genetico == null) {
+                // The rows stored in the table aren't known, write all of them
+                preparar("DELETE FROM Genetico WHERE posicion != '-1';").executeUpdate();
+                ejecutar("CREATE UNIQUE INDEX IF NOT EXISTS GeneticoPosicion ON Genetico (posicion);");
 
-            for (int i=0; i<population.length; ++i) {
-                insert = "INSERT INTO Genetico VALUES";
-                insert = insert.concat("('"+ i +"', '"+ generation +"', '"+ population[i].getDeaths() +"', '"+
-                        population[i].getKills() +"', '"+ population[i].getTotalDamageGiven() +"', '"+
-                        population[i].getTotalDamageTaken() +"'");
+                escribirGenetico(filas, null);
+            }
+            else {
+                escribirGenetico(filas, genetico);
 
-                if(i == currentIndividual) {
-                    insert = insert.concat(", '1'");
-                }
-                else {
-                    insert = insert.concat(", '-1'");
+                if (genetico.length > filas.length) {
+                    PreparedStatement delete = preparar("DELETE FROM Genetico WHERE posicion >= ?;");
+                    delete.setInt(1, filas.length);
+                    delete.executeUpdate();
                 }
+            }
 
-                for (int j=0; j<population[i].chromosomeSize(); ++j){
-                    insert = insert.concat(",' "+ population[i].getGene(j) +"'");
-                }
+            escribirEstado(ITERACION, new double [] {iteration});
 
-                insert = insert.concat(");");
+            confirmar();
+            genetico = filas;
+        }
+        catch(Exception e) {
 
-                stat.execute(insert);
-                insert = "";
-
-                /*
-                if (iteration < 2 && currentIndividual == i) {
-                    insert = "INSERT INTO Auxiliar VALUES";
-                    insert = insert.concat("('"+ iteration +"', '"+ population[i].getDeaths() +"', '"+
-                        population[i].getKills() +"', '"+ population[i].getTotalDamageGiven() +"', '"+
-                        population[i].getTotalDamageTaken() +"'");
-
-                    for (int j=0; j<population[i].size(); ++j){
-                        insert = insert.concat(",' "+ population[i].getChromosome()[j] +"'");
-                    }
-                    insert = insert.concat(");");
-
-                    stat.execute(insert);
-                    insert = "";
-                }
-                 */
+            deshacer();
+            genetico = null;
+            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN GENETICO");
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /** Write the rows of the table Genetico that have changed (in a single batch).
+     * @param filas Rows to be written.
+     * @param anteriores Rows already stored (null if the table is empty).
+     */
+    private void escribirGenetico(int [][] filas, int [][] anteriores) throws ClassNotFoundException, SQLException{
+
+        if (filas.length == 0) {
+            return;
+        }
+
+        // posicion, generacion, deaths, kills, totalDamageGiven, totalDamageTaken, current and the chromosome
+        PreparedStatement insert = preparar(insertar("INSERT OR REPLACE", "Genetico", 8));
+        boolean pendientes = false;
 
+        for (int i=0; i<filas.length; ++i) {
+            if (anteriores != null && i < anteriores.length && Arrays.equals(filas[i], anteriores[i])) {
+                continue;
             }
 
-            conn.close();
+            insert.setInt(1, i);
+            for (int j=0; j<6; ++j){
+                insert.setInt(2 + j, filas[i][j]);
+            }
+            insert.setBytes(8, ChromosomeCodec.encode(filas[i], 6, filas[i].length - 6));
+
+            insert.addBatch();
+            pendientes = true;
         }
-        catch(Exception e) {
 
-            System.out.println("OCURRIO UN ERROR EN LA INSERCION EN GENETICO");
-            e.printStackTrace(System.out);
+        if (pendientes) {
+            insert.executeBatch();
+        }
+    }
+
+    /** Values of the row of an individual in the table Genetico (without its position).
+     * @param individual Individual to be stored.
+     * @param generation Current generation's number.
+     * @param current 1 if it is the current individual, -1 otherwise.
+     *
+     * @return generacion, deaths, kills, totalDamageGiven, totalDamageTaken, current and the genes.
+     */
+    private static int [] fila(Individual individual, int generation, int current){
+
+        int [] valores = new int [6 + individual.chromosomeSize()];
+
+        valores[0] = generation;
+        valores[1] = individual.getDeaths();
+        valores[2] = individual.getKills();
+        valores[3] = individual.getTotalDamageGiven();
+        valores[4] = individual.getTotalDamageTaken();
+        valores[5] = current;
+        for (int j=0; j<individual.chromosomeSize(); ++j){
+            valores[6 + j] = individual.getGene(j);
         }
+
+        return valores;
     }
 
     /**  Enable debug mode.
@@ -469,6 +1349,8 @@ public class Memoria {
      * @param obj Object to update.
      */
     public static void update(Item obj){
+        indice.add(obj);
+
         if(obj.getType().getCategory().equals(ItemType.Category.WEAPON)){
             Pair<String, Boolean> pp = new Pair(obj.getId().getStringId(), true);
             weapon.put(obj.getType().getGroup().toString(), pp);
@@ -512,117 +1394,83 @@ public class Memoria {
      /**  Store de class Memoria structures in DB.
      * @param map Map of the game.
      */
-    public void store (String map){
+    public synchronized void store (String map){
 
-        Iterator it = null;
-
-        if(!weapon.isEmpty()){
-            it = weapon.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry e = (Map.Entry)it.next();
-                Pair <String, Boolean> p = (Pair<String, Boolean>) e.getValue();
-                storeObject(p.getFirst(), "WEAPON", (String) e.getKey(), map);
-            }
-        }
+        store(objetos(map));
+    }
 
-       if(!armor.isEmpty()){
-            it = armor.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry e = (Map.Entry)it.next();
-                Pair <String, Boolean> p = (Pair<String, Boolean>) e.getValue();
-                storeObject(p.getFirst(), "ARMOR", (String) e.getKey(), map);
-            }
-        }
+    /** Rows of the table Item of the items that have to be stored (the ones that
+     * aren't in DB yet or have changed), so they can be stored later (@see store(List))
+     * while the items keep being updated.
+     * @param map Map of the game.
+     *
+     * @return Rows of the table Item (id, tipo, nombre and mapa).
+     */
+    public static List <String []> objetos (String map){
 
-        if(!health.isEmpty()){
-            it = health.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry e = (Map.Entry)it.next();
-                Set <String> p = (Set<String>) e.getValue();
-                for(String t : p)
-                    storeObject(t, "HEALTH", (String) e.getKey(), map);
-            }
-        }
+        return indice.pending(map);
+    }
 
-        if(!ammo.isEmpty()){
-            it = ammo.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry e = (Map.Entry)it.next();
-                Set <String> p = (Set<String>) e.getValue();
-                for(String t : p)
-                    storeObject(t, "AMMO", (String) e.getKey(), map);
-            }
-        }
+    /** Get the index of the items known in the current map.
+     *
+     * @return Index of the items.
+     */
+    public static ItemIndex items (){
 
-        if(!adrenaline.isEmpty()){
-            for(String t : adrenaline)
-                storeObject(t, "ADRENALINE", "ADRENALINE" , map);
-        }
+        return indice;
     }
 
-    /** Private function to store a object in DB.
-     * @param id Identificator of this object.
-     * @param tipo Type of this object.
-     * @param nombre Name of this object.
-     * @param mapa Map of the game.
+    /** Store the rows of the table Item in DB (in a single transaction), replacing
+     * the objects that are already stored.
+     * @param objetos Rows of the table Item (id, tipo, nombre and mapa).
      */
-    private void storeObject (String id, String tipo, String nombre, String mapa){
+    public synchronized void store (List <String []> objetos){
 
-        String sql = null;
+        String sql = "INSERT OR REPLACE INTO Item VALUES(?, ?, ?, ?);";
 
         if(DEBUG == true){
             System.out.println("Start function store()");
         }
 
-        try {
+        if (objetos.isEmpty()) {
+            return;
+        }
 
-            Class.forName("org.sqlite.JDBC");
-            Connection conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
+        try {
+            empezar();
 
-            sql = "insert into Item values('"+ id +"','"+ tipo +"',"
-                    + "'"+ nombre +"',"
-                    + "'"+ mapa +"');";
+            PreparedStatement sta = preparar(sql);
+            for (String [] objeto : objetos) {
+                if(DEBUG == true){
+                    System.out.println("SQL: " + sql + " <- " + objeto[0] + ", " + objeto[1] + ", " + objeto[2] + ", " + objeto[3]);
+                }
 
-             if(DEBUG == true){
-                System.out.println("SQL: " + sql);
+                for (int i=0; i<objeto.length; ++i){
+                    sta.setString(i + 1, objeto[i]);
+                }
+                sta.addBatch();
             }
+            sta.executeBatch();
 
-            Statement sta = conn.createStatement();
-            sta.execute(sql);
-            sta.close();
-            conn.commit();
-            conn.close();
-
+            confirmar();
+            indice.stored(objetos);
         }
         catch (Exception e) {
+
+            deshacer();
             System.out.println("OCURRIO UN ERROR EN LA FUNCION STORE");
             e.printStackTrace(System.out);
         }
-
     }
 
      /** Load the class Memoria structures.
       * @param map Map of the game.
       */
-    public void load(String map){
+    public synchronized void load(String map){
 
         ResultSet resultados;
-        String aux = new String();
-        String sql = null;
-        Set <String> miniH = new HashSet <String>();
-        Set <String> H = new HashSet <String>();
-        Set <String> AMMO_ASSAULT_RIFLE = new HashSet <String> ();
-        Set <String> AMMO_BIO_RIFLE = new HashSet <String> ();
-        Set <String> AMMO_FLAK_CANNON = new HashSet <String> ();
-        Set <String> AMMO_LIGHTNING_GUN = new HashSet <String> ();
-        Set <String> AMMO_LINK_GUN = new HashSet <String> ();
-        Set <String> AMMO_MINIGUN = new HashSet <String> ();
-        Set <String> AMMO_ROCKET_LAUNCHER = new HashSet <String> ();
-        Set <String> AMMO_SHIELD_GUN = new HashSet <String> ();
-        Set <String> AMMO_SHOCK_RIFLE = new HashSet <String> ();
-        Set <String> AMMO_SNIPER_RIFLE = new HashSet <String> ();
-
-        sql = "SELECT id, tipo, nombre FROM Item WHERE mapa = '"+ map +"';";
+        String sql = "SELECT id, tipo, nombre FROM Item WHERE mapa = ?;";
+        ItemIndex cargado = new ItemIndex(map);
 
         if(DEBUG == true){
             System.out.println("Start function loadLocation()");
@@ -631,98 +1479,62 @@ public class Memoria {
 
         try {
 
-            Class.forName("org.sqlite.JDBC");
-            Connection conn = DriverManager.getConnection("jdbc:sqlite:"+BDNAME);
-
-            Statement sta = conn.createStatement();
-            resultados = sta.executeQuery(sql);
+            PreparedStatement sta = preparar(sql);
+            sta.setString(1, map);
+            resultados = sta.executeQuery();
 
             if(DEBUG == true){
                 System.out.println("LLamada a la BD realizada con éxito");
             }
 
             while(resultados.next()){
-                aux = resultados.getString("id");
-
-                if(resultados.getString("tipo").equals("ADRENALINE")){
-                    adrenaline.add(aux);
-                }
-
-                else if(resultados.getString("tipo").equals("HEALTH")){
-                    if(resultados.getString("nombre").equals("MINI_HEALTH")){
-                        miniH.add(aux);
-                    }
-                    else{
-                        H.add(aux);
-                    }
+                try {
+                    cargado.addStored(resultados.getString(1), ItemType.Category.valueOf(resultados.getString(2)), ItemType.Group.valueOf(resultados.getString(3)));
                 }
-
-                 else if(resultados.getString("tipo").equals("AMMO")){
-                     if(resultados.getString("nombre").equals("ASSAULT_RIFLE")){
-                         AMMO_ASSAULT_RIFLE.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("BIO_RIFLE")){
-                         AMMO_BIO_RIFLE.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("FLAK_CANNON")){
-                         AMMO_FLAK_CANNON.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("LIGHTNING_GUN")){
-                         AMMO_LIGHTNING_GUN.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("LINK_GUN")){
-                         AMMO_LINK_GUN.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("MINIGUN")){
-                         AMMO_MINIGUN.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("ROCKET_LAUNCHER")){
-                         AMMO_ROCKET_LAUNCHER.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("SHIELD_GUN")){
-                         AMMO_SHIELD_GUN.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("SHOCK_RIFLE")){
-                         AMMO_SHOCK_RIFLE.add(aux);
-                     }
-                     else if(resultados.getString("nombre").equals("SNIPER_RIFLE")){
-                         AMMO_SNIPER_RIFLE.add(aux);
-                     }
-                }
-                else if(resultados.getString("tipo").equals("WEAPON")){
-                    weapon.put(resultados.getString("nombre"), new Pair<String, Boolean> (aux, false));
+                catch (IllegalArgumentException e) {
+                    System.out.println("TIPO DE OBJETO DESCONOCIDO: " + resultados.getString(2) + ", " + resultados.getString(3));
                 }
-                else if(resultados.getString("tipo").equals("ARMOR")){
-                    armor.put(resultados.getString("nombre"), new Pair <String, Boolean> (aux, false));
-                }
-           }
-
-            /*Guardamos los datos recopilados en cada una de su estructuras*/
-            health.put("MINI_HEALTH", miniH);
-            health.put("HEALTH", H);
-            ammo.put("ASSAULT_RIFLE", AMMO_ASSAULT_RIFLE);
-            ammo.put("BIO_RIFLE", AMMO_BIO_RIFLE);
-            ammo.put("FLAIK_CANNON", AMMO_FLAK_CANNON);
-            ammo.put("LIGHTNING_GUN", AMMO_LIGHTNING_GUN);
-            ammo.put("LINK_GUN", AMMO_LINK_GUN);
-            ammo.put("MINIGUN", AMMO_MINIGUN);
-            ammo.put("ROCKET_LAUNCHER", AMMO_ROCKET_LAUNCHER);
-            ammo.put("SHIELD_GUN", AMMO_SHIELD_GUN);
-            ammo.put("SHOCK_RIFLE", AMMO_SHOCK_RIFLE);
-            ammo.put("SNIPER_RIFLE", AMMO_SNIPER_RIFLE);
-
-
-            for(Pair<String,Boolean> i : armor.values()){
-                System.out.println(i.getFirst());
             }
-
-            sta.close();
-            conn.close();
+            resultados.close();
         }
         catch (Exception e) {
             System.out.println("OCURRIO UN ERROR EN LA FUNCION LOADLOCATION");
             e.printStackTrace(System.out);
+        }
+
+        // The items seen in this map before it was loaded are kept
+        if (indice.getMap() == null || indice.getMap().equals(map)) {
+            for (String [] objeto : indice.pending(map)) {
+                cargado.add(objeto[0], ItemType.Category.valueOf(objeto[1]), ItemType.Group.valueOf(objeto[2]));
+            }
+        }
+        indice = cargado;
+
+        /*Guardamos los datos recopilados en cada una de su estructuras*/
+        for (Map.Entry <ItemType.Group, Set <String>> grupo : indice.category(ItemType.Category.WEAPON).entrySet()) {
+            for (String id : grupo.getValue()) {
+                weapon.put(grupo.getKey().toString(), new Pair<String, Boolean> (id, false));
+            }
+        }
+        for (Map.Entry <ItemType.Group, Set <String>> grupo : indice.category(ItemType.Category.ARMOR).entrySet()) {
+            for (String id : grupo.getValue()) {
+                armor.put(grupo.getKey().toString(), new Pair <String, Boolean> (id, false));
+            }
+        }
+        health.put(ItemType.Group.MINI_HEALTH.toString(), new HashSet <String>());
+        health.put(ItemType.Group.HEALTH.toString(), new HashSet <String>());
+        for (Map.Entry <ItemType.Group, Set <String>> grupo : indice.category(ItemType.Category.HEALTH).entrySet()) {
+            health.put(grupo.getKey().toString(), new HashSet <String>(grupo.getValue()));
+        }
+        for (Map.Entry <ItemType.Group, Set <String>> grupo : indice.category(ItemType.Category.AMMO).entrySet()) {
+            ammo.put(grupo.getKey().toString(), new HashSet <String>(grupo.getValue()));
+        }
+        for (Set <String> ids : indice.category(ItemType.Category.ADRENALINE).values()) {
+            adrenaline.addAll(ids);
+        }
 
+        for(Pair<String,Boolean> i : armor.values()){
+            System.out.println(i.getFirst());
         }
     }
 
@@ -0,0 +1,238 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package knowledge;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * This class executes the writes to the data base in a background thread, so
+ * the thread that asks for them (the one that handles the events of the bot)
+ * never waits for the disk. Each write has a key: if a write with the same key
+ * is still pending, it is replaced by the new one (only the latest state is
+ * stored). The pending writes are executed in order of arrival and they are
+ * always completed before the writer is closed, even if the JVM exits.
+ *
+ * @author Francisco Aisa Garcia
+ */
+
+
+public class PersistenceWriter {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Maximum number of pending writes */
+    private final int capacity;
+    /** Pending writes indexed by their key (in order of arrival) */
+    private final Map <String, Runnable> pending;
+    /** Thread that executes the writes */
+    private final Thread worker;
+    /** Thread that closes the writer when the JVM exits */
+    private final Thread shutdownHook;
+    /** True while the worker is executing a write */
+    private boolean running;
+    /** True once the writer has been closed */
+    private boolean closed;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. It starts the background thread.
+     * @param name Name of the background thread.
+     * @param capacity Maximum number of pending writes (with different keys).
+     */
+    public PersistenceWriter (String name, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException ("The capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        pending = new LinkedHashMap <String, Runnable> ();
+        running = false;
+        closed = false;
+
+        worker = new Thread (name) {
+            public void run () {
+                work ();
+            }
+        };
+        worker.setDaemon (true);
+        worker.start ();
+
+        shutdownHook = new Thread (name + "-shutdown") {
+            public void run () {
+                close ();
+            }
+        };
+        Runtime.getRuntime ().addShutdownHook (shutdownHook);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Queues a write. If there is a pending write with the same key, it is
+     * replaced (keeping its turn). If there are already capacity writes pending,
+     * the caller waits until one of them is executed. If the writer has been
+     * closed, the write is executed by the calling thread.
+     * @param key Key of the write.
+     * @param task Write to be executed.
+     */
+    public void submit (String key, Runnable task) {
+        synchronized (this) {
+            if (!closed) {
+                if (!pending.containsKey (key)) {
+                    while (pending.size () >= capacity && !closed) {
+                        try {
+                            wait ();
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread ().interrupt ();
+                            break;
+                        }
+                    }
+                }
+
+                if (!closed) {
+                    pending.put (key, task);
+                    notifyAll ();
+                    return;
+                }
+            }
+        }
+
+        execute (task);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Waits until every pending write has been executed.
+     * @return False if the calling thread was interrupted while waiting.
+     */
+    public synchronized boolean flush () {
+        if (Thread.currentThread () == worker) {
+            return pending.isEmpty ();
+        }
+
+        while (!pending.isEmpty () || running) {
+            try {
+                wait ();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread ().interrupt ();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Executes the pending writes and stops the background thread. Later writes
+     * are executed by the thread that asks for them.
+     */
+    public void close () {
+        synchronized (this) {
+            closed = true;
+            notifyAll ();
+        }
+
+        if (Thread.currentThread () != worker) {
+            try {
+                worker.join ();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread ().interrupt ();
+            }
+        }
+
+        if (Thread.currentThread () != shutdownHook) {
+            try {
+                Runtime.getRuntime ().removeShutdownHook (shutdownHook);
+            }
+            catch (IllegalStateException e) {
+                // The JVM is already exiting, the hook is running
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Loop of the background thread: it executes the pending writes until the
+     * writer is closed and there isn't any write left.
+     */
+    private void work () {
+        while (true) {
+            Runnable task;
+
+            synchronized (this) {
+                while (pending.isEmpty () && !closed) {
+                    try {
+                        wait ();
+                    }
+                    catch (InterruptedException e) {
+                        // Only close () stops the writer
+                    }
+                }
+
+                if (pending.isEmpty ()) {
+                    return;
+                }
+
+                Iterator <Runnable> it = pending.values ().iterator ();
+                task = it.next ();
+                it.remove ();
+                running = true;
+                notifyAll ();
+            }
+
+            execute (task);
+
+            synchronized (this) {
+                running = false;
+                notifyAll ();
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Executes a write, so an error doesn't stop the following ones.
+     * @param task Write to be executed.
+     */
+    private void execute (Runnable task) {
+        try {
+            task.run ();
+        }
+        catch (RuntimeException e) {
+            Logger.getLogger (PersistenceWriter.class.getName ()).log (Level.SEVERE, null, e);
+        }
+    }
+}
@@ -0,0 +1,643 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package simulation;
+
+import behavior.primaryStates.PrimaryState;
+import behavior.secondaryStates.SecondaryState;
+import evolutionaryComputation.*;
+import knowledge.EnemyInfo;
+import utilities.RandomService;
+import utilities.RandomStream;
+
+import cz.cuni.amis.pogamut.base3d.worldview.object.Location;
+import cz.cuni.amis.pogamut.ut2004.communication.messages.ItemType;
+
+
+
+/**
+ * This class implements a headless, deterministic and time-stepped duel. The
+ * individual being evaluated fights against an opponent in a flat arena with
+ * item spawns. Both bots deliberate with the real decision code (Skynet and the
+ * weapon choice of PrimaryState), while movement, shooting and pickups are
+ * approximated. It doesn't replace a real match, but it is orders of magnitude
+ * faster, so it can be used to pre-screen whole generations before spending
+ * real matches on them.
+ *
+ * The same seed always produces the same arena. Each match gets its own random
+ * events (split from the seed), so an individual that plays several matches gets
+ * different results, but the same seed always produces the same sequence of
+ * matches, hence, a whole run can be reproduced.
+ *
+ * Each simulator keeps the state of its arena, so it must not be shared between
+ * threads. To evaluate a population in parallel, give every thread its own
+ * simulator (@see EvaluationScheduler).
+ *
+ * @author Francisco Aisa García
+ */
+
+
+public class DuelSimulator extends FitnessEvaluator {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Size of the side of the (square) arena */
+    public static final double ARENA_SIZE = 6000;
+    /** Distance a bot covers in a second */
+    public static final double BOT_SPEED = 440;
+    /** Maximum distance at which a bot can see the other one */
+    public static final double SIGHT_RANGE = 3500;
+    /** Maximum distance at which a bot can hear the other one picking up items */
+    public static final double HEARING_RANGE = 1500;
+    /** Maximum distance at which a bot can pick up an item */
+    public static final double PICKUP_RADIUS = 60;
+    /** Physical limit between close and average distance */
+    public static final double CLOSE_RANGE = 800;
+    /** Physical limit between average and far distance */
+    public static final double AVERAGE_RANGE = 2000;
+    /** Probability of hitting the enemy each time a bot shoots */
+    public static final double ACCURACY = 0.65;
+
+    /** Damage per second of each weapon (indexed by the constants in EnemyInfo)
+     at close, average and far distance */
+    static final int DAMAGE [][] = {{70, 0, 0},     // SHIELD GUN
+                                    {40, 25, 10},   // ASSAULT RIFLE
+                                    {60, 20, 0},    // BIO RIFLE
+                                    {90, 45, 0},    // LINK GUN
+                                    {80, 50, 20},   // MINIGUN
+                                    {110, 50, 5},   // FLAK CANNON
+                                    {90, 70, 30},   // ROCKET LAUNCHER
+                                    {60, 60, 50},   // SHOCK RIFLE
+                                    {40, 55, 70}};  // SNIPER RIFLE/LIGHTNING GUN
+    /** Ammo given by each weapon pickup (a shot is fired in each deliberation) */
+    static final int AMMO_PICKUP [] = {0, 50, 30, 40, 60, 30, 30, 30, 30};
+    /** Maximum ammo of each weapon (the shield gun never runs out of ammo) */
+    static final int MAX_AMMO [] = {100, 120, 80, 100, 150, 80, 80, 80, 80};
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Stream from which the random events of each match are split */
+    private final RandomStream matchStreams;
+    /** Duration of each match in seconds */
+    private final double matchTime;
+    /** Seconds between two consecutive deliberations */
+    private final double timeStep;
+    /** Individual that drives the opponent */
+    private final Individual opponent;
+    /** Spots where the items spawn */
+    private final ItemSpawn spawns [];
+    /** Spots where the bots spawn */
+    private final double playerStarts [][];
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor. Matches last 10 minutes and the bots deliberate
+     * 4 times per second (like T800.logic).
+     * @param seed Seed that dictates the arena and every random event.
+     * @param opponent Individual that drives the opponent.
+     */
+    public DuelSimulator (long seed, final Individual opponent) {
+        this (seed, 600, 0.25, opponent);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param seed Seed that dictates the arena and every random event.
+     * @param matchTime Duration of each match in seconds.
+     * @param timeStep Seconds between two consecutive deliberations.
+     * @param opponent Individual that drives the opponent.
+     */
+    public DuelSimulator (long seed, double matchTime, double timeStep, final Individual opponent) {
+        this.matchTime = matchTime;
+        this.timeStep = timeStep;
+        this.opponent = opponent;
+
+        RandomStream generator = new RandomStream (seed);
+
+        // Weapons (the shield gun and the assault rifle are carried by default),
+        // health packs and shields
+
+        ItemType types [] = {ItemType.BIO_RIFLE, ItemType.LINK_GUN, ItemType.MINIGUN, ItemType.FLAK_CANNON,
+                             ItemType.ROCKET_LAUNCHER, ItemType.SHOCK_RIFLE, ItemType.SNIPER_RIFLE,
+                             ItemType.HEALTH_PACK, ItemType.HEALTH_PACK, ItemType.HEALTH_PACK, ItemType.HEALTH_PACK,
+                             ItemType.SHIELD_PACK, ItemType.SUPER_SHIELD_PACK};
+
+        spawns = new ItemSpawn [types.length];
+        for (int i = 0; i < types.length; ++i) {
+            double respawnTime = types [i].equals (ItemType.SUPER_SHIELD_PACK) ? 60 : 30;
+            spawns [i] = new ItemSpawn (types [i], generator.nextDouble () * ARENA_SIZE, generator.nextDouble () * ARENA_SIZE, respawnTime);
+        }
+
+        playerStarts = new double [6][2];
+        for (int i = 0; i < playerStarts.length; ++i) {
+            playerStarts [i][0] = generator.nextDouble () * ARENA_SIZE;
+            playerStarts [i][1] = generator.nextDouble () * ARENA_SIZE;
+        }
+
+        matchStreams = generator.split ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Plays a simulated duel between the given individual and the opponent. The
+     * results are added to the individual's stats. Each call plays a different
+     * match (the n-th call of two simulators with the same seed plays the same
+     * one). The item spawns are shared by every call, so it must be called from
+     * one thread only.
+     * @param individual Individual to be evaluated.
+     */
+    public void evaluate (Individual individual) {
+        RandomStream generator = matchStreams.split ();
+
+        for (int i = 0; i < spawns.length; ++i) {
+            spawns [i].reset ();
+        }
+
+        SimulatedBot player = new SimulatedBot (individual);
+        SimulatedBot enemy = new SimulatedBot (opponent);
+
+        respawn (player, generator);
+        respawn (enemy, generator);
+
+        for (double clockTime = 0; clockTime < matchTime; clockTime = clockTime + timeStep) {
+            double distance = player.getDistance (enemy.x, enemy.y);
+            boolean onSight = distance < SIGHT_RANGE;
+
+            // Deliberate and move
+
+            deliberate (player, enemy, onSight, distance, clockTime);
+            deliberate (enemy, player, onSight, distance, clockTime);
+
+            move (player, enemy, onSight, clockTime, generator);
+            move (enemy, player, onSight, clockTime, generator);
+
+            // Shoot (both bots shoot at the same time)
+
+            distance = player.getDistance (enemy.x, enemy.y);
+            onSight = distance < SIGHT_RANGE;
+
+            if (onSight) {
+                int playerDamage = shoot (player, enemy, distance, generator);
+                int enemyDamage = shoot (enemy, player, distance, generator);
+
+                if (playerDamage > 0) {
+                    individual.incrementDamageGiven (playerDamage);
+                    damage (player, enemy, playerDamage, clockTime);
+                }
+
+                if (enemyDamage > 0) {
+                    individual.incrementDamageTaken (enemyDamage);
+                    damage (enemy, player, enemyDamage, clockTime);
+                }
+            }
+
+            // Pick up items
+
+            pickup (player, enemy, clockTime);
+            pickup (enemy, player, clockTime);
+
+            // Deaths
+
+            if (enemy.isDead ()) {
+                individual.incrementKills ();
+                player.enemyInfo.reset ();
+                respawn (enemy, generator);
+            }
+
+            if (player.isDead ()) {
+                individual.incrementDeaths ();
+                enemy.enemyInfo.reset ();
+                respawn (player, generator);
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Skynet decides the primary and secondary state, and the bot switches to the
+     * best weapon (as T800.logic does).
+     * @param bot Bot that deliberates.
+     * @param other Enemy of the bot.
+     * @param onSight True if the bots can see each other.
+     * @param distance Distance between the bots.
+     * @param clockTime Current game time.
+     */
+    private void deliberate (final SimulatedBot bot, final SimulatedBot other, boolean onSight, double distance, double clockTime) {
+        if (onSight) {
+            bot.enemyInfo.updateEnemyLocation (new Location (other.x, other.y, 0), clockTime);
+            bot.enemyInfo.setWeapon (other.currentWeapon, true);
+        }
+
+        int arsenalStatus [] = bot.skynet.compareArsenals (bot.loadedArsenal (), bot.enemyInfo.getArsenal ());
+        int behaviorArray [] = bot.skynet.behave (arsenalStatus, bot.health, bot.armor, onSight, distance, bot.enemyInfo, clockTime);
+        bot.primaryState = behaviorArray [0];
+        bot.secondaryState = behaviorArray [1];
+
+        // While retreating from a visible enemy the shield gun is used for protection
+        if (onSight && bot.primaryState == PrimaryState.States.RETREAT.ordinal ()) {
+            bot.currentWeapon = EnemyInfo.SHIELD_GUN;
+        }
+        else {
+            int bestWeapon = PrimaryState.selectBestWeapon (bot.ammo, bot.individual);
+
+            if (bestWeapon != -1) {
+                bot.currentWeapon = bestWeapon;
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Moves the bot. The destination estimated by Skynet has the highest priority,
+     * then the secondary state and finally the primary state (@see PrimaryState.executeMovement).
+     * @param bot Bot that moves.
+     * @param other Enemy of the bot.
+     * @param onSight True if the bots can see each other.
+     * @param clockTime Current game time.
+     * @param generator Random numbers generator of the match.
+     */
+    private void move (final SimulatedBot bot, final SimulatedBot other, boolean onSight, double clockTime, final RandomStream generator) {
+        double step = BOT_SPEED * timeStep;
+        ItemSpawn target = estimateDestination (bot, onSight, clockTime);
+
+        if (target == null) {
+            int secondaryState = bot.secondaryState;
+
+            if (secondaryState == SecondaryState.States.PICKUP_HEALTH.ordinal () || secondaryState == SecondaryState.States.CRITICAL_HEALTH.ordinal ()) {
+                target = closestItem (bot, ItemType.Category.HEALTH, false, clockTime);
+            }
+            else if (secondaryState == SecondaryState.States.PICKUP_WEAPON.ordinal () || secondaryState == SecondaryState.States.CRITICAL_WEAPONRY.ordinal ()) {
+                target = closestItem (bot, ItemType.Category.WEAPON, false, clockTime);
+            }
+            else if (secondaryState == SecondaryState.States.PICKUP_AMMO.ordinal ()) {
+                target = closestItem (bot, ItemType.Category.WEAPON, true, clockTime);
+            }
+            else if (onSight && secondaryState == SecondaryState.States.OFENSIVE_PROFILE.ordinal ()) {
+                bot.moveTowards (other.x, other.y, step);
+                return;
+            }
+            else if (onSight && secondaryState == SecondaryState.States.DEFENSIVE_PROFILE.ordinal ()) {
+                bot.moveTowards (other.x, other.y, -step);
+                return;
+            }
+        }
+
+        if (target != null) {
+            bot.moveTowards (target.getX (), target.getY (), step);
+            return;
+        }
+
+        // State driven movement
+
+        int primaryState = bot.primaryState;
+        Location lastKnownLocation = bot.enemyInfo.getLastKnownLocation ();
+
+        if (primaryState == PrimaryState.States.ATTACK.ordinal ()) {
+            // Dodge sideways
+            double dx = other.x - bot.x;
+            double dy = other.y - bot.y;
+            double side = generator.nextBoolean () ? step : -step;
+            bot.moveTowards (bot.x - dy, bot.y + dx, side);
+        }
+        else if (primaryState == PrimaryState.States.RETREAT.ordinal ()) {
+            if (lastKnownLocation != null) {
+                bot.moveTowards (lastKnownLocation.x, lastKnownLocation.y, -step);
+            }
+        }
+        else if (primaryState == PrimaryState.States.GREEDY.ordinal ()) {
+            target = closestItem (bot, null, false, clockTime);
+            if (target != null) {
+                bot.moveTowards (target.getX (), target.getY (), step);
+            }
+        }
+        else if (primaryState == PrimaryState.States.HUNT.ordinal ()) {
+            if (lastKnownLocation != null && bot.getDistance (lastKnownLocation.x, lastKnownLocation.y) > PICKUP_RADIUS) {
+                bot.moveTowards (lastKnownLocation.x, lastKnownLocation.y, step);
+            }
+            else {
+                // Roam between the item spots
+                if (bot.wanderSpot == null || bot.getDistance (bot.wanderSpot.getX (), bot.wanderSpot.getY ()) < PICKUP_RADIUS) {
+                    bot.wanderSpot = spawns [generator.nextInt (spawns.length)];
+                }
+
+                bot.moveTowards (bot.wanderSpot.getX (), bot.wanderSpot.getY (), step);
+            }
+        }
+        // CAMP: stay put
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It dictates where the bot should go (if any place), following the same
+     * criteria as Skynet.estimateDestination: shields first (even if we are seeing
+     * the enemy if it has the biggest priority) and then weapons.
+     * @param bot Bot that is deliberating.
+     * @param onSight True if the bot is seeing the enemy.
+     * @param clockTime Current game time.
+     * @return Item spot where the bot must go. Null if it musn't go anywhere.
+     */
+    private ItemSpawn estimateDestination (final SimulatedBot bot, boolean onSight, double clockTime) {
+        ItemSpawn newDestination = null;
+        int currentPriority;
+        int maximumPriority = 0;
+        boolean loaded [] = bot.loadedArsenal ();
+
+        for (int i = 0; i < spawns.length; ++i) {
+            if (spawns [i].getType ().getCategory ().equals (ItemType.Category.ARMOR) && spawns [i].isSpawned (clockTime)) {
+                currentPriority = bot.skynet.estimateItemPriority (spawns [i].getType (), bot.owned, loaded);
+
+                if (currentPriority > maximumPriority) {
+                    maximumPriority = currentPriority;
+
+                    if (!onSight || maximumPriority == 100) {
+                        newDestination = spawns [i];
+                    }
+                }
+            }
+        }
+
+        if (!onSight && newDestination == null) {
+            double currentDistance;
+            double targetDistance = Double.MAX_VALUE;
+
+            for (int i = 0; i < spawns.length; ++i) {
+                if (spawns [i].getType ().getCategory ().equals (ItemType.Category.WEAPON) && spawns [i].isSpawned (clockTime)) {
+                    currentPriority = bot.skynet.estimateItemPriority (spawns [i].getType (), bot.owned, loaded);
+                    currentDistance = bot.getDistance (spawns [i].getX (), spawns [i].getY ());
+
+                    // If we have two items with the same priority, we'll stick
+                    // with the closest one
+                    if (currentPriority > maximumPriority || (currentPriority == maximumPriority && currentPriority > 0 && currentDistance < targetDistance)) {
+                        maximumPriority = currentPriority;
+                        targetDistance = currentDistance;
+                        newDestination = spawns [i];
+                    }
+                }
+            }
+        }
+
+        return newDestination;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It retrieves the closest spawned item of a given category.
+     * @param bot Bot looking for the item.
+     * @param category Category of the item. If it is null, any item is valid.
+     * @param owned If true, only weapons the bot is carrying are valid (to get ammo).
+     * If false, only weapons the bot isn't carrying are valid.
+     * @param clockTime Current game time.
+     * @return The closest item or null if there isn't any spawned.
+     */
+    private ItemSpawn closestItem (final SimulatedBot bot, final ItemType.Category category, boolean owned, double clockTime) {
+        ItemSpawn closest = null;
+        double minimumDistance = Double.MAX_VALUE;
+
+        for (int i = 0; i < spawns.length; ++i) {
+            ItemType type = spawns [i].getType ();
+
+            if (spawns [i].isSpawned (clockTime) && (category == null || type.getCategory ().equals (category))) {
+                if (type.getCategory ().equals (ItemType.Category.WEAPON) && category != null && bot.owned [arsenalPosition (type)] != owned) {
+                    continue;
+                }
+
+                double currentDistance = bot.getDistance (spawns [i].getX (), spawns [i].getY ());
+                if (currentDistance < minimumDistance) {
+                    minimumDistance = currentDistance;
+                    closest = spawns [i];
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The bot shoots its current weapon at the enemy.
+     * @param bot Bot that shoots.
+     * @param other Enemy.
+     * @param distance Distance between the bots.
+     * @param generator Random numbers generator of the match.
+     * @return Damage given to the enemy.
+     */
+    private int shoot (final SimulatedBot bot, final SimulatedBot other, double distance, final RandomStream generator) {
+        int weapon = bot.currentWeapon;
+
+        // A retreating bot uses the shield gun to protect itself, not to shoot
+        if (bot.ammo [weapon] <= 0 || (weapon == EnemyInfo.SHIELD_GUN && bot.primaryState == PrimaryState.States.RETREAT.ordinal ())) {
+            return 0;
+        }
+
+        int range = distance < CLOSE_RANGE ? 0 : (distance < AVERAGE_RANGE ? 1 : 2);
+
+        if (weapon != EnemyInfo.SHIELD_GUN) {
+            bot.ammo [weapon] = bot.ammo [weapon] - 1;
+        }
+
+        int damage = 0;
+        if (generator.nextDouble () < ACCURACY) {
+            damage = (int) Math.round (DAMAGE [weapon][range] * timeStep);
+
+            // The shield gun absorbs half of the damage
+            if (other.currentWeapon == EnemyInfo.SHIELD_GUN && other.primaryState == PrimaryState.States.RETREAT.ordinal ()) {
+                damage = damage / 2;
+            }
+        }
+
+        return damage;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Applies the damage given by a bot to its enemy, updating what both of them
+     * know (as T800's playerDamaged and botDamaged listeners do).
+     * @param attacker Bot that gave the damage.
+     * @param victim Bot that took the damage.
+     * @param damage Amount of damage.
+     * @param clockTime Current game time.
+     */
+    private void damage (final SimulatedBot attacker, final SimulatedBot victim, int damage, double clockTime) {
+        victim.hit (damage);
+        attacker.enemyInfo.hit (damage);
+        victim.enemyInfo.updateEnemyLocation (new Location (attacker.x, attacker.y, 0), clockTime);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The bot picks up every spawned item within reach. If the enemy is close
+     * enough, it hears the pickup (@see EnemyInfo.hearPickup).
+     * @param bot Bot picking up items.
+     * @param other Enemy.
+     * @param clockTime Current game time.
+     */
+    private void pickup (final SimulatedBot bot, final SimulatedBot other, double clockTime) {
+        for (int i = 0; i < spawns.length; ++i) {
+            ItemSpawn spawn = spawns [i];
+
+            if (spawn.isSpawned (clockTime) && bot.getDistance (spawn.getX (), spawn.getY ()) < PICKUP_RADIUS) {
+                ItemType type = spawn.getType ();
+                boolean heard = other.getDistance (spawn.getX (), spawn.getY ()) < HEARING_RANGE;
+
+                if (type.equals (ItemType.HEALTH_PACK)) {
+                    if (bot.health >= 100) {
+                        continue;
+                    }
+                    bot.health = Math.min (bot.health + 25, 100);
+                    if (heard) {
+                        other.enemyInfo.increaseHealth (EnemyInfo.HEALTH_PACK);
+                    }
+                }
+                else if (type.equals (ItemType.SHIELD_PACK) || type.equals (ItemType.SUPER_SHIELD_PACK)) {
+                    int armorPoints = type.equals (ItemType.SHIELD_PACK) ? 50 : 100;
+                    bot.armor = Math.min (bot.armor + armorPoints, 150);
+                    if (heard) {
+                        other.enemyInfo.increaseArmor (armorPoints);
+                    }
+                }
+                else {
+                    int weapon = arsenalPosition (type);
+                    bot.owned [weapon] = true;
+                    bot.ammo [weapon] = Math.min (bot.ammo [weapon] + AMMO_PICKUP [weapon], MAX_AMMO [weapon]);
+                    if (heard) {
+                        other.enemyInfo.setWeapon (weapon, true);
+                    }
+                }
+
+                if (heard) {
+                    other.enemyInfo.updateEnemyLocation (new Location (spawn.getX (), spawn.getY (), 0), clockTime);
+                }
+
+                spawn.pickup (clockTime);
+            }
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Spawns a bot in a random player start.
+     * @param bot Bot to be spawned.
+     * @param generator Random numbers generator of the match.
+     */
+    private void respawn (final SimulatedBot bot, final RandomStream generator) {
+        double start [] = playerStarts [generator.nextInt (playerStarts.length)];
+        bot.spawn (start [0], start [1]);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Position of a type of weapon in the arsenal vector.
+     * @param type Type of the weapon.
+     * @return Position of the weapon (@see EnemyInfo constants).
+     */
+    private static int arsenalPosition (final ItemType type) {
+        if (type.equals (ItemType.LIGHTNING_GUN)) {
+            return EnemyInfo.SNIPER_RIFLE;
+        }
+
+        for (int i = 0; i < EnemyInfo.ARSENAL_TYPES.length; ++i) {
+            if (EnemyInfo.ARSENAL_TYPES [i].equals (type)) {
+                return i;
+            }
+        }
+
+        return EnemyInfo.SHIELD_GUN;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It builds a reasonable opponent, with gene values in the middle of the
+     * ranges used by IndividualV1 and sensible weapon and item priorities.
+     * @return An individual to be used as the opponent.
+     */
+    public static Individual referenceOpponent () {
+        int genes [] = {600, 1300, 2050,                          // Distances
+                        10, 20, 40, 60, 70, 80, 85, 75, 65,       // Weapons
+                        50, 105, 17, 47, 37, 65, 60, 6,           // Skynet decisions
+                        100, 60, 50, 60, 80, 70};                 // Items priority
+
+        Individual opponent = new IndividualV1 (false, new NonLinearFitness ());
+        for (int locus = 0; locus < genes.length; ++locus) {
+            opponent.setGene (locus, genes [locus]);
+        }
+
+        return opponent;
+    }
+
+
+    // *************************************************************************
+    //                                 MAIN
+    // *************************************************************************
+
+
+    /**
+     * Runs a whole genetic algorithm offline, using the simulator to evaluate
+     * every individual against the reference opponent. Nothing is stored in the
+     * data base, the best individual of each generation is printed instead. Two
+     * runs with the same seed produce exactly the same results.
+     * @param args Number of generations and seed (both optional).
+     */
+    public static void main (String args []) {
+        int generations = args.length > 0 ? Integer.parseInt (args [0]) : 50;
+        long seed = args.length > 1 ? Long.parseLong (args [1]) : 0;
+
+        // The genetic operators use the same seed, so the whole run can be reproduced
+        RandomService.seed (seed);
+
+        GeneticConfig config = new GeneticConfig ().setGenerations (generations).setPopulationSize (30)
+                                                   .setCrossover (new UniformCrossover ()).setMatches (1);
+        GeneticAlg geneticAlg = new DeterministicGenetic (config, null);
+        DuelSimulator simulator = new DuelSimulator (seed, referenceOpponent ());
+
+        for (int generation = 0; generation < generations; ++generation) {
+            geneticAlg.evaluate (simulator, 1);
+
+            Individual best = geneticAlg.bestIndividual ();
+            String chromosome = "";
+            for (int locus = 0; locus < best.chromosomeSize (); ++locus) {
+                chromosome = chromosome + " " + best.getGene (locus);
+            }
+
+            System.out.println ("Generation = " + generation + "; Kills = " + best.getKills () + "; Deaths = " + best.getDeaths ()
+                                + "; Fitness = " + best.fitness () + "; Chromosome =" + chromosome);
+
+            geneticAlg.nextGeneration (null);
+        }
+    }
+}
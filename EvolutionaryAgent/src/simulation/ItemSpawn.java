@@ -0,0 +1,115 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package simulation;
+
+import cz.cuni.amis.pogamut.ut2004.communication.messages.ItemType;
+
+
+/**
+ * This class represents a spot of the simulated arena where an item spawns. Once
+ * the item is picked up, it takes some time to spawn again.
+ *
+ * @author Francisco Aisa García
+ */
+
+
+public class ItemSpawn {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Type of the item that spawns in this spot */
+    private final ItemType type;
+    /** X coordinate of the spot */
+    private final double x;
+    /** Y coordinate of the spot */
+    private final double y;
+    /** Seconds the item takes to spawn again after being picked up */
+    private final double respawnTime;
+    /** Game time when the item will be available again (0 if it is spawned) */
+    private double availableAt;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param type Type of the item.
+     * @param x X coordinate of the spot.
+     * @param y Y coordinate of the spot.
+     * @param respawnTime Seconds the item takes to spawn again.
+     */
+    public ItemSpawn (final ItemType type, double x, double y, double respawnTime) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.respawnTime = respawnTime;
+        availableAt = 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Checks if the item can be picked up.
+     * @param clockTime Current game time.
+     * @return True if the item is spawned.
+     */
+    public boolean isSpawned (double clockTime) {
+        return clockTime >= availableAt;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The item has been picked up, it won't be available until it spawns again.
+     * @param clockTime Current game time.
+     */
+    public void pickup (double clockTime) {
+        availableAt = clockTime + respawnTime;
+    }
+
+    //__________________________________________________________________________
+
+    /** Makes the item available again (used at the beginning of each match) */
+    public void reset () {
+        availableAt = 0;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the type of the item */
+    public ItemType getType () {
+        return type;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the X coordinate of the spot */
+    public double getX () {
+        return x;
+    }
+
+    //__________________________________________________________________________
+
+    /** Get the Y coordinate of the spot */
+    public double getY () {
+        return y;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package simulation;
+
+import behavior.primaryStates.PrimaryState;
+import behavior.secondaryStates.SecondaryState;
+import brain.Skynet;
+import evolutionaryComputation.Individual;
+import knowledge.EnemyInfo;
+
+
+/**
+ * This class holds the state of one of the bots of a simulated duel: position,
+ * health, armor, arsenal and the knowledge it has about its enemy. The decisions
+ * are taken by a real Skynet driven by the bot's individual.
+ *
+ * @author Francisco Aisa García
+ */
+
+
+public class SimulatedBot {
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Individual that drives the decisions of the bot */
+    final Individual individual;
+    /** The brains of the bot */
+    final Skynet skynet;
+    /** Temporary information (that we know or have guessed) about the enemy */
+    final EnemyInfo enemyInfo;
+    /** X coordinate of the bot */
+    double x;
+    /** Y coordinate of the bot */
+    double y;
+    /** Current health */
+    int health;
+    /** Current armor */
+    int armor;
+    /** Ammo of each weapon (indexed by the constants in EnemyInfo) */
+    final int ammo [];
+    /** Weapons the bot is carrying (@see Skynet.ownedArsenal). The simulator has no
+     lightning gun (it is merged with the sniper rifle), so its slot is always false */
+    final boolean owned [];
+    /** Weapons the bot is carrying with ammo (@see Skynet.loadedArsenal) */
+    private final boolean loaded [];
+    /** Weapon the bot is holding (position in the arsenal vector) */
+    int currentWeapon;
+    /** Current primary state */
+    int primaryState;
+    /** Current secondary state */
+    int secondaryState;
+    /** Spot the bot is heading to when it has nothing better to do (null if none) */
+    ItemSpawn wanderSpot;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param individual Individual that drives the decisions of the bot.
+     */
+    public SimulatedBot (final Individual individual) {
+        this.individual = individual;
+
+        skynet = new Skynet (null, individual);
+        enemyInfo = new EnemyInfo (null);
+
+        ammo = new int [EnemyInfo.ARSENAL_TYPES.length];
+        owned = new boolean [Skynet.OWN_ARSENAL_SIZE];
+        loaded = new boolean [Skynet.OWN_ARSENAL_SIZE];
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Spawns the bot in a given spot with the default arsenal (shield gun and
+     * assault rifle), full health and no armor.
+     * @param x X coordinate of the spot.
+     * @param y Y coordinate of the spot.
+     */
+    public void spawn (double x, double y) {
+        this.x = x;
+        this.y = y;
+        health = 100;
+        armor = 0;
+
+        for (int i = 0; i < ammo.length; ++i) {
+            ammo [i] = 0;
+            owned [i] = false;
+        }
+
+        owned [EnemyInfo.SHIELD_GUN] = owned [EnemyInfo.ASSAULT_RIFLE] = true;
+        ammo [EnemyInfo.SHIELD_GUN] = DuelSimulator.MAX_AMMO [EnemyInfo.SHIELD_GUN];
+        ammo [EnemyInfo.ASSAULT_RIFLE] = DuelSimulator.AMMO_PICKUP [EnemyInfo.ASSAULT_RIFLE];
+        currentWeapon = EnemyInfo.ASSAULT_RIFLE;
+
+        primaryState = PrimaryState.States.HUNT.ordinal ();
+        secondaryState = SecondaryState.States.DISABLED.ordinal ();
+        wanderSpot = null;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * It returns the vector of weapons the bot is carrying with ammo. Note that
+     * the vector is reused between calls.
+     * @return Loaded weapons (@see Skynet.loadedArsenal).
+     */
+    public boolean [] loadedArsenal () {
+        for (int i = 0; i < ammo.length; ++i) {
+            loaded [i] = owned [i] && ammo [i] > 0;
+        }
+
+        return loaded;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Distance from the bot to a given spot.
+     * @param spotX X coordinate of the spot.
+     * @param spotY Y coordinate of the spot.
+     * @return Distance to the spot.
+     */
+    public double getDistance (double spotX, double spotY) {
+        double dx = spotX - x;
+        double dy = spotY - y;
+
+        return Math.sqrt (dx * dx + dy * dy);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Moves the bot towards (or away from, if the step is negative) a given spot.
+     * The bot never goes past the spot nor leaves the arena.
+     * @param spotX X coordinate of the spot.
+     * @param spotY Y coordinate of the spot.
+     * @param step Distance to be covered.
+     */
+    public void moveTowards (double spotX, double spotY, double step) {
+        double distance = getDistance (spotX, spotY);
+
+        if (distance > 0) {
+            if (step > distance) {
+                step = distance;
+            }
+
+            x = x + (spotX - x) / distance * step;
+            y = y + (spotY - y) / distance * step;
+
+            x = Math.max (0, Math.min (DuelSimulator.ARENA_SIZE, x));
+            y = Math.max (0, Math.min (DuelSimulator.ARENA_SIZE, y));
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * The bot receives damage. Armor absorbs it first, just like EnemyInfo assumes.
+     * @param damage Amount of damage received.
+     */
+    public void hit (int damage) {
+        armor = armor - damage;
+
+        if (armor < 0) {
+            health = health + armor;
+            armor = 0;
+        }
+    }
+
+    //__________________________________________________________________________
+
+    /** True if the bot has been killed */
+    public boolean isDead () {
+        return health <= 0;
+    }
+}
@@ -231,6 +231,6 @@ public class Arithmetic {
      * @return A random integer between lowerBound and upperBound.
      */
     public static int doRandomNumber (int lowerBound, int upperBound) {
-        return (int) (Math.random () * (upperBound - lowerBound + 1) ) + lowerBound;
+        return RandomService.current ().nextInt (lowerBound, upperBound);
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package utilities;
+
+
+/**
+ * This class provides the random numbers used by the genetic operators and by
+ * the behaviors of the bot. Every thread gets its own stream (@see RandomStream),
+ * derived from a single run seed, so there is no contention between threads and
+ * nothing is allocated each time a random number is needed.
+ *
+ * Setting the run seed makes a whole (single threaded) run reproducible. The
+ * components that run in their own threads should be given their own stream
+ * through split, in a fixed order, so they stay reproducible too.
+ *
+ * @author Francisco Aisa García
+ */
+
+
+public class RandomService {
+
+    // *************************************************************************
+    //                             STATIC FIELDS
+    // *************************************************************************
+
+
+    /** Stream from which every other stream is derived */
+    private static RandomStream root = new RandomStream (System.nanoTime ());
+    /** Seed of the current run */
+    private static long runSeed = 0;
+    /** It is incremented each time the seed changes, so threads renew their streams */
+    private static volatile int epoch = 0;
+    /** Stream of each thread along with the epoch in which it was created */
+    private static final ThreadLocal <Object []> streams = new ThreadLocal <Object []> ();
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Sets the seed of the run. Every stream handed out from now on derives from it.
+     * @param seed Seed of the run.
+     */
+    public static synchronized void seed (long seed) {
+        runSeed = seed;
+        root = new RandomStream (seed);
+        epoch = epoch + 1;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the seed of the run (0 if it hasn't been set).
+     * @return Seed of the run.
+     */
+    public static synchronized long getSeed () {
+        return runSeed;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a new stream derived from the run seed. Useful to give a component
+     * its own stream.
+     * @return A new stream.
+     */
+    public static synchronized RandomStream split () {
+        return root.split ();
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Retrieves the stream of the calling thread. It MUST NOT be shared with other
+     * threads.
+     * @return Stream of the current thread.
+     */
+    public static RandomStream current () {
+        Object slot [] = streams.get ();
+        int currentEpoch = epoch;
+
+        if (slot == null || ((Integer) slot [1]).intValue () != currentEpoch) {
+            slot = new Object [] {split (), Integer.valueOf (currentEpoch)};
+            streams.set (slot);
+        }
+
+        return (RandomStream) slot [0];
+    }
+}
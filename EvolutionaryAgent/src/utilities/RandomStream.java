@@ -0,0 +1,226 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version. This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin St,
+ * Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Copyright © 2011-2012 Francisco Aisa Garcia and Ricardo Caballero Moral
+ */
+
+package utilities;
+
+
+/**
+ * This class implements a fast, splittable stream of pseudo-random numbers
+ * (SplitMix64). The same seed always produces the same sequence, and a stream can
+ * be split into a new, statistically independent one, so each thread (or each
+ * component) can have its own stream derived from a single run seed.
+ *
+ * It is not thread safe, each stream must be used by one thread only
+ * (@see RandomService).
+ *
+ * @author Francisco Aisa García
+ */
+
+
+public class RandomStream {
+
+    // *************************************************************************
+    //                               CONSTANTS
+    // *************************************************************************
+
+
+    /** Default increment of the seed (odd, derived from the golden ratio) */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /** 2^-53, used to generate doubles */
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+
+    // *************************************************************************
+    //                             INSTANCE FIELDS
+    // *************************************************************************
+
+
+    /** Current seed, it is incremented by gamma on each step */
+    private long seed;
+    /** Increment of the seed (it must be odd) */
+    private final long gamma;
+    /** Second gaussian generated by the last execution of nextGaussian */
+    private double nextGaussian;
+    /** True if there is a gaussian waiting to be used */
+    private boolean haveNextGaussian;
+
+
+    // *************************************************************************
+    //                                METHODS
+    // *************************************************************************
+
+
+    /**
+     * Argument based constructor.
+     * @param seed Seed of the stream.
+     */
+    public RandomStream (long seed) {
+        this (seed, GOLDEN_GAMMA);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Argument based constructor.
+     * @param seed Seed of the stream.
+     * @param gamma Increment of the seed (it must be odd).
+     */
+    private RandomStream (long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+        haveNextGaussian = false;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Creates a new stream, independent from this one. This stream advances, so
+     * consecutive splits produce different streams.
+     * @return A new stream.
+     */
+    public RandomStream split () {
+        return new RandomStream (nextLong (), mixGamma (nextSeed ()));
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random long.
+     * @return A random long.
+     */
+    public long nextLong () {
+        return mix64 (nextSeed ());
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random integer.
+     * @return A random integer.
+     */
+    public int nextInt () {
+        return (int) (nextLong () >>> 32);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random integer between 0 (included) and bound (excluded). Every
+     * value has the same probability.
+     * @param bound Upper bound (it must be positive).
+     * @return A random integer between 0 and bound - 1.
+     */
+    public int nextInt (int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException ("bound must be positive");
+        }
+
+        // Reject the values of the last incomplete interval to avoid bias
+        int bits, value;
+        do {
+            bits = (int) (nextLong () >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+
+        return value;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random integer between lowerBound and upperBound (both included).
+     * @param lowerBound Lower bound.
+     * @param upperBound Upper bound.
+     * @return A random integer between lowerBound and upperBound.
+     */
+    public int nextInt (int lowerBound, int upperBound) {
+        return lowerBound + nextInt (upperBound - lowerBound + 1);
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random double between 0 (included) and 1 (excluded).
+     * @return A random double.
+     */
+    public double nextDouble () {
+        return (nextLong () >>> 11) * DOUBLE_UNIT;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random boolean.
+     * @return True or false with the same probability.
+     */
+    public boolean nextBoolean () {
+        return nextLong () < 0;
+    }
+
+    //__________________________________________________________________________
+
+    /**
+     * Generates a random double from a normal distribution (mean 0 and standard
+     * deviation 1) using the polar method.
+     * @return A random gaussian.
+     */
+    public double nextGaussian () {
+        if (haveNextGaussian) {
+            haveNextGaussian = false;
+            return nextGaussian;
+        }
+
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble () - 1;
+            v2 = 2 * nextDouble () - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+
+        double multiplier = Math.sqrt (-2 * Math.log (s) / s);
+        nextGaussian = v2 * multiplier;
+        haveNextGaussian = true;
+
+        return v1 * multiplier;
+    }
+
+    //__________________________________________________________________________
+
+    /** Advances the seed */
+    private long nextSeed () {
+        seed = seed + gamma;
+        return seed;
+    }
+
+    //__________________________________________________________________________
+
+    /** Scrambles the bits of a seed */
+    private static long mix64 (long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    //__________________________________________________________________________
+
+    /** Generates an odd gamma with enough bit transitions */
+    private static long mixGamma (long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+
+        int transitions = Long.bitCount (z ^ (z >>> 1));
+        return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}